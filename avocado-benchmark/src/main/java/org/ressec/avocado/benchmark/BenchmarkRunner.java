@@ -0,0 +1,126 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Properties;
+
+/**
+ * Entry point of the avocado benchmarks.
+ * <br><br>
+ * Runs the benchmarks selected by the standard JMH command line options (all of them by default) with the
+ * {@link GCProfiler} enabled, so each result also reports the allocation rate and the garbage collections.
+ * Results are written in JSON format in the benchmark directory ({@code project.directory.benchmark}
+ * property of the parent POM), one file per run.
+ * <pre>   {@code
+ *   java -jar avocado-benchmark/target/benchmarks.jar JsonHelper -f 1
+ * }</pre>
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@UtilityClass
+public class BenchmarkRunner
+{
+    /**
+     * Configuration resource of the runner.
+     */
+    private static final String CONFIGURATION = "/benchmark.properties";
+
+    /**
+     * Property containing the benchmark directory.
+     */
+    private static final String PROPERTY_DIRECTORY = "benchmark.directory";
+
+    /**
+     * Scheme prefixing the configured benchmark directory.
+     */
+    private static final String FILE_SCHEME = "file://";
+
+    /**
+     * Format of the timestamp of the result file names.
+     */
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /**
+     * Runs the benchmarks.
+     * @param arguments JMH command line options.
+     * @throws CommandLineOptionException Thrown in case the command line options are invalid.
+     * @throws IOException Thrown in case the benchmark directory cannot be created.
+     * @throws RunnerException Thrown in case an error occurred while running the benchmarks.
+     */
+    public static void main(final String[] arguments) throws CommandLineOptionException, IOException, RunnerException
+    {
+        var commandLine = new CommandLineOptions(arguments);
+        var directory = getDirectory();
+        Files.createDirectories(directory);
+
+        var options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(commandLine.getResult().orElse(directory.resolve("avocado-benchmark-" + LocalDateTime.now().format(TIMESTAMP) + ".json").toString()))
+                .build();
+
+        new Runner(options).run();
+    }
+
+    /**
+     * Returns the directory receiving the benchmark results.
+     * @return Benchmark directory (the {@code benchmark} directory of the working directory if not configured).
+     * @throws IOException Thrown in case the runner configuration cannot be read.
+     */
+    private static Path getDirectory() throws IOException
+    {
+        var properties = new Properties();
+        try (InputStream input = BenchmarkRunner.class.getResourceAsStream(CONFIGURATION))
+        {
+            if (input != null)
+            {
+                properties.load(input);
+            }
+        }
+
+        return toPath(properties.getProperty(PROPERTY_DIRECTORY, "benchmark"));
+    }
+
+    /**
+     * Converts a directory location (path or {@code file://} location) to a path.
+     * @param location Directory location.
+     * @return Path.
+     */
+    private static Path toPath(final @NonNull String location)
+    {
+        if (location.contains("${"))
+        {
+            // Not filtered (run from the IDE without Maven resource processing).
+            return Paths.get("benchmark");
+        }
+
+        return Paths.get(location.startsWith(FILE_SCHEME) ? location.substring(FILE_SCHEME.length()) : location);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.bean;
+
+import lombok.experimental.UtilityClass;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Utility class generating the data sets of the benchmarks (deterministic, so runs are comparable).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@UtilityClass
+public class BenchmarkData
+{
+    /**
+     * Seed of the random generators.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Customer names.
+     */
+    private static final String[] CUSTOMERS = { "Alice", "Bob", "Carol", "Dave", "Eve", "Frank", "Grace", "Heidi" };
+
+    /**
+     * Creates a list of orders.
+     * @param count Number of orders.
+     * @return Orders.
+     */
+    public static List<Order> orders(final int count)
+    {
+        var random = new Random(SEED);
+        var orders = new ArrayList<Order>(count);
+
+        for (int i = 0; i < count; i++)
+        {
+            var order = new Order();
+            order.setId(i);
+            order.setCustomer(CUSTOMERS[random.nextInt(CUSTOMERS.length)]);
+            order.setQuantity(1 + random.nextInt(100));
+            order.setAmount(random.nextInt(1_000_000) / 100.0);
+            order.setExpress(random.nextBoolean());
+            order.setCreated(Instant.ofEpochSecond(1_600_000_000L + random.nextInt(10_000_000)));
+            order.setTags(List.of("tag-" + random.nextInt(10), "tag-" + random.nextInt(10)));
+            orders.add(order);
+        }
+
+        return orders;
+    }
+
+    /**
+     * Creates a list of shapes (alternating circles and rectangles).
+     * @param count Number of shapes.
+     * @return Shapes.
+     */
+    public static List<Shape> shapes(final int count)
+    {
+        var random = new Random(SEED);
+        var shapes = new ArrayList<Shape>(count);
+
+        for (int i = 0; i < count; i++)
+        {
+            shapes.add(i % 2 == 0
+                    ? new Circle("circle-" + i, random.nextDouble() * 10)
+                    : new Rectangle("rectangle-" + i, random.nextDouble() * 10, random.nextDouble() * 10));
+        }
+
+        return shapes;
+    }
+}
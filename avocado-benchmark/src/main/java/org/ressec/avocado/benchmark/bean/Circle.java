@@ -0,0 +1,39 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.bean;
+
+import lombok.Getter;
+
+/**
+ * A circle shape.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class Circle extends Shape
+{
+    /**
+     * Radius.
+     */
+    @Getter
+    private final double radius;
+
+    /**
+     * Creates a new circle.
+     * @param name Shape name.
+     * @param radius Radius.
+     */
+    public Circle(final String name, final double radius)
+    {
+        super(name);
+        this.radius = radius;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.bean;
+
+import com.google.gson.annotations.SerializedName;
+import lombok.Getter;
+
+/**
+ * A greeting message used by the string expansion and reflection benchmarks.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class Greeting extends Message
+{
+    /**
+     * Name of the greeted person.
+     */
+    @Getter
+    @SerializedName("who")
+    private final String name;
+
+    /**
+     * City of the greeted person.
+     */
+    @Getter
+    private final String city;
+
+    /**
+     * Level of the greeted person.
+     */
+    @Getter
+    private final Level level;
+
+    /**
+     * Creates a new greeting.
+     * @param sender Message sender.
+     * @param name Name of the greeted person.
+     * @param city City of the greeted person.
+     * @param level Level of the greeted person.
+     */
+    public Greeting(final String sender, final String name, final String city, final Level level)
+    {
+        super(sender);
+        this.name = name;
+        this.city = city;
+        this.level = level;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.bean;
+
+/**
+ * An enumeration of levels used by the string expansion and random generation benchmarks.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public enum Level
+{
+    /**
+     * Beginner level.
+     */
+    BEGINNER,
+
+    /**
+     * Intermediate level.
+     */
+    INTERMEDIATE,
+
+    /**
+     * Advanced level.
+     */
+    ADVANCED,
+
+    /**
+     * Expert level.
+     */
+    EXPERT
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.bean;
+
+import com.google.gson.annotations.SerializedName;
+import lombok.Getter;
+
+/**
+ * A message, base type of {@link Greeting} used by the reflection benchmarks to exercise class hierarchy lookups.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class Message
+{
+    /**
+     * Message sender.
+     */
+    @Getter
+    @SerializedName("from")
+    private final String sender;
+
+    /**
+     * Creates a new message.
+     * @param sender Message sender.
+     */
+    public Message(final String sender)
+    {
+        this.sender = sender;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.bean;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.ressec.avocado.core.annotation.GenerateTypeAdapter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * An order bean used by the json benchmarks (having a compile-time generated type adapter).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Getter
+@Setter
+@GenerateTypeAdapter
+public class Order
+{
+    /**
+     * Order identifier.
+     */
+    private long id;
+
+    /**
+     * Customer name.
+     */
+    private String customer;
+
+    /**
+     * Ordered quantity.
+     */
+    private int quantity;
+
+    /**
+     * Order amount.
+     */
+    private double amount;
+
+    /**
+     * Express delivery flag.
+     */
+    private boolean express;
+
+    /**
+     * Creation time stamp.
+     */
+    private Instant created;
+
+    /**
+     * Order tags.
+     */
+    private List<String> tags;
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.bean;
+
+import lombok.Getter;
+
+/**
+ * A rectangle shape.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class Rectangle extends Shape
+{
+    /**
+     * Width.
+     */
+    @Getter
+    private final double width;
+
+    /**
+     * Height.
+     */
+    @Getter
+    private final double height;
+
+    /**
+     * Creates a new rectangle.
+     * @param name Shape name.
+     * @param width Width.
+     * @param height Height.
+     */
+    public Rectangle(final String name, final double width, final double height)
+    {
+        super(name);
+        this.width = width;
+        this.height = height;
+    }
+}
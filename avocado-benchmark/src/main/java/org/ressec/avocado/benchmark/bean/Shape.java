@@ -0,0 +1,37 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.bean;
+
+import lombok.Getter;
+
+/**
+ * A shape, base type of the polymorphic hierarchy used by the {@code RuntimeTypeAdapterFactory} benchmarks.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public abstract class Shape
+{
+    /**
+     * Shape name.
+     */
+    @Getter
+    private final String name;
+
+    /**
+     * Creates a new shape.
+     * @param name Shape name.
+     */
+    protected Shape(final String name)
+    {
+        this.name = name;
+    }
+}
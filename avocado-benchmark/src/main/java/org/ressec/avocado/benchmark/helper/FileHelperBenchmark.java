@@ -0,0 +1,139 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.helper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ressec.avocado.core.exception.checked.FileException;
+import org.ressec.avocado.core.helper.FileHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link FileHelper#getFile(String)} resolution tiers.
+ * <br><br>
+ * Tiers copying the file content in a temporary file delete the copy in the measured code, otherwise the
+ * temporary directory would fill up during the run.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileHelperBenchmark
+{
+    /**
+     * Name of the class path resource.
+     */
+    private static final String RESOURCE = "benchmark/sample.txt";
+
+    /**
+     * Resolution tier:
+     * <ul>
+     *     <li>FILE_SYSTEM: absolute path of an existing file</li>
+     *     <li>CLASS_PATH: class path resource (copied in a temporary file when the class path is a jar)</li>
+     *     <li>RESOURCE_COPY: absolute resource name, always copied in a temporary file</li>
+     *     <li>URL: file url, copied in a temporary file</li>
+     * </ul>
+     */
+    @Param({ "FILE_SYSTEM", "CLASS_PATH", "RESOURCE_COPY", "URL" })
+    private String tier;
+
+    /**
+     * Existing file of the file system.
+     */
+    private Path source;
+
+    /**
+     * Name of the file to resolve.
+     */
+    private String filename;
+
+    /**
+     * Creates the file to resolve.
+     * @throws IOException Thrown in case the file cannot be created.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        source = Files.createTempFile("avocado-benchmark", ".txt");
+        Files.writeString(source, "line 1\nline 2\nline 3\n");
+
+        switch (tier)
+        {
+            case "FILE_SYSTEM":
+                filename = source.toAbsolutePath().toString();
+                break;
+
+            case "CLASS_PATH":
+                filename = RESOURCE;
+                break;
+
+            case "RESOURCE_COPY":
+                filename = "/" + RESOURCE;
+                break;
+
+            case "URL":
+                filename = source.toUri().toString();
+                break;
+
+            default:
+                throw new IllegalArgumentException(String.format("Unknown resolution tier: '%s'", tier));
+        }
+    }
+
+    /**
+     * Deletes the file to resolve.
+     * @throws IOException Thrown in case the file cannot be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(source);
+    }
+
+    /**
+     * Resolves the file.
+     * @return Resolved file.
+     * @throws FileException Thrown in case the file cannot be resolved.
+     * @throws IOException Thrown in case the temporary copy cannot be deleted.
+     */
+    @Benchmark
+    public File getFile() throws FileException, IOException
+    {
+        var file = FileHelper.getFile(filename);
+        if (file.getName().endsWith(".tjf"))
+        {
+            Files.delete(file.toPath());
+        }
+
+        return file;
+    }
+}
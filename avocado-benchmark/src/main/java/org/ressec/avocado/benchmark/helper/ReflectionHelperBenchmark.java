@@ -0,0 +1,92 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.helper;
+
+import com.google.gson.annotations.SerializedName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ressec.avocado.benchmark.bean.Greeting;
+import org.ressec.avocado.benchmark.bean.Level;
+import org.ressec.avocado.core.helper.ReflectionHelper;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link ReflectionHelper} field lookups.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReflectionHelperBenchmark
+{
+    /**
+     * Object instance to look fields up in.
+     */
+    private final Greeting greeting = new Greeting("avocado", "Alice", "Paris", Level.EXPERT);
+
+    /**
+     * Finds a field declared by the class itself.
+     * @return Field.
+     * @throws NoSuchFieldException Thrown in case the field does not exist.
+     */
+    @Benchmark
+    public Field findDeclaredField() throws NoSuchFieldException
+    {
+        return ReflectionHelper.findFieldInClassHierarchy(Greeting.class, "city");
+    }
+
+    /**
+     * Finds a field declared by the super class.
+     * @return Field.
+     * @throws NoSuchFieldException Thrown in case the field does not exist.
+     */
+    @Benchmark
+    public Field findInheritedField() throws NoSuchFieldException
+    {
+        return ReflectionHelper.findFieldInClassHierarchy(Greeting.class, "sender");
+    }
+
+    /**
+     * Finds a field of an object instance.
+     * @return Field.
+     * @throws NoSuchFieldException Thrown in case the field does not exist.
+     */
+    @Benchmark
+    public Field findInstanceField() throws NoSuchFieldException
+    {
+        return ReflectionHelper.findFieldInObjectInstance(greeting, "level");
+    }
+
+    /**
+     * Finds the annotated fields of the class hierarchy.
+     * @return Annotated fields.
+     */
+    @Benchmark
+    public List<Field> findAnnotatedFields()
+    {
+        return ReflectionHelper.findAnnotatedFieldsInClassHierarchy(Greeting.class, SerializedName.class);
+    }
+}
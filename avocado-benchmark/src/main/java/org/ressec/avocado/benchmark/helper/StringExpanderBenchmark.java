@@ -0,0 +1,96 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.helper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ressec.avocado.benchmark.bean.Greeting;
+import org.ressec.avocado.benchmark.bean.Level;
+import org.ressec.avocado.core.exception.checked.StringExpanderException;
+import org.ressec.avocado.core.helper.StringExpander;
+import org.ressec.avocado.core.template.CompiledTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link StringExpander} variable expansion.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringExpanderBenchmark
+{
+    /**
+     * Template containing variables.
+     */
+    private static final String TEMPLATE = "Hello ${name} from ${city}, your level is ${level} (sent by ${sender})";
+
+    /**
+     * Template without variable.
+     */
+    private static final String PLAIN = "Hello world, this text does not contain any variable to expand";
+
+    /**
+     * Object providing the variable values.
+     */
+    private final Greeting greeting = new Greeting("avocado", "Alice", "Paris", Level.EXPERT);
+
+    /**
+     * Template compiled ahead of the expansions.
+     */
+    private final CompiledTemplate compiled = CompiledTemplate.of(TEMPLATE);
+
+    /**
+     * Expands a template containing variables.
+     * @return Expanded text.
+     * @throws StringExpanderException Thrown in case a variable cannot be expanded.
+     */
+    @Benchmark
+    public String expandVariables() throws StringExpanderException
+    {
+        return StringExpander.expandVariables(greeting, TEMPLATE);
+    }
+
+    /**
+     * Renders a template compiled ahead.
+     * @return Expanded text.
+     * @throws StringExpanderException Thrown in case a variable cannot be expanded.
+     */
+    @Benchmark
+    public String renderCompiled() throws StringExpanderException
+    {
+        return compiled.render(greeting);
+    }
+
+    /**
+     * Expands a text without variable.
+     * @return Text.
+     * @throws StringExpanderException Thrown in case a variable cannot be expanded.
+     */
+    @Benchmark
+    public String expandPlain() throws StringExpanderException
+    {
+        return StringExpander.expandVariables(greeting, PLAIN);
+    }
+}
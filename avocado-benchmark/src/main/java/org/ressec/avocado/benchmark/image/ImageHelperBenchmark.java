@@ -0,0 +1,105 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.image;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ressec.avocado.core.image.ImageException;
+import org.ressec.avocado.core.image.ImageHelper;
+import org.ressec.avocado.core.image.ImageScaleType;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link ImageHelper#getIcon(String, ImageScaleType)} loading and scaling.
+ * <br><br>
+ * The icon is extracted once in a file of the file system, so the benchmark measures the image decoding
+ * and scaling rather than the file resolution (see {@code FileHelperBenchmark}).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageHelperBenchmark
+{
+    /**
+     * Class path resource of the icon.
+     */
+    private static final String ICON = "/benchmark/translate.png";
+
+    /**
+     * Icon scale type.
+     */
+    @Param({ "IMAGE_SCALE_DEFAULT", "IMAGE_SCALE_16X16", "IMAGE_SCALE_64X64", "IMAGE_SCALE_256X256" })
+    private ImageScaleType scale;
+
+    /**
+     * Icon file.
+     */
+    private Path icon;
+
+    /**
+     * Extracts the icon in a file.
+     * @throws IOException Thrown in case the icon cannot be extracted.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        icon = Files.createTempFile("avocado-benchmark", ".png");
+        try (InputStream input = ImageHelperBenchmark.class.getResourceAsStream(ICON))
+        {
+            Files.copy(input, icon, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Deletes the icon file.
+     * @throws IOException Thrown in case the icon file cannot be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(icon);
+    }
+
+    /**
+     * Loads and scales the icon.
+     * @return Scaled icon.
+     * @throws ImageException Thrown in case the icon cannot be loaded.
+     */
+    @Benchmark
+    public BufferedImage getIcon() throws ImageException
+    {
+        return ImageHelper.getIcon(icon.toString(), scale);
+    }
+}
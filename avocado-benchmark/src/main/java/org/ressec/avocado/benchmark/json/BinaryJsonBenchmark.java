@@ -0,0 +1,308 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.json;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ressec.avocado.benchmark.bean.BenchmarkData;
+import org.ressec.avocado.benchmark.bean.Circle;
+import org.ressec.avocado.benchmark.bean.Order;
+import org.ressec.avocado.benchmark.bean.Rectangle;
+import org.ressec.avocado.benchmark.bean.Shape;
+import org.ressec.avocado.core.helper.JsonHelper;
+import org.ressec.avocado.core.json.BinaryJsonReader;
+import org.ressec.avocado.core.json.BinaryJsonWriter;
+import org.ressec.avocado.core.json.GsonRegistry;
+import org.ressec.avocado.core.json.JsonWriteOptions;
+import org.ressec.avocado.core.runtime.RuntimeTypeAdapterFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing the compact binary json encoding with the textual (pretty printed and compact) json,
+ * to and from files and in memory, for plain beans and for polymorphic beans bound by a
+ * {@link RuntimeTypeAdapterFactory}.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryJsonBenchmark
+{
+    /**
+     * Type of the serialized orders.
+     */
+    private static final Type ORDERS = new TypeToken<List<Order>>() {}.getType();
+
+    /**
+     * Type of the serialized shapes.
+     */
+    private static final Type SHAPES = new TypeToken<List<Shape>>() {}.getType();
+
+    /**
+     * Number of elements in the serialized collections.
+     */
+    @Param({ "10", "1000" })
+    private int size;
+
+    /**
+     * Orders to serialize.
+     */
+    private List<Order> orders;
+
+    /**
+     * Shapes to serialize.
+     */
+    private List<Shape> shapes;
+
+    /**
+     * Gson instance with the runtime type adapter factory of the shapes registered.
+     */
+    private Gson gson;
+
+    /**
+     * Compact json of the orders.
+     */
+    private String json;
+
+    /**
+     * Binary encoding of the orders.
+     */
+    private byte[] binary;
+
+    /**
+     * Compact json of the shapes.
+     */
+    private String shapesJson;
+
+    /**
+     * Binary encoding of the shapes.
+     */
+    private byte[] shapesBinary;
+
+    /**
+     * File written by the serialization benchmarks.
+     */
+    private File output;
+
+    /**
+     * Pretty printed json file read by the de-serialization benchmarks.
+     */
+    private File prettyInput;
+
+    /**
+     * Binary file read by the de-serialization benchmarks.
+     */
+    private File binaryInput;
+
+    /**
+     * Creates the data sets and the files.
+     * @throws IOException Thrown in case the files cannot be created.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        orders = BenchmarkData.orders(size);
+        shapes = BenchmarkData.shapes(size);
+        gson = GsonRegistry.newBuilder()
+                .registerTypeAdapterFactory(RuntimeTypeAdapterFactory.of(Shape.class, "type")
+                        .registerSubtype(Circle.class)
+                        .registerSubtype(Rectangle.class))
+                .create();
+
+        json = gson.toJson(orders, ORDERS);
+        binary = encode(orders, ORDERS);
+        shapesJson = gson.toJson(shapes, SHAPES);
+        shapesBinary = encode(shapes, SHAPES);
+
+        output = Files.createTempFile("avocado-benchmark", ".bin").toFile();
+        prettyInput = Files.createTempFile("avocado-benchmark", ".json").toFile();
+        binaryInput = Files.createTempFile("avocado-benchmark", ".bin").toFile();
+        JsonHelper.serialize(GsonRegistry.getPretty(), prettyInput, orders, ORDERS);
+        JsonHelper.serializeBinary(binaryInput, orders, ORDERS);
+    }
+
+    /**
+     * Deletes the files.
+     * @throws IOException Thrown in case the files cannot be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(output.toPath());
+        Files.deleteIfExists(prettyInput.toPath());
+        Files.deleteIfExists(binaryInput.toPath());
+    }
+
+    /**
+     * Serializes the orders in a pretty printed json file.
+     * @throws IOException Thrown in case an error occurred while writing the file.
+     */
+    @Benchmark
+    public void serializePrettyFile() throws IOException
+    {
+        JsonHelper.serialize(GsonRegistry.getPretty(), output, orders, ORDERS);
+    }
+
+    /**
+     * Serializes the orders in a binary file.
+     * @throws IOException Thrown in case an error occurred while writing the file.
+     */
+    @Benchmark
+    public void serializeBinaryFile() throws IOException
+    {
+        JsonHelper.serializeBinary(GsonRegistry.getCompact(), output, orders, ORDERS, JsonWriteOptions.DEFAULT);
+    }
+
+    /**
+     * De-serializes the orders from a pretty printed json file.
+     * @return Orders.
+     * @throws IOException Thrown in case an error occurred while reading the file.
+     */
+    @Benchmark
+    public List<Order> deserializePrettyFile() throws IOException
+    {
+        return JsonHelper.deserialize(prettyInput, ORDERS);
+    }
+
+    /**
+     * De-serializes the orders from a binary file.
+     * @return Orders.
+     * @throws IOException Thrown in case an error occurred while reading the file.
+     */
+    @Benchmark
+    public List<Order> deserializeBinaryFile() throws IOException
+    {
+        return JsonHelper.deserializeBinary(binaryInput, ORDERS);
+    }
+
+    /**
+     * Encodes the orders in compact json in memory.
+     * @return Json.
+     */
+    @Benchmark
+    public String toJson()
+    {
+        return gson.toJson(orders, ORDERS);
+    }
+
+    /**
+     * Encodes the orders in binary in memory.
+     * @return Binary encoding.
+     * @throws IOException Thrown in case an error occurred while encoding.
+     */
+    @Benchmark
+    public byte[] toBinary() throws IOException
+    {
+        return encode(orders, ORDERS);
+    }
+
+    /**
+     * Decodes the orders from compact json in memory.
+     * @return Orders.
+     */
+    @Benchmark
+    public List<Order> fromJson()
+    {
+        return gson.fromJson(json, ORDERS);
+    }
+
+    /**
+     * Decodes the orders from binary in memory.
+     * @return Orders.
+     * @throws IOException Thrown in case an error occurred while decoding.
+     */
+    @Benchmark
+    public List<Order> fromBinary() throws IOException
+    {
+        return decode(binary, ORDERS);
+    }
+
+    /**
+     * Decodes the polymorphic shapes from compact json in memory.
+     * @return Shapes.
+     */
+    @Benchmark
+    public List<Shape> shapesFromJson()
+    {
+        return gson.fromJson(shapesJson, SHAPES);
+    }
+
+    /**
+     * Decodes the polymorphic shapes from binary in memory.
+     * @return Shapes.
+     * @throws IOException Thrown in case an error occurred while decoding.
+     */
+    @Benchmark
+    public List<Shape> shapesFromBinary() throws IOException
+    {
+        return decode(shapesBinary, SHAPES);
+    }
+
+    /**
+     * Encodes an object in binary in memory.
+     * @param object Object to encode.
+     * @param type Type of the object.
+     * @return Binary encoding.
+     * @throws IOException Thrown in case an error occurred while encoding.
+     */
+    private byte[] encode(final Object object, final Type type) throws IOException
+    {
+        var output = new ByteArrayOutputStream();
+        try (var writer = new BinaryJsonWriter(output))
+        {
+            gson.toJson(object, type, writer);
+        }
+
+        return output.toByteArray();
+    }
+
+    /**
+     * Decodes an object from its binary encoding in memory.
+     * @param bytes Binary encoding.
+     * @param type Type of the object.
+     * @param <T> Type of the object.
+     * @return Decoded object.
+     * @throws IOException Thrown in case an error occurred while decoding.
+     */
+    private <T> T decode(final byte[] bytes, final Type type) throws IOException
+    {
+        try (var reader = new BinaryJsonReader(new ByteArrayInputStream(bytes)))
+        {
+            return gson.fromJson(reader, type);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.json;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ressec.avocado.benchmark.bean.BenchmarkData;
+import org.ressec.avocado.benchmark.bean.Order;
+import org.ressec.avocado.core.helper.JsonHelper;
+import org.ressec.avocado.core.json.GsonRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link JsonHelper} serialization and de-serialization services, to and from files and
+ * in memory, comparing the compile-time generated type adapters with the reflective binding of {@code Gson}.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonHelperBenchmark
+{
+    /**
+     * Type of the serialized collection.
+     */
+    private static final Type TYPE = new TypeToken<List<Order>>() {}.getType();
+
+    /**
+     * Number of orders in the serialized collection.
+     */
+    @Param({ "10", "1000" })
+    private int size;
+
+    /**
+     * Orders to serialize.
+     */
+    private List<Order> orders;
+
+    /**
+     * Json of the orders.
+     */
+    private String json;
+
+    /**
+     * Gson instance using the generated type adapters.
+     */
+    private Gson generated;
+
+    /**
+     * Gson instance using the reflective binding.
+     */
+    private Gson reflective;
+
+    /**
+     * File written by the serialization benchmark.
+     */
+    private File output;
+
+    /**
+     * File read by the de-serialization benchmark.
+     */
+    private File input;
+
+    /**
+     * Creates the data set and the files.
+     * @throws IOException Thrown in case the files cannot be created.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        orders = BenchmarkData.orders(size);
+        generated = GsonRegistry.getCompact();
+        reflective = new Gson();
+        json = generated.toJson(orders, TYPE);
+
+        output = Files.createTempFile("avocado-benchmark", ".json").toFile();
+        input = Files.createTempFile("avocado-benchmark", ".json").toFile();
+        JsonHelper.serialize(input, orders, TYPE);
+    }
+
+    /**
+     * Deletes the files.
+     * @throws IOException Thrown in case the files cannot be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(output.toPath());
+        Files.deleteIfExists(input.toPath());
+    }
+
+    /**
+     * Serializes the orders in a file.
+     * @throws IOException Thrown in case an error occurred while writing the file.
+     */
+    @Benchmark
+    public void serializeFile() throws IOException
+    {
+        JsonHelper.serialize(output, orders, TYPE);
+    }
+
+    /**
+     * De-serializes the orders from a file.
+     * @return Orders.
+     * @throws IOException Thrown in case an error occurred while reading the file.
+     */
+    @Benchmark
+    public List<Order> deserializeFile() throws IOException
+    {
+        return JsonHelper.deserialize(input, TYPE);
+    }
+
+    /**
+     * Serializes the orders in memory using the generated type adapters.
+     * @return Json.
+     */
+    @Benchmark
+    public String toJsonGenerated()
+    {
+        return generated.toJson(orders, TYPE);
+    }
+
+    /**
+     * Serializes the orders in memory using the reflective binding.
+     * @return Json.
+     */
+    @Benchmark
+    public String toJsonReflective()
+    {
+        return reflective.toJson(orders, TYPE);
+    }
+
+    /**
+     * De-serializes the orders from memory using the generated type adapters.
+     * @return Orders.
+     */
+    @Benchmark
+    public List<Order> fromJsonGenerated()
+    {
+        return generated.fromJson(json, TYPE);
+    }
+
+    /**
+     * De-serializes the orders from memory using the reflective binding.
+     * @return Orders.
+     */
+    @Benchmark
+    public List<Order> fromJsonReflective()
+    {
+        return reflective.fromJson(json, TYPE);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ressec.avocado.benchmark.bean.BenchmarkData;
+import org.ressec.avocado.benchmark.bean.Order;
+import org.ressec.avocado.core.helper.JsonHelper;
+import org.ressec.avocado.core.json.JsonProjection;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the sequential, parallel and projected decoding of json lines files.
+ * <br><br>
+ * The parallel decodings run in a pool of each of the benchmarked parallelism levels, so the throughputs
+ * show how the decoding scales with the number of cores.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonLinesBenchmark
+{
+    /**
+     * Projection on the record identifiers.
+     */
+    private static final JsonProjection PROJECTION = JsonProjection.of("/id");
+
+    /**
+     * Number of records of the file.
+     */
+    @Param({ "100000" })
+    private int size;
+
+    /**
+     * Json lines file.
+     */
+    private File file;
+
+    /**
+     * Creates the json lines file.
+     * @throws IOException Thrown in case the file cannot be written.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        file = Files.createTempFile("avocado-benchmark", ".ndjson").toFile();
+        JsonHelper.serializeLines(file, BenchmarkData.orders(size).iterator(), Order.class);
+    }
+
+    /**
+     * Deletes the json lines file.
+     * @throws IOException Thrown in case the file cannot be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    /**
+     * Decodes the file sequentially.
+     * @return Sum of the record identifiers.
+     * @throws IOException Thrown in case an error occurred while reading the file.
+     */
+    @Benchmark
+    public long sequential() throws IOException
+    {
+        try (var records = JsonHelper.<Order>deserializeLines(file, Order.class))
+        {
+            return records.mapToLong(Order::getId).sum();
+        }
+    }
+
+    /**
+     * Decodes the file in parallel, keeping the record order.
+     * @param pool Pool running the decoding.
+     * @return Sum of the record identifiers.
+     * @throws Exception Thrown in case an error occurred while reading the file.
+     */
+    @Benchmark
+    public long parallelOrdered(final Pool pool) throws Exception
+    {
+        return sumInPool(pool, true);
+    }
+
+    /**
+     * Decodes the file in parallel, without keeping the record order.
+     * @param pool Pool running the decoding.
+     * @return Sum of the record identifiers.
+     * @throws Exception Thrown in case an error occurred while reading the file.
+     */
+    @Benchmark
+    public long parallelUnordered(final Pool pool) throws Exception
+    {
+        return sumInPool(pool, false);
+    }
+
+    /**
+     * Decodes only the record identifiers of the file, skipping the other values.
+     * @return Sum of the record identifiers.
+     * @throws IOException Thrown in case an error occurred while reading the file.
+     */
+    @Benchmark
+    public long projected() throws IOException
+    {
+        try (var records = JsonHelper.<Order>projectLines(file, PROJECTION, Order.class))
+        {
+            return records.mapToLong(Order::getId).sum();
+        }
+    }
+
+    /**
+     * Decodes the file in parallel in a pool, the parallel stream running in the pool its terminal operation
+     * is invoked from.
+     * @param pool Pool running the decoding.
+     * @param ordered Whether the record order is kept.
+     * @return Sum of the record identifiers.
+     * @throws InterruptedException Thrown in case the decoding has been interrupted.
+     * @throws ExecutionException Thrown in case an error occurred while reading the file.
+     */
+    private long sumInPool(final Pool pool, final boolean ordered) throws InterruptedException, ExecutionException
+    {
+        return pool.pool.submit(() ->
+        {
+            try (var records = JsonHelper.<Order>deserializeLinesParallel(file, Order.class, ordered))
+            {
+                return records.mapToLong(Order::getId).sum();
+            }
+        }).get();
+    }
+
+    /**
+     * Pool running the parallel decodings with a given parallelism.
+     */
+    @State(Scope.Benchmark)
+    public static class Pool
+    {
+        /**
+         * Parallelism of the pool (0 for the number of available processors).
+         */
+        @Param({ "1", "2", "4", "8", "0" })
+        private int parallelism;
+
+        /**
+         * Pool.
+         */
+        private ForkJoinPool pool;
+
+        /**
+         * Creates the pool.
+         */
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        }
+
+        /**
+         * Shuts the pool down.
+         */
+        @TearDown(Level.Trial)
+        public void tearDown()
+        {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ressec.avocado.benchmark.bean.Level;
+import org.ressec.avocado.core.random.EnumRandomGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link EnumRandomGenerator} random value generation.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumRandomGeneratorBenchmark
+{
+    /**
+     * Generator without exclusion.
+     */
+    private final EnumRandomGenerator generator = new EnumRandomGenerator(Level.class);
+
+    /**
+     * Generator excluding half of the values.
+     */
+    private final EnumRandomGenerator excluding = new EnumRandomGenerator(Level.class)
+            .exclude(Level.BEGINNER)
+            .exclude(Level.INTERMEDIATE);
+
+    /**
+     * Generates a random value.
+     * @return Random value.
+     */
+    @Benchmark
+    public Enum<?> gen()
+    {
+        return generator.gen();
+    }
+
+    /**
+     * Generates a random value not excluded.
+     * @return Random value.
+     */
+    @Benchmark
+    public Enum<?> genWithExclusions()
+    {
+        return excluding.gen();
+    }
+}
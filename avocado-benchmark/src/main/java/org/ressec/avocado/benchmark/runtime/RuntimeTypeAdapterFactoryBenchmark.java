@@ -0,0 +1,141 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.benchmark.runtime;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ressec.avocado.benchmark.bean.BenchmarkData;
+import org.ressec.avocado.benchmark.bean.Circle;
+import org.ressec.avocado.benchmark.bean.Rectangle;
+import org.ressec.avocado.benchmark.bean.Shape;
+import org.ressec.avocado.core.json.GsonRegistry;
+import org.ressec.avocado.core.runtime.RuntimeTypeAdapterFactory;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the polymorphic (de)serialization through the {@link RuntimeTypeAdapterFactory}.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuntimeTypeAdapterFactoryBenchmark
+{
+    /**
+     * Type of the serialized collection.
+     */
+    private static final Type TYPE = new TypeToken<List<Shape>>() {}.getType();
+
+    /**
+     * Number of shapes in the serialized collection.
+     */
+    @Param({ "10", "1000" })
+    private int size;
+
+    /**
+     * Whether the type field is kept in the objects.
+     */
+    @Param({ "false", "true" })
+    private boolean maintainType;
+
+    /**
+     * Whether the subtypes are identified by compact type ids instead of labels.
+     */
+    @Param({ "false", "true" })
+    private boolean typeIds;
+
+    /**
+     * Shapes to serialize.
+     */
+    private List<Shape> shapes;
+
+    /**
+     * Json of the shapes.
+     */
+    private String json;
+
+    /**
+     * Gson instance with the runtime type adapter factory registered.
+     */
+    private Gson gson;
+
+    /**
+     * Creates the data set.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        shapes = BenchmarkData.shapes(size);
+        gson = GsonRegistry.newBuilder()
+                .registerTypeAdapterFactory(newFactory(maintainType))
+                .create();
+
+        // The type field is only written by the factory when it is not maintained by the objects.
+        json = GsonRegistry.newBuilder()
+                .registerTypeAdapterFactory(newFactory(false))
+                .create()
+                .toJson(shapes, TYPE);
+    }
+
+    /**
+     * Creates the runtime type adapter factory of the shapes.
+     * @param maintain Whether the type field is kept in the objects.
+     * @return Runtime type adapter factory.
+     */
+    private RuntimeTypeAdapterFactory<Shape> newFactory(final boolean maintain)
+    {
+        var factory = RuntimeTypeAdapterFactory.of(Shape.class, "type", maintain);
+
+        return typeIds
+                ? factory.registerSubtype(Circle.class, 0).registerSubtype(Rectangle.class, 1)
+                : factory.registerSubtype(Circle.class).registerSubtype(Rectangle.class);
+    }
+
+    /**
+     * Serializes the shapes.
+     * @return Json.
+     */
+    @Benchmark
+    public String write()
+    {
+        return gson.toJson(shapes, TYPE);
+    }
+
+    /**
+     * De-serializes the shapes.
+     * @return Shapes.
+     */
+    @Benchmark
+    public List<Shape> read()
+    {
+        return gson.fromJson(json, TYPE);
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Types annotated with this annotation get a {@code Gson} type adapter generated at compile time by the
+ * {@code org.ressec.avocado.core.processor.TypeAdapterProcessor} annotation processor.
+ * <br><br>
+ * The generated adapter reads and writes the fields of the type with straight-line code (no reflection, no
+ * boxing of primitive fields) and is automatically used by the {@code Gson} instances created through
+ * {@code org.ressec.avocado.core.json.GsonRegistry}. Fields are bound by their name or by their
+ * {@code @SerializedName} annotation, static and transient fields being ignored. Inaccessible fields are
+ * accessed through their getter and setter (explicit or generated by Lombok).
+ * <br>
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE })
+public @interface GenerateTypeAdapter
+{
+    // Marker interface
+}
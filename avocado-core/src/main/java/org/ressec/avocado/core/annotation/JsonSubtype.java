@@ -0,0 +1,37 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Types annotated with this annotation are subtypes automatically registered by a
+ * {@code org.ressec.avocado.core.runtime.RuntimeTypeAdapterFactory} through
+ * {@code registerIndexedSubtypes()}.
+ * <br><br>
+ * Annotated types are recorded at compile time, with their super types, in an index file by the
+ * {@code org.ressec.avocado.core.processor.JsonSubtypeProcessor} annotation processor, so registering the
+ * subtypes of a base type does not require to scan the class path at runtime.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE })
+public @interface JsonSubtype
+{
+    /**
+     * Label identifying the subtype in the type field, the simple name of the type when empty.
+     * @return Label.
+     */
+    String label() default "";
+}
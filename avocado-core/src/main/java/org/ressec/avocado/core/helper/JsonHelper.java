@@ -12,27 +12,58 @@
 package org.ressec.avocado.core.helper;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import lombok.Cleanup;
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 import org.ressec.avocado.core.exception.checked.FileException;
+import org.ressec.avocado.core.json.BinaryJsonReader;
+import org.ressec.avocado.core.json.BinaryJsonWriter;
+import org.ressec.avocado.core.json.GsonRegistry;
+import org.ressec.avocado.core.json.JsonArrayReader;
+import org.ressec.avocado.core.json.JsonAsyncExecutor;
+import org.ressec.avocado.core.json.JsonCompression;
+import org.ressec.avocado.core.json.JsonFiles;
+import org.ressec.avocado.core.json.JsonLinesSpliterator;
+import org.ressec.avocado.core.json.JsonPointer;
+import org.ressec.avocado.core.json.JsonProjection;
+import org.ressec.avocado.core.json.JsonWriteOptions;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Utility class containing services for the {@code Gson} library.
+ * <br><br>
+ * Services not taking a {@link Gson} instance as parameter use the shared profiles of the {@link GsonRegistry}.
+ * <br><br>
+ * Files with a {@code .gz} or {@code .deflate} extension are transparently compressed when written and
+ * decompressed when read (gzip files are also detected by their content), see {@link JsonCompression}.
  * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
  * @version 1.0.0
  */
 @UtilityClass
 public class JsonHelper
 {
+    /**
+     * Shared executor of the asynchronous services (lazily created).
+     */
+    private static volatile JsonAsyncExecutor asyncExecutor;
+
     /**
      * Serializes an object in a given json file.
      * @param file File where to serialize the content of the given object.
@@ -52,15 +83,7 @@ public class JsonHelper
      */
     public static void serialize(final @NonNull String filePath, final @NonNull Object object) throws IOException
     {
-        checkFolder(filePath);
-
-        @Cleanup
-        var writer = new FileWriter(filePath);
-
-        var gson = new GsonBuilder().setPrettyPrinting().create();
-        String json = gson.toJson(object);
-
-        writer.write(json);
+        serialize(GsonRegistry.getPretty(), filePath, object);
     }
 
     /**
@@ -72,12 +95,7 @@ public class JsonHelper
      */
     public static void serialize(final @NonNull Gson gson, final @NonNull String filePath, final @NonNull Object object) throws IOException
     {
-        checkFolder(filePath);
-
-        @Cleanup
-        var writer = new FileWriter(filePath);
-        String json = gson.toJson(object);
-        writer.write(json);
+        serialize(gson, new File(filePath), object, object.getClass(), JsonWriteOptions.DEFAULT);
     }
 
     /**
@@ -114,14 +132,7 @@ public class JsonHelper
      */
     public static void serialize(final @NonNull String filePath, final @NonNull Object collection, final @NonNull Type type) throws IOException
     {
-        checkFolder(filePath);
-
-        var gson = new GsonBuilder().setPrettyPrinting().create();
-
-        @Cleanup
-        var writer = new FileWriter(filePath);
-        String json = gson.toJson(collection, type);
-        writer.write(json);
+        serialize(GsonRegistry.getPretty(), filePath, collection, type);
     }
 
     /**
@@ -134,12 +145,174 @@ public class JsonHelper
      */
     public static void serialize(final @NonNull Gson gson, final @NonNull String filePath, final @NonNull Object collection, final @NonNull Type type) throws IOException
     {
-        checkFolder(filePath);
+        serialize(gson, new File(filePath), collection, type, JsonWriteOptions.DEFAULT);
+    }
 
-        @Cleanup
-        var writer = new FileWriter(filePath);
-        String json = gson.toJson(collection, type);
-        writer.write(json);
+    /**
+     * Serializes an object in json using the given write options.
+     * <br>
+     * The json is streamed through a buffered UTF-8 writer. Depending on the options, it is written in a
+     * temporary sibling file atomically renamed over the target file, forced to the storage device, or not
+     * written at all when the target file already has the same content.
+     * @param gson Gson instance to use to serialize.
+     * @param file File representing the json file.
+     * @param object Object (or collection of objects) to serialize.
+     * @param type Type of the object (including the type of object stored in the collection).
+     * @param options Write options.
+     * @return True if the file has been written, false if it has been skipped because its content is unchanged.
+     * @throws IOException Thrown in case an error occurred while serializing the object.
+     */
+    public static boolean serialize(final @NonNull Gson gson, final @NonNull File file, final @NonNull Object object, final @NonNull Type type, final @NonNull JsonWriteOptions options) throws IOException
+    {
+        return JsonFiles.write(file.toPath(), options, writer -> gson.toJson(object, type, gson.newJsonWriter(writer)));
+    }
+
+    /**
+     * Serializes an object in pretty printed json using the given write options.
+     * @param file File representing the json file.
+     * @param object Object to serialize.
+     * @param options Write options.
+     * @return True if the file has been written, false if it has been skipped because its content is unchanged.
+     * @throws IOException Thrown in case an error occurred while serializing the object.
+     */
+    public static boolean serialize(final @NonNull File file, final @NonNull Object object, final @NonNull JsonWriteOptions options) throws IOException
+    {
+        return serialize(GsonRegistry.getPretty(), file, object, object.getClass(), options);
+    }
+
+    /**
+     * Serializes an object in the compact binary json encoding (see {@link BinaryJsonWriter}).
+     * <br>
+     * The object is written through the type adapters of the given Gson instance, so the binary file holds
+     * the same document as its json counterpart, in a smaller and faster to parse form.
+     * @param gson Gson instance to use to serialize.
+     * @param file Binary json file.
+     * @param object Object (or collection of objects) to serialize.
+     * @param type Type of the object (including the type of object stored in the collection).
+     * @param options Write options.
+     * @return True if the file has been written, false if it has been skipped because its content is unchanged.
+     * @throws IOException Thrown in case an error occurred while serializing the object.
+     */
+    public static boolean serializeBinary(final @NonNull Gson gson, final @NonNull File file, final @NonNull Object object, final @NonNull Type type, final @NonNull JsonWriteOptions options) throws IOException
+    {
+        return JsonFiles.writeBinary(file.toPath(), options, output ->
+        {
+            try (var writer = new BinaryJsonWriter(output))
+            {
+                gson.toJson(object, type, writer);
+            }
+        });
+    }
+
+    /**
+     * Serializes an object in the compact binary json encoding (see {@link BinaryJsonWriter}).
+     * @param file Binary json file.
+     * @param object Object (or collection of objects) to serialize.
+     * @param type Type of the object (including the type of object stored in the collection).
+     * @throws IOException Thrown in case an error occurred while serializing the object.
+     */
+    public static void serializeBinary(final @NonNull File file, final @NonNull Object object, final @NonNull Type type) throws IOException
+    {
+        serializeBinary(GsonRegistry.getCompact(), file, object, type, JsonWriteOptions.DEFAULT);
+    }
+
+    /**
+     * Serializes the elements provided by an iterator as a json array, element by element.
+     * <br>
+     * Elements are written one at a time to a buffered writer so neither the collection of elements
+     * nor the resulting json string need to be held in memory.
+     * @param gson Gson instance to use to serialize.
+     * @param file File representing the json file.
+     * @param iterator Iterator providing the elements to serialize.
+     * @param type Type of the elements.
+     * @param <T> Type of the elements.
+     * @throws IOException Thrown in case an error occurred while serializing the elements.
+     */
+    public static <T> void serializeStream(final @NonNull Gson gson, final @NonNull File file, final @NonNull Iterator<T> iterator, final @NonNull Type type) throws IOException
+    {
+        JsonFiles.write(file.toPath(), JsonWriteOptions.DEFAULT, writer ->
+        {
+            var jsonWriter = gson.newJsonWriter(writer);
+
+            jsonWriter.beginArray();
+            while (iterator.hasNext())
+            {
+                gson.toJson(iterator.next(), type, jsonWriter);
+            }
+            jsonWriter.endArray();
+            jsonWriter.flush();
+        });
+    }
+
+    /**
+     * Serializes the elements provided by an iterator as a json array, element by element.
+     * @param file File representing the json file.
+     * @param iterator Iterator providing the elements to serialize.
+     * @param type Type of the elements.
+     * @param <T> Type of the elements.
+     * @throws IOException Thrown in case an error occurred while serializing the elements.
+     */
+    public static <T> void serializeStream(final @NonNull File file, final @NonNull Iterator<T> iterator, final @NonNull Type type) throws IOException
+    {
+        serializeStream(GsonRegistry.getPretty(), file, iterator, type);
+    }
+
+    /**
+     * Serializes the elements of a stream as a json array, element by element.
+     * <br>
+     * The stream is consumed but not closed.
+     * @param gson Gson instance to use to serialize.
+     * @param file File representing the json file.
+     * @param stream Stream providing the elements to serialize.
+     * @param type Type of the elements.
+     * @param <T> Type of the elements.
+     * @throws IOException Thrown in case an error occurred while serializing the elements.
+     */
+    public static <T> void serializeStream(final @NonNull Gson gson, final @NonNull File file, final @NonNull Stream<T> stream, final @NonNull Type type) throws IOException
+    {
+        serializeStream(gson, file, stream.iterator(), type);
+    }
+
+    /**
+     * Serializes the elements of a stream as a json array, element by element.
+     * <br>
+     * The stream is consumed but not closed.
+     * @param file File representing the json file.
+     * @param stream Stream providing the elements to serialize.
+     * @param type Type of the elements.
+     * @param <T> Type of the elements.
+     * @throws IOException Thrown in case an error occurred while serializing the elements.
+     */
+    public static <T> void serializeStream(final @NonNull File file, final @NonNull Stream<T> stream, final @NonNull Type type) throws IOException
+    {
+        serializeStream(GsonRegistry.getPretty(), file, stream.iterator(), type);
+    }
+
+    /**
+     * Serializes the elements provided by a spliterator as a json array, element by element.
+     * @param gson Gson instance to use to serialize.
+     * @param file File representing the json file.
+     * @param spliterator Spliterator providing the elements to serialize.
+     * @param type Type of the elements.
+     * @param <T> Type of the elements.
+     * @throws IOException Thrown in case an error occurred while serializing the elements.
+     */
+    public static <T> void serializeStream(final @NonNull Gson gson, final @NonNull File file, final @NonNull Spliterator<T> spliterator, final @NonNull Type type) throws IOException
+    {
+        serializeStream(gson, file, Spliterators.iterator(spliterator), type);
+    }
+
+    /**
+     * Serializes the elements provided by a spliterator as a json array, element by element.
+     * @param file File representing the json file.
+     * @param spliterator Spliterator providing the elements to serialize.
+     * @param type Type of the elements.
+     * @param <T> Type of the elements.
+     * @throws IOException Thrown in case an error occurred while serializing the elements.
+     */
+    public static <T> void serializeStream(final @NonNull File file, final @NonNull Spliterator<T> spliterator, final @NonNull Type type) throws IOException
+    {
+        serializeStream(GsonRegistry.getPretty(), file, Spliterators.iterator(spliterator), type);
     }
 
     /**
@@ -151,7 +324,7 @@ public class JsonHelper
      */
     public static <T> T deserialize(final @NonNull String jsonString, final @NonNull Type type)
     {
-        return new Gson().fromJson(jsonString, type);
+        return GsonRegistry.getCompact().fromJson(jsonString, type);
     }
 
     /**
@@ -177,7 +350,7 @@ public class JsonHelper
      */
     public static <T> T deserialize(final @NonNull File file, final @NonNull Type type) throws IOException
     {
-        return new Gson().fromJson(new FileReader(file), type);
+        return deserialize(GsonRegistry.getCompact(), file, type);
     }
 
     /**
@@ -191,7 +364,40 @@ public class JsonHelper
      */
     public static <T> T deserialize(final @NonNull Gson gson, final @NonNull File file, final @NonNull Type type) throws IOException
     {
-        return gson.fromJson(new FileReader(file), type);
+        @Cleanup
+        var reader = JsonFiles.newReader(file.toPath());
+
+        return gson.fromJson(reader, type);
+    }
+
+    /**
+     * De-serializes an object from a file written in the compact binary json encoding (see {@link BinaryJsonReader}).
+     * @param gson Gson object.
+     * @param file Binary json file.
+     * @param type Type of the object (including the type of object stored in the collection).
+     * @param <T> Type of the de-serialized object.
+     * @return De-serialized object.
+     * @throws IOException Thrown in case an error occurred while de-serializing the object.
+     */
+    public static <T> T deserializeBinary(final @NonNull Gson gson, final @NonNull File file, final @NonNull Type type) throws IOException
+    {
+        @Cleanup
+        var reader = new BinaryJsonReader(JsonFiles.newInputStream(file.toPath()));
+
+        return gson.fromJson(reader, type);
+    }
+
+    /**
+     * De-serializes an object from a file written in the compact binary json encoding (see {@link BinaryJsonReader}).
+     * @param file Binary json file.
+     * @param type Type of the object (including the type of object stored in the collection).
+     * @param <T> Type of the de-serialized object.
+     * @return De-serialized object.
+     * @throws IOException Thrown in case an error occurred while de-serializing the object.
+     */
+    public static <T> T deserializeBinary(final @NonNull File file, final @NonNull Type type) throws IOException
+    {
+        return deserializeBinary(GsonRegistry.getCompact(), file, type);
     }
 
     /**
@@ -204,7 +410,544 @@ public class JsonHelper
      */
     public static <T> T deserialize(final @NonNull File file, final @NonNull Class<?> objectClass) throws IOException
     {
-        return new Gson().fromJson(new FileReader(file), TypeToken.get(objectClass).getType());
+        return deserialize(GsonRegistry.getCompact(), file, TypeToken.get(objectClass).getType());
+    }
+
+    /**
+     * De-serializes lazily the elements of the json array referenced by a json pointer in a json file.
+     * <br>
+     * Elements are read and bound one at a time while the stream is consumed, so the file can be far larger
+     * than the available memory. The returned stream must be closed to release the file.
+     * @param gson Gson object.
+     * @param file Json file.
+     * @param type Type of the array elements.
+     * @param pointer Json pointer referencing the array (for example: {@code /data/items}), an empty string references the document itself.
+     * @param <T> Type of the de-serialized elements.
+     * @return Stream of de-serialized elements.
+     * @throws IOException Thrown in case an error occurred while opening the file or reaching the array.
+     */
+    public static <T> Stream<T> deserializeStream(final @NonNull Gson gson, final @NonNull File file, final @NonNull Type type, final @NonNull String pointer) throws IOException
+    {
+        // The pointer is parsed before opening the file, so an invalid pointer does not leak the file.
+        var arrayPointer = JsonPointer.of(pointer);
+        JsonArrayReader<T> reader = new JsonArrayReader<>(gson, JsonFiles.newReader(file.toPath()), type, arrayPointer);
+        return reader.stream();
+    }
+
+    /**
+     * De-serializes lazily the elements of a json file containing a json array.
+     * <br>
+     * The returned stream must be closed to release the file.
+     * @param gson Gson object.
+     * @param file Json file.
+     * @param type Type of the array elements.
+     * @param <T> Type of the de-serialized elements.
+     * @return Stream of de-serialized elements.
+     * @throws IOException Thrown in case an error occurred while opening the file.
+     */
+    public static <T> Stream<T> deserializeStream(final @NonNull Gson gson, final @NonNull File file, final @NonNull Type type) throws IOException
+    {
+        return deserializeStream(gson, file, type, "");
+    }
+
+    /**
+     * De-serializes lazily the elements of a json file containing a json array.
+     * <br>
+     * The returned stream must be closed to release the file.
+     * @param file Json file.
+     * @param type Type of the array elements.
+     * @param <T> Type of the de-serialized elements.
+     * @return Stream of de-serialized elements.
+     * @throws IOException Thrown in case an error occurred while opening the file.
+     */
+    public static <T> Stream<T> deserializeStream(final @NonNull File file, final @NonNull Type type) throws IOException
+    {
+        return deserializeStream(GsonRegistry.getCompact(), file, type, "");
+    }
+
+    /**
+     * Serializes the elements provided by an iterator in a json lines file (one json record per line).
+     * <br>
+     * Records are always written in compact form, whatever the pretty printing setting of the given
+     * {@link Gson} instance. Polymorphic records are supported by passing a {@link Gson} instance holding a
+     * {@link org.ressec.avocado.core.runtime.RuntimeTypeAdapterFactory} and the base type of the records.
+     * @param gson Gson instance to use to serialize.
+     * @param file Json lines file.
+     * @param iterator Iterator providing the records to serialize.
+     * @param type Type of the records.
+     * @param <T> Type of the records.
+     * @throws IOException Thrown in case an error occurred while serializing the records.
+     */
+    public static <T> void serializeLines(final @NonNull Gson gson, final @NonNull File file, final @NonNull Iterator<T> iterator, final @NonNull Type type) throws IOException
+    {
+        writeLines(gson, file, iterator, type, false);
+    }
+
+    /**
+     * Serializes the elements provided by an iterator in a json lines file (one json record per line).
+     * @param file Json lines file.
+     * @param iterator Iterator providing the records to serialize.
+     * @param type Type of the records.
+     * @param <T> Type of the records.
+     * @throws IOException Thrown in case an error occurred while serializing the records.
+     */
+    public static <T> void serializeLines(final @NonNull File file, final @NonNull Iterator<T> iterator, final @NonNull Type type) throws IOException
+    {
+        writeLines(GsonRegistry.getCompact(), file, iterator, type, false);
+    }
+
+    /**
+     * Serializes the elements of a stream in a json lines file (one json record per line).
+     * <br>
+     * The stream is consumed but not closed.
+     * @param gson Gson instance to use to serialize.
+     * @param file Json lines file.
+     * @param stream Stream providing the records to serialize.
+     * @param type Type of the records.
+     * @param <T> Type of the records.
+     * @throws IOException Thrown in case an error occurred while serializing the records.
+     */
+    public static <T> void serializeLines(final @NonNull Gson gson, final @NonNull File file, final @NonNull Stream<T> stream, final @NonNull Type type) throws IOException
+    {
+        writeLines(gson, file, stream.iterator(), type, false);
+    }
+
+    /**
+     * Serializes the elements of a stream in a json lines file (one json record per line).
+     * <br>
+     * The stream is consumed but not closed.
+     * @param file Json lines file.
+     * @param stream Stream providing the records to serialize.
+     * @param type Type of the records.
+     * @param <T> Type of the records.
+     * @throws IOException Thrown in case an error occurred while serializing the records.
+     */
+    public static <T> void serializeLines(final @NonNull File file, final @NonNull Stream<T> stream, final @NonNull Type type) throws IOException
+    {
+        writeLines(GsonRegistry.getCompact(), file, stream.iterator(), type, false);
+    }
+
+    /**
+     * Appends the elements provided by an iterator at the end of a json lines file without rewriting it.
+     * <br>
+     * The file is created if it does not exist.
+     * @param gson Gson instance to use to serialize.
+     * @param file Json lines file.
+     * @param iterator Iterator providing the records to append.
+     * @param type Type of the records.
+     * @param <T> Type of the records.
+     * @throws IOException Thrown in case an error occurred while serializing the records.
+     */
+    public static <T> void appendLines(final @NonNull Gson gson, final @NonNull File file, final @NonNull Iterator<T> iterator, final @NonNull Type type) throws IOException
+    {
+        writeLines(gson, file, iterator, type, true);
+    }
+
+    /**
+     * Appends the elements provided by an iterator at the end of a json lines file without rewriting it.
+     * <br>
+     * The file is created if it does not exist.
+     * @param file Json lines file.
+     * @param iterator Iterator providing the records to append.
+     * @param type Type of the records.
+     * @param <T> Type of the records.
+     * @throws IOException Thrown in case an error occurred while serializing the records.
+     */
+    public static <T> void appendLines(final @NonNull File file, final @NonNull Iterator<T> iterator, final @NonNull Type type) throws IOException
+    {
+        writeLines(GsonRegistry.getCompact(), file, iterator, type, true);
+    }
+
+    /**
+     * Appends a record at the end of a json lines file without rewriting it.
+     * <br>
+     * The file is created if it does not exist.
+     * @param gson Gson instance to use to serialize.
+     * @param file Json lines file.
+     * @param object Record to append.
+     * @param type Type of the record.
+     * @throws IOException Thrown in case an error occurred while serializing the record.
+     */
+    public static void appendLine(final @NonNull Gson gson, final @NonNull File file, final @NonNull Object object, final @NonNull Type type) throws IOException
+    {
+        writeLines(gson, file, Collections.singleton(object).iterator(), type, true);
+    }
+
+    /**
+     * Appends a record at the end of a json lines file without rewriting it.
+     * <br>
+     * The file is created if it does not exist.
+     * @param file Json lines file.
+     * @param object Record to append.
+     * @param type Type of the record.
+     * @throws IOException Thrown in case an error occurred while serializing the record.
+     */
+    public static void appendLine(final @NonNull File file, final @NonNull Object object, final @NonNull Type type) throws IOException
+    {
+        writeLines(GsonRegistry.getCompact(), file, Collections.singleton(object).iterator(), type, true);
+    }
+
+    /**
+     * Appends the elements provided by an iterator at the end of the top-level array of a json file, without
+     * rewriting the file.
+     * <br>
+     * The file is created with a new array if it does not exist. Appended elements are written in compact
+     * form, see {@link JsonFiles#appendToArray(java.nio.file.Path, JsonWriteOptions, JsonFiles.Content)}.
+     * @param gson Gson instance to use to serialize.
+     * @param file Json file containing an array.
+     * @param iterator Iterator providing the elements to append.
+     * @param type Type of the elements.
+     * @param <T> Type of the elements.
+     * @throws IOException Thrown in case an error occurred while appending the elements.
+     */
+    public static <T> void appendArrayElements(final @NonNull Gson gson, final @NonNull File file, final @NonNull Iterator<T> iterator, final @NonNull Type type) throws IOException
+    {
+        if (!iterator.hasNext())
+        {
+            return;
+        }
+
+        JsonFiles.appendToArray(file.toPath(), JsonWriteOptions.DEFAULT, writer ->
+        {
+            // Not created through the Gson instance to never inherit its indentation.
+            var jsonWriter = new JsonWriter(writer);
+
+            gson.toJson(iterator.next(), type, jsonWriter);
+            while (iterator.hasNext())
+            {
+                writer.write(',');
+                gson.toJson(iterator.next(), type, jsonWriter);
+            }
+        });
+    }
+
+    /**
+     * Appends the elements provided by an iterator at the end of the top-level array of a json file, without
+     * rewriting the file.
+     * <br>
+     * The file is created with a new array if it does not exist.
+     * @param file Json file containing an array.
+     * @param iterator Iterator providing the elements to append.
+     * @param type Type of the elements.
+     * @param <T> Type of the elements.
+     * @throws IOException Thrown in case an error occurred while appending the elements.
+     */
+    public static <T> void appendArrayElements(final @NonNull File file, final @NonNull Iterator<T> iterator, final @NonNull Type type) throws IOException
+    {
+        appendArrayElements(GsonRegistry.getCompact(), file, iterator, type);
+    }
+
+    /**
+     * Appends an element at the end of the top-level array of a json file, without rewriting the file.
+     * <br>
+     * The file is created with a new array if it does not exist.
+     * @param gson Gson instance to use to serialize.
+     * @param file Json file containing an array.
+     * @param object Element to append.
+     * @param type Type of the element.
+     * @throws IOException Thrown in case an error occurred while appending the element.
+     */
+    public static void appendArrayElement(final @NonNull Gson gson, final @NonNull File file, final @NonNull Object object, final @NonNull Type type) throws IOException
+    {
+        appendArrayElements(gson, file, Collections.singleton(object).iterator(), type);
+    }
+
+    /**
+     * Appends an element at the end of the top-level array of a json file, without rewriting the file.
+     * <br>
+     * The file is created with a new array if it does not exist.
+     * @param file Json file containing an array.
+     * @param object Element to append.
+     * @param type Type of the element.
+     * @throws IOException Thrown in case an error occurred while appending the element.
+     */
+    public static void appendArrayElement(final @NonNull File file, final @NonNull Object object, final @NonNull Type type) throws IOException
+    {
+        appendArrayElements(GsonRegistry.getCompact(), file, Collections.singleton(object).iterator(), type);
+    }
+
+    /**
+     * De-serializes lazily the records of a json lines file (one json record per line).
+     * <br>
+     * Records are read and bound line by line while the stream is consumed; blank lines are ignored.
+     * The returned stream must be closed to release the file.
+     * @param gson Gson object.
+     * @param file Json lines file.
+     * @param type Type of the records.
+     * @param <T> Type of the de-serialized records.
+     * @return Stream of de-serialized records.
+     * @throws IOException Thrown in case an error occurred while opening the file.
+     */
+    public static <T> Stream<T> deserializeLines(final @NonNull Gson gson, final @NonNull File file, final @NonNull Type type) throws IOException
+    {
+        var reader = JsonFiles.newReader(file.toPath());
+
+        return reader.lines()
+                .onClose(() -> closeQuietly(reader))
+                .filter(line -> !line.isBlank())
+                .map(line -> gson.fromJson(line, type));
+    }
+
+    /**
+     * De-serializes lazily the records of a json lines file (one json record per line).
+     * <br>
+     * The returned stream must be closed to release the file.
+     * @param file Json lines file.
+     * @param type Type of the records.
+     * @param <T> Type of the de-serialized records.
+     * @return Stream of de-serialized records.
+     * @throws IOException Thrown in case an error occurred while opening the file.
+     */
+    public static <T> Stream<T> deserializeLines(final @NonNull File file, final @NonNull Type type) throws IOException
+    {
+        return deserializeLines(GsonRegistry.getCompact(), file, type);
+    }
+
+    /**
+     * De-serializes the records of a json lines file in parallel.
+     * <br>
+     * The file is split into ranges aligned on lines which are decoded concurrently by the tasks of the
+     * {@code ForkJoinPool} running the stream. A compressed file, detected from its extension or from its
+     * magic bytes, is read sequentially. The returned stream must be closed to release the file.
+     * @param gson Gson object.
+     * @param file Json lines file.
+     * @param type Type of the records.
+     * @param ordered True if the records must be encountered in the order of the file, false otherwise (faster).
+     * @param <T> Type of the de-serialized records.
+     * @return Parallel stream of de-serialized records.
+     * @throws IOException Thrown in case an error occurred while opening the file.
+     */
+    public static <T> Stream<T> deserializeLinesParallel(final @NonNull Gson gson, final @NonNull File file, final @NonNull Type type, final boolean ordered) throws IOException
+    {
+        if (JsonCompression.of(file.toPath()) != JsonCompression.NONE)
+        {
+            // A compressed file (by extension or by content) cannot be split, only the decoding of its records is parallelized.
+            Stream<T> stream = JsonHelper.<T>deserializeLines(gson, file, type).parallel();
+            return ordered ? stream : stream.unordered();
+        }
+
+        return JsonLinesSpliterator.stream(gson, file.toPath(), type, ordered);
+    }
+
+    /**
+     * De-serializes the records of a json lines file in parallel.
+     * <br>
+     * The returned stream must be closed to release the file.
+     * @param file Json lines file.
+     * @param type Type of the records.
+     * @param ordered True if the records must be encountered in the order of the file, false otherwise (faster).
+     * @param <T> Type of the de-serialized records.
+     * @return Parallel stream of de-serialized records.
+     * @throws IOException Thrown in case an error occurred while opening the file.
+     */
+    public static <T> Stream<T> deserializeLinesParallel(final @NonNull File file, final @NonNull Type type, final boolean ordered) throws IOException
+    {
+        return deserializeLinesParallel(GsonRegistry.getCompact(), file, type, ordered);
+    }
+
+    /**
+     * Extracts selected values of a json file without binding the whole document.
+     * <br>
+     * Only the values referenced by the projection are parsed, all the other values are skipped and the
+     * reading stops once all the requested values have been found.
+     * @param file Json file.
+     * @param projection Json pointers of the values to extract.
+     * @return Values indexed by json pointer (pointers not found in the document are absent).
+     * @throws IOException Thrown in case an error occurred while reading the file.
+     */
+    public static Map<String, JsonElement> extract(final @NonNull File file, final @NonNull JsonProjection projection) throws IOException
+    {
+        @Cleanup
+        var reader = JsonFiles.newReader(file.toPath());
+
+        return projection.extract(new JsonReader(reader));
+    }
+
+    /**
+     * Extracts selected values of a json file and binds them into an object of the given type, without
+     * binding the whole document.
+     * @param gson Gson object.
+     * @param file Json file.
+     * @param projection Json pointers of the values to extract (each bound to the target field named after its last token).
+     * @param type Target type.
+     * @param <T> Target type.
+     * @return Projected object.
+     * @throws IOException Thrown in case an error occurred while reading the file.
+     */
+    public static <T> T project(final @NonNull Gson gson, final @NonNull File file, final @NonNull JsonProjection projection, final @NonNull Type type) throws IOException
+    {
+        @Cleanup
+        var reader = JsonFiles.newReader(file.toPath());
+
+        return projection.project(gson, gson.newJsonReader(reader), type);
+    }
+
+    /**
+     * Extracts selected values of a json file and binds them into an object of the given type, without
+     * binding the whole document.
+     * @param file Json file.
+     * @param projection Json pointers of the values to extract (each bound to the target field named after its last token).
+     * @param type Target type.
+     * @param <T> Target type.
+     * @return Projected object.
+     * @throws IOException Thrown in case an error occurred while reading the file.
+     */
+    public static <T> T project(final @NonNull File file, final @NonNull JsonProjection projection, final @NonNull Type type) throws IOException
+    {
+        return project(GsonRegistry.getCompact(), file, projection, type);
+    }
+
+    /**
+     * Projects lazily the records of a json lines file (one json record per line) on selected values,
+     * without binding the whole records.
+     * <br>
+     * The returned stream must be closed to release the file.
+     * @param gson Gson object.
+     * @param file Json lines file.
+     * @param projection Json pointers of the values to extract from each record.
+     * @param type Target type.
+     * @param <T> Target type.
+     * @return Stream of projected records.
+     * @throws IOException Thrown in case an error occurred while opening the file.
+     */
+    public static <T> Stream<T> projectLines(final @NonNull Gson gson, final @NonNull File file, final @NonNull JsonProjection projection, final @NonNull Type type) throws IOException
+    {
+        var reader = JsonFiles.newReader(file.toPath());
+
+        return reader.lines()
+                .onClose(() -> closeQuietly(reader))
+                .filter(line -> !line.isBlank())
+                .map(line ->
+                {
+                    try
+                    {
+                        return projection.<T>project(gson, gson.newJsonReader(new StringReader(line)), type);
+                    }
+                    catch (IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Projects lazily the records of a json lines file (one json record per line) on selected values,
+     * without binding the whole records.
+     * <br>
+     * The returned stream must be closed to release the file.
+     * @param file Json lines file.
+     * @param projection Json pointers of the values to extract from each record.
+     * @param type Target type.
+     * @param <T> Target type.
+     * @return Stream of projected records.
+     * @throws IOException Thrown in case an error occurred while opening the file.
+     */
+    public static <T> Stream<T> projectLines(final @NonNull File file, final @NonNull JsonProjection projection, final @NonNull Type type) throws IOException
+    {
+        return projectLines(GsonRegistry.getCompact(), file, projection, type);
+    }
+
+    /**
+     * Serializes an object in a json file asynchronously, on the shared bounded json executor.
+     * <br>
+     * Callers are blocked while the shared executor is saturated, see {@link #setAsyncExecutor(JsonAsyncExecutor)}
+     * to configure its bounds.
+     * @param gson Gson instance to use to serialize.
+     * @param file File representing the json file.
+     * @param object Object to serialize.
+     * @param type Type of the object (including the type of object stored in the collection).
+     * @param options Write options.
+     * @return Future completed with true if the file has been written, false if it has been skipped because its content is unchanged.
+     */
+    public static CompletableFuture<Boolean> serializeAsync(final @NonNull Gson gson, final @NonNull File file, final @NonNull Object object, final @NonNull Type type, final @NonNull JsonWriteOptions options)
+    {
+        return getAsyncExecutor().serialize(gson, file, object, type, options);
+    }
+
+    /**
+     * Serializes an object in a pretty printed json file asynchronously, on the shared bounded json executor.
+     * @param file File representing the json file.
+     * @param object Object to serialize.
+     * @return Future completed once the file has been written.
+     */
+    public static CompletableFuture<Boolean> serializeAsync(final @NonNull File file, final @NonNull Object object)
+    {
+        return serializeAsync(GsonRegistry.getPretty(), file, object, object.getClass(), JsonWriteOptions.DEFAULT);
+    }
+
+    /**
+     * De-serializes a json file asynchronously, on the shared bounded json executor.
+     * @param gson Gson object.
+     * @param file Json file.
+     * @param type Type of the de-serialized object (including the type of object stored in the collection).
+     * @param <T> Type of the de-serialized object.
+     * @return Future completed with the de-serialized object.
+     */
+    public static <T> CompletableFuture<T> deserializeAsync(final @NonNull Gson gson, final @NonNull File file, final @NonNull Type type)
+    {
+        return getAsyncExecutor().deserialize(gson, file, type);
+    }
+
+    /**
+     * De-serializes a json file asynchronously, on the shared bounded json executor.
+     * @param file Json file.
+     * @param type Type of the de-serialized object (including the type of object stored in the collection).
+     * @param <T> Type of the de-serialized object.
+     * @return Future completed with the de-serialized object.
+     */
+    public static <T> CompletableFuture<T> deserializeAsync(final @NonNull File file, final @NonNull Type type)
+    {
+        return deserializeAsync(GsonRegistry.getCompact(), file, type);
+    }
+
+    /**
+     * Writes records in a json lines file, one compact json record per line.
+     * @param gson Gson instance to use to serialize.
+     * @param file Json lines file.
+     * @param iterator Iterator providing the records to write.
+     * @param type Type of the records.
+     * @param append True to append the records at the end of the file, false to replace the file content.
+     * @param <T> Type of the records.
+     * @throws IOException Thrown in case an error occurred while serializing the records.
+     */
+    private static <T> void writeLines(final @NonNull Gson gson, final @NonNull File file, final @NonNull Iterator<T> iterator, final @NonNull Type type, final boolean append) throws IOException
+    {
+        JsonFiles.Content content = writer ->
+        {
+            // Not created through the Gson instance to never inherit its indentation.
+            var jsonWriter = new JsonWriter(writer);
+
+            while (iterator.hasNext())
+            {
+                gson.toJson(iterator.next(), type, jsonWriter);
+                writer.write('\n');
+            }
+        };
+
+        if (append)
+        {
+            JsonFiles.append(file.toPath(), JsonWriteOptions.DEFAULT, content);
+        }
+        else
+        {
+            JsonFiles.write(file.toPath(), JsonWriteOptions.DEFAULT, content);
+        }
+    }
+
+    /**
+     * Closes a reader, reporting a failure as an unchecked exception.
+     * @param reader Reader to close.
+     */
+    private static void closeQuietly(final @NonNull Reader reader)
+    {
+        try
+        {
+            reader.close();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -254,4 +997,40 @@ public class JsonHelper
 
         return file;
     }
+
+    /**
+     * Sets the shared executor used by the asynchronous services.
+     * <br>
+     * The previous shared executor is not closed.
+     * @param executor Bounded json executor.
+     */
+    public static void setAsyncExecutor(final @NonNull JsonAsyncExecutor executor)
+    {
+        asyncExecutor = executor;
+    }
+
+    /**
+     * Returns the shared executor used by the asynchronous services, creating it on first use with one
+     * thread per core and a queue of 16 operations per thread.
+     * @return Bounded json executor.
+     */
+    public static JsonAsyncExecutor getAsyncExecutor()
+    {
+        var executor = asyncExecutor;
+        if (executor == null)
+        {
+            synchronized (JsonHelper.class)
+            {
+                executor = asyncExecutor;
+                if (executor == null)
+                {
+                    int cores = Runtime.getRuntime().availableProcessors();
+                    executor = new JsonAsyncExecutor(cores, 16 * cores);
+                    asyncExecutor = executor;
+                }
+            }
+        }
+
+        return executor;
+    }
 }
@@ -14,8 +14,13 @@ package org.ressec.avocado.core.helper;
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 import org.ressec.avocado.core.exception.checked.StringExpanderException;
+import org.ressec.avocado.core.template.CompiledTemplate;
+import org.ressec.avocado.core.template.TemplateStreamExpander;
+import org.ressec.avocado.core.template.VariableResolver;
 
-import java.lang.reflect.Field;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -49,11 +54,13 @@ public class StringExpander
             if (start >= index)
             {
                 end = text.indexOf(endPattern, start);
-                if (end > start)
+                if (end < 0)
                 {
-                    variables.add(text.substring(start + startPattern.length(), end));
+                    // An unterminated variable ends the text.
+                    break;
                 }
 
+                variables.add(text.substring(start + startPattern.length(), end));
                 index = end;
             }
             else
@@ -81,6 +88,10 @@ public class StringExpander
 
     /**
      * Expands/replaces variables with real values in the given text.
+     * <br>
+     * The text is compiled once as a {@link CompiledTemplate} (cached by text) and rendered in a single pass. A
+     * variable is a property path, possibly nested and indexed, optionally followed by a format:
+     * <code>${order.lines[0].amount:#,##0.00}</code>.
      * @param instance Object instance containing the real values.
      * @param text Text containing the variables to be replaced/expanded by real variable values.
      * @return Expanded text.
@@ -88,58 +99,49 @@ public class StringExpander
      */
     public static String expandVariables(final @NonNull Object instance, final @NonNull String text) throws StringExpanderException
     {
-        Object value;
-        Field field;
-        String result = text;
-
         if (!containsVariable(text))
         {
             return text;
         }
 
-        for (String name : extractVariables(text))
+        return CompiledTemplate.of(text).render(instance);
+    }
+
+    /**
+     * Expands/replaces variables with the values provided by a variable resolver in the given text.
+     * <br>
+     * Resolvers can be layered (maps, properties, environment, system properties, object instances, etc.), see
+     * {@link VariableResolver#chain(VariableResolver...)}.
+     * @param resolver Variable resolver providing the real values.
+     * @param text Text containing the variables to be replaced/expanded by real variable values.
+     * @return Expanded text.
+     * @throws StringExpanderException Thrown to indicate an error occurred while trying to expand a string.
+     */
+    public static String expandVariables(final @NonNull VariableResolver resolver, final @NonNull String text) throws StringExpanderException
+    {
+        if (!containsVariable(text))
         {
-            if (name.equals("this") && instance.getClass().isEnum())
-            {
-                result = StringExpander.expandVariable(result, name, ((Enum<?>) instance).name());
-            }
-            else
-            {
-                try
-                {
-                    field = ReflectionHelper.findFieldInObjectInstance(instance, name);
-                    if (!field.canAccess(instance))
-                    {
-                        field.setAccessible(true); // TODO Find another solution!
-                    }
-                    value = field.get(instance);
-                    if (value.getClass().isEnum())
-                    {
-                        value = ((Enum<?>) field.get(instance)).name();
-                    }
-                    result = StringExpander.expandVariable(result, name, (String) value);
-                }
-                catch (NoSuchFieldException | IllegalAccessException e)
-                {
-                    throw new StringExpanderException(e);
-                }
-            }
+            return text;
         }
 
-        return result;
+        return CompiledTemplate.of(text).render(resolver);
     }
 
     /**
-     * Expands the given variable by the given value in the given text.
-     * @param source Source containing the variable to expand (replaced by the value).
-     * @param variable Variable to expand.
-     * @param value Value to use to replace the variable in the source text.
-     * @return Expanded text.
+     * Expands/replaces variables with real values in the text read from a reader, writing the expanded text to a
+     * writer.
+     * <br>
+     * The text is streamed with bounded memory (see {@link TemplateStreamExpander}), the reader and the writer
+     * are not closed.
+     * @param instance Object instance containing the real values.
+     * @param reader Reader of the text containing the variables to be replaced/expanded by real variable values.
+     * @param writer Writer the expanded text is written to.
+     * @throws StringExpanderException Thrown to indicate an error occurred while trying to expand a string.
+     * @throws IOException Thrown in case an error occurred while reading or writing the text.
      */
-    private static String expandVariable(final @NonNull String source, final @NonNull String variable, final @NonNull String value)
+    public static void expandVariables(final @NonNull Object instance, final @NonNull Reader reader, final @NonNull Writer writer) throws StringExpanderException, IOException
     {
-        String pattern = ("${" + variable + "}");
-        return source.replace(pattern, value);
+        TemplateStreamExpander.expand(instance, reader, writer);
     }
 
     /**
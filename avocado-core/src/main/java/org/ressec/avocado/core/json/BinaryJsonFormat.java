@@ -0,0 +1,121 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.json;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Constants of the binary json encoding written by {@link BinaryJsonWriter} and read by {@link BinaryJsonReader}.
+ * <br><br>
+ * The encoding is the subset of <a href="https://www.rfc-editor.org/rfc/rfc8949.html">CBOR</a> needed to
+ * represent a json document:
+ * <ul>
+ *     <li>integers are encoded as CBOR unsigned (major type 0) or negative (major type 1) integers,</li>
+ *     <li>other numbers are encoded as CBOR double precision floats or, when a double would lose precision,
+ *     as their decimal text tagged with {@link #TAG_DECIMAL},</li>
+ *     <li>strings and names are encoded as CBOR text strings (major type 3),</li>
+ *     <li>arrays and objects are encoded as CBOR indefinite length arrays (major type 4) and maps (major
+ *     type 5) terminated by a break,</li>
+ *     <li>booleans and nulls are encoded as CBOR simple values.</li>
+ * </ul>
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@UtilityClass
+class BinaryJsonFormat
+{
+    /**
+     * Major type of an unsigned integer.
+     */
+    static final int MAJOR_UNSIGNED = 0;
+
+    /**
+     * Major type of a negative integer.
+     */
+    static final int MAJOR_NEGATIVE = 1;
+
+    /**
+     * Major type of a text string.
+     */
+    static final int MAJOR_TEXT = 3;
+
+    /**
+     * Major type of a semantic tag.
+     */
+    static final int MAJOR_TAG = 6;
+
+    /**
+     * Additional information announcing a 1 byte argument (smaller arguments are stored in the initial byte).
+     */
+    static final int ARGUMENT_1 = 24;
+
+    /**
+     * Additional information announcing a 2 bytes argument.
+     */
+    static final int ARGUMENT_2 = 25;
+
+    /**
+     * Additional information announcing a 4 bytes argument.
+     */
+    static final int ARGUMENT_4 = 26;
+
+    /**
+     * Additional information announcing an 8 bytes argument.
+     */
+    static final int ARGUMENT_8 = 27;
+
+    /**
+     * Initial byte of an indefinite length array.
+     */
+    static final int BEGIN_ARRAY = 0x9f;
+
+    /**
+     * Initial byte of an indefinite length map.
+     */
+    static final int BEGIN_MAP = 0xbf;
+
+    /**
+     * Initial byte terminating an indefinite length array or map.
+     */
+    static final int BREAK = 0xff;
+
+    /**
+     * Initial byte of the false simple value.
+     */
+    static final int FALSE = 0xf4;
+
+    /**
+     * Initial byte of the true simple value.
+     */
+    static final int TRUE = 0xf5;
+
+    /**
+     * Initial byte of the null simple value.
+     */
+    static final int NULL = 0xf6;
+
+    /**
+     * Initial byte of a double precision float.
+     */
+    static final int DOUBLE = 0xfb;
+
+    /**
+     * Tag (unassigned in the CBOR registry) of a text string holding a decimal number that cannot be
+     * represented by a 64 bits integer or a double without losing precision.
+     */
+    static final int TAG_DECIMAL = 6;
+
+    /**
+     * Initial byte of a decimal number.
+     */
+    static final int DECIMAL = MAJOR_TAG << 5 | TAG_DECIMAL;
+}
@@ -0,0 +1,936 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.json;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import lombok.NonNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.ressec.avocado.core.json.BinaryJsonFormat.*;
+
+/**
+ * A {@link JsonReader} decoding a json document encoded in binary format by a {@link BinaryJsonWriter}.
+ * <br><br>
+ * As the reader is a {@link JsonReader}, any Gson type adapter (including the ones created by a
+ * {@code RuntimeTypeAdapterFactory} or generated at compile time) can read through it:
+ * <pre>   {@code
+ *   try (BinaryJsonReader reader = new BinaryJsonReader(input))
+ *   {
+ *       return gson.fromJson(reader, type);
+ *   }
+ * }</pre>
+ * Numbers are converted as a textual json reader would do: an integer can be read as a string or a double,
+ * a string holding a number can be read as a number. Unlike a textual json reader, a value that cannot be
+ * converted to the requested type is consumed.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class BinaryJsonReader extends DetachedJsonReader
+{
+    /**
+     * Size of the internal buffer.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Marker of an initial byte not yet read.
+     */
+    private static final int NONE = -2;
+
+    /**
+     * Scope of a document without value.
+     */
+    private static final byte SCOPE_EMPTY_DOCUMENT = 0;
+
+    /**
+     * Scope of a document with a value.
+     */
+    private static final byte SCOPE_DOCUMENT = 1;
+
+    /**
+     * Scope of an array.
+     */
+    private static final byte SCOPE_ARRAY = 2;
+
+    /**
+     * Scope of an object expecting a name.
+     */
+    private static final byte SCOPE_OBJECT_NAME = 3;
+
+    /**
+     * Scope of an object expecting a value.
+     */
+    private static final byte SCOPE_OBJECT_VALUE = 4;
+
+    /**
+     * Input stream providing the encoded document.
+     */
+    private final InputStream input;
+
+    /**
+     * Buffer of the encoded bytes.
+     */
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    /**
+     * Position of the next byte in the buffer.
+     */
+    private int position;
+
+    /**
+     * Number of bytes in the buffer.
+     */
+    private int limit;
+
+    /**
+     * Initial byte of the next item ({@link #NONE} if not yet read, -1 at the end of the input).
+     */
+    private int peeked = NONE;
+
+    /**
+     * Stack of the opened scopes.
+     */
+    private byte[] stack = new byte[32];
+
+    /**
+     * Names of the current members of the opened objects.
+     */
+    private String[] pathNames = new String[32];
+
+    /**
+     * Indexes of the current elements of the opened arrays.
+     */
+    private int[] pathIndices = new int[32];
+
+    /**
+     * Number of scopes in the stack.
+     */
+    private int depth = 1;
+
+    /**
+     * Creates a new binary json reader.
+     * @param input Input stream providing the encoded document.
+     * @throws IOException Thrown in case an error occurred while initializing the reader.
+     */
+    public BinaryJsonReader(final @NonNull InputStream input) throws IOException
+    {
+        this.input = input;
+        this.stack[0] = SCOPE_EMPTY_DOCUMENT;
+    }
+
+    @Override
+    public void beginArray() throws IOException
+    {
+        expect(BEGIN_ARRAY, JsonToken.BEGIN_ARRAY);
+        push(SCOPE_ARRAY);
+    }
+
+    @Override
+    public void endArray() throws IOException
+    {
+        if (stack[depth - 1] != SCOPE_ARRAY || peekInitial() != BREAK)
+        {
+            throw unexpected(JsonToken.END_ARRAY);
+        }
+
+        peeked = NONE;
+        depth--;
+        endValue();
+    }
+
+    @Override
+    public void beginObject() throws IOException
+    {
+        expect(BEGIN_MAP, JsonToken.BEGIN_OBJECT);
+        push(SCOPE_OBJECT_NAME);
+    }
+
+    @Override
+    public void endObject() throws IOException
+    {
+        if (stack[depth - 1] != SCOPE_OBJECT_NAME || peekInitial() != BREAK)
+        {
+            throw unexpected(JsonToken.END_OBJECT);
+        }
+
+        peeked = NONE;
+        pathNames[depth - 1] = null;
+        depth--;
+        endValue();
+    }
+
+    @Override
+    public boolean hasNext() throws IOException
+    {
+        var token = peek();
+        return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT;
+    }
+
+    @Override
+    public JsonToken peek() throws IOException
+    {
+        int initial = peekInitial();
+        byte scope = stack[depth - 1];
+
+        if (initial < 0)
+        {
+            if (scope == SCOPE_DOCUMENT)
+            {
+                return JsonToken.END_DOCUMENT;
+            }
+            throw new EOFException("End of input" + location());
+        }
+
+        if (initial == BREAK)
+        {
+            if (scope == SCOPE_ARRAY)
+            {
+                return JsonToken.END_ARRAY;
+            }
+            if (scope == SCOPE_OBJECT_NAME)
+            {
+                return JsonToken.END_OBJECT;
+            }
+            throw syntaxError("Unexpected break");
+        }
+
+        if (scope == SCOPE_OBJECT_NAME)
+        {
+            if (initial >>> 5 != MAJOR_TEXT)
+            {
+                throw syntaxError("Expected a name");
+            }
+            return isPromoted() ? JsonToken.STRING : JsonToken.NAME;
+        }
+
+        return tokenOf(initial);
+    }
+
+    @Override
+    public String nextName() throws IOException
+    {
+        if (stack[depth - 1] != SCOPE_OBJECT_NAME || peekInitial() < 0 || peeked >>> 5 != MAJOR_TEXT)
+        {
+            throw unexpected(JsonToken.NAME);
+        }
+
+        String name = readText(take());
+        pathNames[depth - 1] = name;
+        stack[depth - 1] = SCOPE_OBJECT_VALUE;
+
+        return name;
+    }
+
+    @Override
+    public String nextString() throws IOException
+    {
+        boolean promoted = beginValue(JsonToken.STRING);
+        int initial = peeked;
+        int major = initial >>> 5;
+        String result;
+
+        if (major == MAJOR_TEXT)
+        {
+            result = readText(take());
+        }
+        else if (major == MAJOR_UNSIGNED)
+        {
+            result = toUnsigned(readArgument(take())).toString();
+        }
+        else if (major == MAJOR_NEGATIVE)
+        {
+            result = toNegative(readArgument(take())).toString();
+        }
+        else if (initial == DOUBLE)
+        {
+            take();
+            result = Double.toString(readDouble());
+        }
+        else if (initial == DECIMAL)
+        {
+            result = readDecimal();
+        }
+        else
+        {
+            throw unexpected(JsonToken.STRING);
+        }
+
+        endValue(promoted, result);
+        return result;
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException
+    {
+        beginValue(JsonToken.BOOLEAN);
+        if (peeked != TRUE && peeked != FALSE)
+        {
+            throw unexpected(JsonToken.BOOLEAN);
+        }
+
+        boolean result = take() == TRUE;
+        endValue();
+        return result;
+    }
+
+    @Override
+    public void nextNull() throws IOException
+    {
+        beginValue(JsonToken.NULL);
+        if (peeked != NULL)
+        {
+            throw unexpected(JsonToken.NULL);
+        }
+
+        take();
+        endValue();
+    }
+
+    @Override
+    public double nextDouble() throws IOException
+    {
+        boolean promoted = beginValue(JsonToken.NUMBER);
+        int initial = peeked;
+        int major = initial >>> 5;
+        double result;
+        String text = null;
+
+        if (major == MAJOR_UNSIGNED)
+        {
+            long argument = readArgument(take());
+            result = argument >= 0 ? argument : toUnsigned(argument).doubleValue();
+        }
+        else if (major == MAJOR_NEGATIVE)
+        {
+            long argument = readArgument(take());
+            result = argument >= 0 ? ~argument : toNegative(argument).doubleValue();
+        }
+        else if (initial == DOUBLE)
+        {
+            take();
+            result = readDouble();
+        }
+        else if (major == MAJOR_TEXT || initial == DECIMAL)
+        {
+            text = initial == DECIMAL ? readDecimal() : readText(take());
+            try
+            {
+                result = Double.parseDouble(text);
+            }
+            catch (NumberFormatException e)
+            {
+                endValue(promoted, text);
+                throw new NumberFormatException("Expected a double but was " + text + location());
+            }
+        }
+        else
+        {
+            throw unexpected(JsonToken.NUMBER);
+        }
+
+        endValue(promoted, text);
+
+        if (!isLenient() && (Double.isNaN(result) || Double.isInfinite(result)))
+        {
+            throw new MalformedJsonException("JSON forbids NaN and infinities: " + result + location());
+        }
+
+        return result;
+    }
+
+    @Override
+    public long nextLong() throws IOException
+    {
+        return readLong("a long");
+    }
+
+    @Override
+    public int nextInt() throws IOException
+    {
+        long result = readLong("an int");
+        if ((int) result != result)
+        {
+            throw new NumberFormatException("Expected an int but was " + result + location());
+        }
+
+        return (int) result;
+    }
+
+    @Override
+    public void skipValue() throws IOException
+    {
+        var token = peek();
+        if (token == JsonToken.END_ARRAY || token == JsonToken.END_OBJECT || token == JsonToken.END_DOCUMENT)
+        {
+            throw unexpected(token);
+        }
+
+        if (token == JsonToken.NAME)
+        {
+            skipItem(take());
+            pathNames[depth - 1] = "null";
+            stack[depth - 1] = SCOPE_OBJECT_VALUE;
+            return;
+        }
+
+        boolean promoted = beginValue(token);
+        skipItem(take());
+        endValue(promoted, "null");
+    }
+
+    @Override
+    public String getPath()
+    {
+        var path = new StringBuilder("$");
+        for (int i = 1; i < depth; i++)
+        {
+            if (stack[i] == SCOPE_ARRAY)
+            {
+                path.append('[').append(pathIndices[i]).append(']');
+            }
+            else if (pathNames[i] != null)
+            {
+                path.append('.').append(pathNames[i]);
+            }
+        }
+
+        return path.toString();
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + location();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        input.close();
+    }
+
+    /**
+     * Reads an integer value.
+     * @param expected Description of the expected value used in the error messages.
+     * @return Value.
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private long readLong(final String expected) throws IOException
+    {
+        boolean promoted = beginValue(JsonToken.NUMBER);
+        int initial = peeked;
+        int major = initial >>> 5;
+        long result;
+        String text = null;
+
+        if (major == MAJOR_UNSIGNED || major == MAJOR_NEGATIVE)
+        {
+            long argument = readArgument(take());
+            if (argument < 0)
+            {
+                var value = major == MAJOR_UNSIGNED ? toUnsigned(argument) : toNegative(argument);
+                endValue(promoted, value.toString());
+                throw new NumberFormatException("Expected " + expected + " but was " + value + location());
+            }
+            result = major == MAJOR_UNSIGNED ? argument : ~argument;
+        }
+        else if (initial == DOUBLE)
+        {
+            take();
+            double value = readDouble();
+            result = (long) value;
+            if (result != value)
+            {
+                endValue(promoted, null);
+                throw new NumberFormatException("Expected " + expected + " but was " + value + location());
+            }
+        }
+        else if (major == MAJOR_TEXT || initial == DECIMAL)
+        {
+            text = initial == DECIMAL ? readDecimal() : readText(take());
+            try
+            {
+                result = new BigDecimal(text).longValueExact();
+            }
+            catch (NumberFormatException | ArithmeticException e)
+            {
+                endValue(promoted, text);
+                throw new NumberFormatException("Expected " + expected + " but was " + text + location());
+            }
+        }
+        else
+        {
+            throw unexpected(JsonToken.NUMBER);
+        }
+
+        endValue(promoted, text);
+        return result;
+    }
+
+    /**
+     * Checks a value can be read at the current position.
+     * @param expected Expected token, used in the error messages.
+     * @return True if the value is a name promoted to a value (see {@link DetachedJsonReader}).
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private boolean beginValue(final JsonToken expected) throws IOException
+    {
+        int initial = peekInitial();
+        if (initial < 0 || initial == BREAK)
+        {
+            throw unexpected(expected);
+        }
+
+        if (stack[depth - 1] == SCOPE_OBJECT_NAME)
+        {
+            if (initial >>> 5 == MAJOR_TEXT && isPromoted())
+            {
+                return true;
+            }
+            throw unexpected(expected);
+        }
+
+        return false;
+    }
+
+    /**
+     * Updates the current scope once a value has been read.
+     */
+    private void endValue()
+    {
+        switch (stack[depth - 1])
+        {
+            case SCOPE_EMPTY_DOCUMENT:
+                stack[depth - 1] = SCOPE_DOCUMENT;
+                break;
+
+            case SCOPE_ARRAY:
+                pathIndices[depth - 1]++;
+                break;
+
+            case SCOPE_OBJECT_VALUE:
+                stack[depth - 1] = SCOPE_OBJECT_NAME;
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Updates the current scope once a value, possibly a promoted name, has been read.
+     * @param promoted Whether the value was a promoted name.
+     * @param name Name, when the value was a promoted name.
+     * @throws IOException Thrown in case an error occurred while resetting the parent parser.
+     */
+    private void endValue(final boolean promoted, final String name) throws IOException
+    {
+        if (!promoted)
+        {
+            endValue();
+            return;
+        }
+
+        pathNames[depth - 1] = name;
+        stack[depth - 1] = SCOPE_OBJECT_VALUE;
+
+        clearPromotion();
+    }
+
+    /**
+     * Checks the next item has the given initial byte and consumes it.
+     * @param initial Expected initial byte.
+     * @param token Expected token, used in the error messages.
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private void expect(final int initial, final JsonToken token) throws IOException
+    {
+        beginValue(token);
+        if (peeked != initial)
+        {
+            throw unexpected(token);
+        }
+
+        take();
+    }
+
+    /**
+     * Opens a scope.
+     * @param scope Scope.
+     */
+    private void push(final byte scope)
+    {
+        if (depth == stack.length)
+        {
+            stack = Arrays.copyOf(stack, depth * 2);
+            pathNames = Arrays.copyOf(pathNames, depth * 2);
+            pathIndices = Arrays.copyOf(pathIndices, depth * 2);
+        }
+
+        stack[depth] = scope;
+        pathNames[depth] = null;
+        pathIndices[depth] = 0;
+        depth++;
+    }
+
+    /**
+     * Returns the token corresponding to the initial byte of a value.
+     * @param initial Initial byte.
+     * @return Token.
+     * @throws IOException Thrown in case the initial byte is not supported.
+     */
+    private JsonToken tokenOf(final int initial) throws IOException
+    {
+        int major = initial >>> 5;
+
+        if (major == MAJOR_UNSIGNED || major == MAJOR_NEGATIVE || initial == DOUBLE || initial == DECIMAL)
+        {
+            return JsonToken.NUMBER;
+        }
+        if (major == MAJOR_TEXT)
+        {
+            return JsonToken.STRING;
+        }
+
+        switch (initial)
+        {
+            case BEGIN_ARRAY:
+                return JsonToken.BEGIN_ARRAY;
+
+            case BEGIN_MAP:
+                return JsonToken.BEGIN_OBJECT;
+
+            case TRUE:
+            case FALSE:
+                return JsonToken.BOOLEAN;
+
+            case NULL:
+                return JsonToken.NULL;
+
+            default:
+                throw syntaxError(String.format("Unsupported initial byte: 0x%02x", initial));
+        }
+    }
+
+    /**
+     * Skips an item, including the nested ones.
+     * @param initial Initial byte of the item (already consumed).
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private void skipItem(final int initial) throws IOException
+    {
+        int major = initial >>> 5;
+
+        if (major == MAJOR_TEXT)
+        {
+            skip(readArgument(initial));
+        }
+        else if (major == MAJOR_UNSIGNED || major == MAJOR_NEGATIVE)
+        {
+            readArgument(initial);
+        }
+        else if (initial == DOUBLE)
+        {
+            skip(8);
+        }
+        else if (initial == DECIMAL)
+        {
+            skipItem(take());
+        }
+        else if (initial == BEGIN_ARRAY || initial == BEGIN_MAP)
+        {
+            int next;
+            while ((next = take()) != BREAK)
+            {
+                skipItem(next);
+            }
+        }
+        else if (initial != TRUE && initial != FALSE && initial != NULL)
+        {
+            throw syntaxError(String.format("Unsupported initial byte: 0x%02x", initial));
+        }
+    }
+
+    /**
+     * Reads a decimal number (tag followed by a text string).
+     * @return Decimal text.
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private String readDecimal() throws IOException
+    {
+        take();
+        int initial = take();
+        if (initial >>> 5 != MAJOR_TEXT)
+        {
+            throw syntaxError("Expected the text of a decimal number");
+        }
+
+        return readText(initial);
+    }
+
+    /**
+     * Reads the payload of a text string.
+     * @param initial Initial byte of the text string (already consumed).
+     * @return Text.
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private String readText(final int initial) throws IOException
+    {
+        long length = readArgument(initial);
+        if (length < 0 || length > Integer.MAX_VALUE)
+        {
+            throw syntaxError(String.format("Invalid text length: %s", Long.toUnsignedString(length)));
+        }
+
+        int size = (int) length;
+        if (size <= BUFFER_SIZE)
+        {
+            require(size);
+            var text = new String(buffer, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return text;
+        }
+
+        var bytes = new byte[size];
+        int available = limit - position;
+        System.arraycopy(buffer, position, bytes, 0, available);
+        position = limit;
+        if (input.readNBytes(bytes, available, size - available) != size - available)
+        {
+            throw new EOFException("End of input" + location());
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a double precision float payload.
+     * @return Value.
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private double readDouble() throws IOException
+    {
+        return Double.longBitsToDouble(readBigEndian(8));
+    }
+
+    /**
+     * Reads the argument of an item.
+     * @param initial Initial byte of the item (already consumed).
+     * @return Argument (to be considered as unsigned).
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private long readArgument(final int initial) throws IOException
+    {
+        int additional = initial & 0x1f;
+
+        if (additional < ARGUMENT_1)
+        {
+            return additional;
+        }
+
+        switch (additional)
+        {
+            case ARGUMENT_1:
+                return readBigEndian(1);
+
+            case ARGUMENT_2:
+                return readBigEndian(2);
+
+            case ARGUMENT_4:
+                return readBigEndian(4);
+
+            case ARGUMENT_8:
+                return readBigEndian(8);
+
+            default:
+                throw syntaxError(String.format("Unsupported initial byte: 0x%02x", initial));
+        }
+    }
+
+    /**
+     * Reads a big endian value.
+     * @param size Number of bytes.
+     * @return Value.
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private long readBigEndian(final int size) throws IOException
+    {
+        require(size);
+
+        long value = 0;
+        for (int i = 0; i < size; i++)
+        {
+            value = value << 8 | (buffer[position++] & 0xff);
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the initial byte of the next item without consuming it.
+     * @return Initial byte or -1 at the end of the input.
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private int peekInitial() throws IOException
+    {
+        if (peeked == NONE)
+        {
+            peeked = position < limit || fill() ? buffer[position++] & 0xff : -1;
+        }
+
+        return peeked;
+    }
+
+    /**
+     * Consumes the initial byte of the next item.
+     * @return Initial byte.
+     * @throws IOException Thrown in case the end of the input is reached or an error occurred while reading.
+     */
+    private int take() throws IOException
+    {
+        int initial = peekInitial();
+        if (initial < 0)
+        {
+            throw new EOFException("End of input" + location());
+        }
+
+        peeked = NONE;
+        return initial;
+    }
+
+    /**
+     * Ensures the buffer contains at least the given number of bytes.
+     * @param size Number of bytes (lower or equal to the buffer size).
+     * @throws IOException Thrown in case the end of the input is reached or an error occurred while reading.
+     */
+    private void require(final int size) throws IOException
+    {
+        if (limit - position >= size)
+        {
+            return;
+        }
+
+        int available = limit - position;
+        System.arraycopy(buffer, position, buffer, 0, available);
+        position = 0;
+        limit = available;
+
+        while (limit < size)
+        {
+            int read = input.read(buffer, limit, BUFFER_SIZE - limit);
+            if (read < 0)
+            {
+                throw new EOFException("End of input" + location());
+            }
+            limit += read;
+        }
+    }
+
+    /**
+     * Skips bytes.
+     * @param count Number of bytes to skip.
+     * @throws IOException Thrown in case the end of the input is reached or an error occurred while reading.
+     */
+    private void skip(final long count) throws IOException
+    {
+        long remaining = count;
+        while (remaining > 0)
+        {
+            if (position == limit && !fill())
+            {
+                throw new EOFException("End of input" + location());
+            }
+
+            int step = (int) Math.min(remaining, limit - position);
+            position += step;
+            remaining -= step;
+        }
+    }
+
+    /**
+     * Fills the buffer.
+     * @return False if the end of the input is reached.
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private boolean fill() throws IOException
+    {
+        int read;
+        do
+        {
+            read = input.read(buffer, 0, BUFFER_SIZE);
+        }
+        while (read == 0);
+
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    /**
+     * Converts an argument to an unsigned integer.
+     * @param argument Argument.
+     * @return Unsigned integer.
+     */
+    private static BigInteger toUnsigned(final long argument)
+    {
+        return new BigInteger(Long.toUnsignedString(argument));
+    }
+
+    /**
+     * Converts the argument of a negative integer to its value ({@code -1 - argument}).
+     * @param argument Argument.
+     * @return Negative integer.
+     */
+    private static BigInteger toNegative(final long argument)
+    {
+        return BigInteger.ONE.negate().subtract(toUnsigned(argument));
+    }
+
+    /**
+     * Creates an exception reporting an unexpected token.
+     * @param expected Expected token.
+     * @return Exception.
+     * @throws IOException Thrown in case an error occurred while reading the actual token.
+     */
+    private IllegalStateException unexpected(final JsonToken expected) throws IOException
+    {
+        return new IllegalStateException("Expected " + expected + " but was " + peek() + location());
+    }
+
+    /**
+     * Creates an exception reporting a malformed document.
+     * @param message Message.
+     * @return Exception.
+     */
+    private MalformedJsonException syntaxError(final String message)
+    {
+        return new MalformedJsonException(message + location());
+    }
+
+    /**
+     * Returns the location of the reader used in the error messages.
+     * @return Location.
+     */
+    private String location()
+    {
+        return " at path " + getPath();
+    }
+}
@@ -0,0 +1,493 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.json;
+
+import com.google.gson.JsonParser;
+import com.google.gson.internal.Streams;
+import com.google.gson.stream.JsonWriter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.ressec.avocado.core.json.BinaryJsonFormat.*;
+
+/**
+ * A {@link JsonWriter} encoding the json document in a compact binary format (see {@link BinaryJsonFormat}).
+ * <br><br>
+ * As the writer is a {@link JsonWriter}, any Gson type adapter (including the ones created by a
+ * {@code RuntimeTypeAdapterFactory} or generated at compile time) can write through it:
+ * <pre>   {@code
+ *   try (BinaryJsonWriter writer = new BinaryJsonWriter(output))
+ *   {
+ *       gson.toJson(object, type, writer);
+ *   }
+ * }</pre>
+ * Indentation and html escaping settings are meaningless for a binary encoding and are ignored.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class BinaryJsonWriter extends JsonWriter
+{
+    /**
+     * Size of the internal buffer.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Scope of the document.
+     */
+    private static final byte SCOPE_DOCUMENT = 0;
+
+    /**
+     * Scope of an array.
+     */
+    private static final byte SCOPE_ARRAY = 1;
+
+    /**
+     * Scope of an object.
+     */
+    private static final byte SCOPE_OBJECT = 2;
+
+    /**
+     * Text writer given to the parent class, never written as all the writes are overridden.
+     */
+    private static final Writer UNUSED = Writer.nullWriter();
+
+    /**
+     * Output stream receiving the encoded document.
+     */
+    private final OutputStream output;
+
+    /**
+     * Buffer of the encoded bytes.
+     */
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    /**
+     * Number of bytes in the buffer.
+     */
+    private int count;
+
+    /**
+     * Stack of the opened scopes.
+     */
+    private byte[] stack = new byte[32];
+
+    /**
+     * Number of scopes in the stack.
+     */
+    private int depth = 1;
+
+    /**
+     * Name written once its value is known (so it can be omitted with a null value).
+     */
+    private String deferredName;
+
+    /**
+     * Creates a new binary json writer.
+     * @param output Output stream receiving the encoded document.
+     */
+    public BinaryJsonWriter(final @NonNull OutputStream output)
+    {
+        super(UNUSED);
+        this.output = output;
+        this.stack[0] = SCOPE_DOCUMENT;
+    }
+
+    @Override
+    public JsonWriter beginArray() throws IOException
+    {
+        beforeValue();
+        push(SCOPE_ARRAY);
+        writeByte(BEGIN_ARRAY);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException
+    {
+        return close(SCOPE_ARRAY);
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException
+    {
+        beforeValue();
+        push(SCOPE_OBJECT);
+        writeByte(BEGIN_MAP);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException
+    {
+        return close(SCOPE_OBJECT);
+    }
+
+    @Override
+    public JsonWriter name(final @NonNull String name) throws IOException
+    {
+        if (deferredName != null || stack[depth - 1] != SCOPE_OBJECT)
+        {
+            throw new IllegalStateException(String.format("Unexpected name: '%s'", name));
+        }
+
+        deferredName = name;
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final String value) throws IOException
+    {
+        if (value == null)
+        {
+            return nullValue();
+        }
+
+        beforeValue();
+        writeText(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter jsonValue(final String value) throws IOException
+    {
+        if (value == null)
+        {
+            return nullValue();
+        }
+
+        Streams.write(JsonParser.parseString(value), this);
+        return this;
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException
+    {
+        if (deferredName != null && !getSerializeNulls())
+        {
+            // The name and its null value are both omitted.
+            deferredName = null;
+            return this;
+        }
+
+        beforeValue();
+        writeByte(NULL);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final boolean value) throws IOException
+    {
+        beforeValue();
+        writeByte(value ? TRUE : FALSE);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final Boolean value) throws IOException
+    {
+        return value == null ? nullValue() : value(value.booleanValue());
+    }
+
+    @Override
+    public JsonWriter value(final double value) throws IOException
+    {
+        if (!isLenient() && (Double.isNaN(value) || Double.isInfinite(value)))
+        {
+            throw new IllegalArgumentException(String.format("Numeric values must be finite, but was: %s", value));
+        }
+
+        beforeValue();
+        writeDouble(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final long value) throws IOException
+    {
+        beforeValue();
+        writeLong(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final Number value) throws IOException
+    {
+        if (value == null)
+        {
+            return nullValue();
+        }
+
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof AtomicInteger || value instanceof AtomicLong)
+        {
+            return value(value.longValue());
+        }
+
+        if (value instanceof Double || value instanceof Float)
+        {
+            return value(value.doubleValue());
+        }
+
+        if (value instanceof BigInteger && ((BigInteger) value).bitLength() < Long.SIZE)
+        {
+            return value(value.longValue());
+        }
+
+        // Arbitrary precision or lazily parsed number, the most compact lossless encoding is used.
+        String text = value.toString();
+        BigDecimal decimal;
+        try
+        {
+            decimal = new BigDecimal(text);
+        }
+        catch (NumberFormatException e)
+        {
+            // NaN or infinity.
+            return value(Double.parseDouble(text));
+        }
+
+        beforeValue();
+        double number = decimal.doubleValue();
+        if (decimal.scale() <= 0 && decimal.precision() - decimal.scale() < 19)
+        {
+            writeLong(decimal.longValueExact());
+        }
+        else if (!Double.isInfinite(number) && decimal.compareTo(new BigDecimal(Double.toString(number))) == 0)
+        {
+            writeDouble(number);
+        }
+        else
+        {
+            writeByte(DECIMAL);
+            writeText(text);
+        }
+
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        drain();
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        drain();
+        output.close();
+
+        if (depth > 1 || deferredName != null)
+        {
+            throw new IOException("Incomplete document");
+        }
+    }
+
+    /**
+     * Writes the deferred name (if any) and checks a value can be written.
+     * @throws IOException Thrown in case an error occurred while writing.
+     */
+    private void beforeValue() throws IOException
+    {
+        if (deferredName != null)
+        {
+            String name = deferredName;
+            deferredName = null;
+            writeText(name);
+        }
+        else if (stack[depth - 1] == SCOPE_OBJECT)
+        {
+            throw new IllegalStateException("Expected a name before a value in an object");
+        }
+    }
+
+    /**
+     * Opens a scope.
+     * @param scope Scope.
+     */
+    private void push(final byte scope)
+    {
+        if (depth == stack.length)
+        {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+
+        stack[depth++] = scope;
+    }
+
+    /**
+     * Closes the current scope.
+     * @param scope Expected scope.
+     * @return This writer.
+     * @throws IOException Thrown in case an error occurred while writing.
+     */
+    private JsonWriter close(final byte scope) throws IOException
+    {
+        if (stack[depth - 1] != scope || deferredName != null)
+        {
+            throw new IllegalStateException("Nesting problem");
+        }
+
+        depth--;
+        writeByte(BREAK);
+        return this;
+    }
+
+    /**
+     * Writes an integer.
+     * @param value Value.
+     * @throws IOException Thrown in case an error occurred while writing.
+     */
+    private void writeLong(final long value) throws IOException
+    {
+        if (value >= 0)
+        {
+            writeHeader(MAJOR_UNSIGNED, value);
+        }
+        else
+        {
+            writeHeader(MAJOR_NEGATIVE, ~value);
+        }
+    }
+
+    /**
+     * Writes a double precision float.
+     * @param value Value.
+     * @throws IOException Thrown in case an error occurred while writing.
+     */
+    private void writeDouble(final double value) throws IOException
+    {
+        ensure(9);
+        buffer[count++] = (byte) DOUBLE;
+        writeBigEndian(Double.doubleToRawLongBits(value), 8);
+    }
+
+    /**
+     * Writes a text string.
+     * @param value Value.
+     * @throws IOException Thrown in case an error occurred while writing.
+     */
+    private void writeText(final String value) throws IOException
+    {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeHeader(MAJOR_TEXT, bytes.length);
+
+        if (bytes.length <= BUFFER_SIZE - count)
+        {
+            System.arraycopy(bytes, 0, buffer, count, bytes.length);
+            count += bytes.length;
+        }
+        else
+        {
+            drain();
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Writes the initial byte of an item with its argument.
+     * @param major Major type.
+     * @param argument Argument (considered as unsigned).
+     * @throws IOException Thrown in case an error occurred while writing.
+     */
+    private void writeHeader(final int major, final long argument) throws IOException
+    {
+        ensure(9);
+        int type = major << 5;
+
+        if (argument >= 0 && argument < ARGUMENT_1)
+        {
+            buffer[count++] = (byte) (type | (int) argument);
+        }
+        else if (argument >= 0 && argument <= 0xffL)
+        {
+            buffer[count++] = (byte) (type | ARGUMENT_1);
+            writeBigEndian(argument, 1);
+        }
+        else if (argument >= 0 && argument <= 0xffffL)
+        {
+            buffer[count++] = (byte) (type | ARGUMENT_2);
+            writeBigEndian(argument, 2);
+        }
+        else if (argument >= 0 && argument <= 0xffffffffL)
+        {
+            buffer[count++] = (byte) (type | ARGUMENT_4);
+            writeBigEndian(argument, 4);
+        }
+        else
+        {
+            buffer[count++] = (byte) (type | ARGUMENT_8);
+            writeBigEndian(argument, 8);
+        }
+    }
+
+    /**
+     * Writes the low order bytes of a value in big endian order in the buffer.
+     * @param value Value.
+     * @param size Number of bytes to write.
+     */
+    private void writeBigEndian(final long value, final int size)
+    {
+        for (int shift = (size - 1) * 8; shift >= 0; shift -= 8)
+        {
+            buffer[count++] = (byte) (value >>> shift);
+        }
+    }
+
+    /**
+     * Writes a single byte.
+     * @param value Byte value.
+     * @throws IOException Thrown in case an error occurred while writing.
+     */
+    private void writeByte(final int value) throws IOException
+    {
+        ensure(1);
+        buffer[count++] = (byte) value;
+    }
+
+    /**
+     * Ensures the buffer has room for the given number of bytes.
+     * @param size Number of bytes.
+     * @throws IOException Thrown in case an error occurred while writing.
+     */
+    private void ensure(final int size) throws IOException
+    {
+        if (count + size > BUFFER_SIZE)
+        {
+            drain();
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the output stream.
+     * @throws IOException Thrown in case an error occurred while writing.
+     */
+    private void drain() throws IOException
+    {
+        if (count > 0)
+        {
+            output.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.json;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Base class of the {@link JsonReader} implementations not reading their document through the textual parser
+ * of their parent class (binary decoders, readers forwarding to another reader, etc.).
+ * <br><br>
+ * Gson reads the keys of a map by promoting the next name to a value, through an internal hook manipulating
+ * the private state of the {@link JsonReader} parent class. To keep this hook working, the parent parser is
+ * kept positioned before a name of an endless synthetic object: a promotion is detected when the parent
+ * parser sees a string instead of a name (see {@link #isPromoted()}), and must be cleared once handled
+ * (see {@link #clearPromotion()}).
+ * <br><br>
+ * Subclasses must override all the public reading methods of {@link JsonReader}.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public abstract class DetachedJsonReader extends JsonReader
+{
+    /**
+     * Creates a new detached json reader.
+     * @throws IOException Thrown in case an error occurred while positioning the parent parser.
+     */
+    protected DetachedJsonReader() throws IOException
+    {
+        super(new PromotionInput());
+        super.beginObject();
+    }
+
+    /**
+     * Checks if the next name has been promoted to a value by Gson (while reading the keys of a map).
+     * @return True if the name has been promoted.
+     * @throws IOException Thrown in case an error occurred while peeking the parent parser.
+     */
+    protected final boolean isPromoted() throws IOException
+    {
+        return super.peek() == JsonToken.STRING;
+    }
+
+    /**
+     * Positions the parent parser before the next synthetic name once a promotion has been handled.
+     * @throws IOException Thrown in case an error occurred while reading the parent parser.
+     */
+    protected final void clearPromotion() throws IOException
+    {
+        super.nextString();
+        super.skipValue();
+    }
+
+    /**
+     * The synthetic input of the parent parser: an endless object whose members are read each time Gson
+     * promotes a name to a value.
+     */
+    private static final class PromotionInput extends Reader
+    {
+        /**
+         * Synthetic member.
+         */
+        private static final String MEMBER = "\"a\":0,";
+
+        /**
+         * Whether the opening brace has been provided.
+         */
+        private boolean started;
+
+        /**
+         * Index of the next character of the member.
+         */
+        private int index;
+
+        @Override
+        public int read(final char[] characters, final int offset, final int length)
+        {
+            int count = 0;
+            if (!started && length > 0)
+            {
+                characters[offset] = '{';
+                started = true;
+                count = 1;
+            }
+
+            // Members are provided one at a time so the parent parser never buffers more than needed.
+            int end = Math.min(length, count + MEMBER.length());
+            while (count < end)
+            {
+                characters[offset + count++] = MEMBER.charAt(index);
+                index = (index + 1) % MEMBER.length();
+            }
+
+            return count;
+        }
+
+        @Override
+        public void close()
+        {
+            // Nothing to release.
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.json;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.internal.Excluder;
+import com.google.gson.internal.bind.TypeAdapters;
+import com.google.gson.reflect.TypeToken;
+import lombok.NonNull;
+import org.ressec.avocado.core.annotation.GenerateTypeAdapter;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+import java.util.Optional;
+
+/**
+ * A {@code Gson} type adapter factory providing the type adapters generated at compile time for the types
+ * annotated with {@link GenerateTypeAdapter}.
+ * <br><br>
+ * Types not annotated (or annotated but compiled without the annotation processor) are not handled, so
+ * {@code Gson} falls back on its reflective binding for them. The reflective binding is also used when the
+ * {@code Gson} instance customizes the binding (field naming policy, exclusion strategies, versioning or long
+ * serialization policy), as the generated adapters do not replicate these customizations.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class GeneratedTypeAdapterFactory implements TypeAdapterFactory
+{
+    /**
+     * Suffix of the name of the generated type adapters.
+     */
+    public static final String ADAPTER_SUFFIX = "_GsonTypeAdapter";
+
+    /**
+     * Shared instance.
+     */
+    public static final GeneratedTypeAdapterFactory INSTANCE = new GeneratedTypeAdapterFactory();
+
+    /**
+     * Constructor of the generated adapter of each type (empty when the type has no generated adapter).
+     */
+    private static final ClassValue<Optional<Constructor<?>>> CONSTRUCTORS = new ClassValue<>()
+    {
+        @Override
+        protected Optional<Constructor<?>> computeValue(final Class<?> type)
+        {
+            return findConstructor(type);
+        }
+    };
+
+    /**
+     * Creates the factory, use {@link #INSTANCE}.
+     */
+    private GeneratedTypeAdapterFactory()
+    {
+        // Empty
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type)
+    {
+        var raw = type.getRawType();
+        if (!raw.isAnnotationPresent(GenerateTypeAdapter.class) || raw.getTypeParameters().length > 0 || !isSupported(gson))
+        {
+            return null;
+        }
+
+        var constructor = CONSTRUCTORS.get(raw);
+        if (constructor.isEmpty())
+        {
+            return null;
+        }
+
+        try
+        {
+            return (TypeAdapter<T>) constructor.get().newInstance(gson);
+        }
+        catch (InstantiationException | IllegalAccessException | InvocationTargetException e)
+        {
+            throw new JsonParseException(String.format("Cannot instantiate generated type adapter of: '%s'", raw.getName()), e);
+        }
+    }
+
+    /**
+     * Checks if a {@code Gson} instance has the default binding configuration assumed by the generated type
+     * adapters (field names, no exclusion strategy, longs written as numbers).
+     * @param gson Gson instance.
+     * @return True if supported, false if the reflective binding must be used.
+     */
+    private static boolean isSupported(final @NonNull Gson gson)
+    {
+        return gson.fieldNamingStrategy() == FieldNamingPolicy.IDENTITY
+                && gson.excluder() == Excluder.DEFAULT
+                && TypeAdapters.LONG.equals(gson.getAdapter(long.class));
+    }
+
+    /**
+     * Returns the name of the type adapter generated for a type.
+     * @param packageName Package of the type.
+     * @param simpleNames Simple names of the type and of its enclosing types, outermost first.
+     * @return Fully qualified name of the generated type adapter.
+     */
+    public static String getAdapterName(final @NonNull String packageName, final @NonNull Iterable<String> simpleNames)
+    {
+        var name = String.join("_", simpleNames) + ADAPTER_SUFFIX;
+
+        return packageName.isEmpty() ? name : packageName + "." + name;
+    }
+
+    /**
+     * Finds the constructor of the type adapter generated for a type.
+     * @param type Type.
+     * @return Constructor taking the {@code Gson} instance as parameter, empty if there is no generated adapter.
+     */
+    private static Optional<Constructor<?>> findConstructor(final @NonNull Class<?> type)
+    {
+        var names = new ArrayDeque<String>();
+        for (Class<?> current = type; current != null; current = current.getEnclosingClass())
+        {
+            names.addFirst(current.getSimpleName());
+        }
+
+        try
+        {
+            var adapter = Class.forName(getAdapterName(type.getPackageName(), names), true, type.getClassLoader());
+
+            return Optional.of(adapter.getConstructor(Gson.class));
+        }
+        catch (ClassNotFoundException | NoSuchMethodException e)
+        {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.json;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe registry of named, pre-built {@code Gson} instances (called profiles).
+ * <br><br>
+ * A {@link Gson} instance caches the type adapters it creates, so building a new instance for each
+ * (de)serialization throws this cache away and forces the reflective binding of the same types again
+ * and again. Profiles are built once, shared by all the services of the {@code JsonHelper} and can be
+ * warmed up at startup for the types known to be (de)serialized.
+ * <br><br>
+ * Two profiles are always available: {@link #PROFILE_COMPACT} and {@link #PROFILE_PRETTY}.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@UtilityClass
+public class GsonRegistry
+{
+    /**
+     * Name of the profile producing compact json.
+     */
+    public static final String PROFILE_COMPACT = "compact";
+
+    /**
+     * Name of the profile producing pretty printed json.
+     */
+    public static final String PROFILE_PRETTY = "pretty";
+
+    /**
+     * Registered profiles.
+     */
+    private static final Map<String, Gson> PROFILES = new ConcurrentHashMap<>();
+
+    static
+    {
+        PROFILES.put(PROFILE_COMPACT, newBuilder().create());
+        PROFILES.put(PROFILE_PRETTY, newBuilder().setPrettyPrinting().create());
+    }
+
+    /**
+     * Creates a new {@code Gson} builder pre-configured with the factories every profile should contain
+     * (the {@link GeneratedTypeAdapterFactory} providing the compile-time generated type adapters).
+     * @return Gson builder.
+     */
+    public static GsonBuilder newBuilder()
+    {
+        return new GsonBuilder().registerTypeAdapterFactory(GeneratedTypeAdapterFactory.INSTANCE);
+    }
+
+    /**
+     * Returns the compact profile.
+     * @return Gson instance.
+     */
+    public static Gson getCompact()
+    {
+        return get(PROFILE_COMPACT);
+    }
+
+    /**
+     * Returns the pretty printing profile.
+     * @return Gson instance.
+     */
+    public static Gson getPretty()
+    {
+        return get(PROFILE_PRETTY);
+    }
+
+    /**
+     * Returns the profile registered under the given name.
+     * @param name Profile name.
+     * @return Gson instance.
+     * @throws IllegalArgumentException Thrown in case no profile has been registered under the given name.
+     */
+    public static Gson get(final @NonNull String name)
+    {
+        var gson = PROFILES.get(name);
+        if (gson == null)
+        {
+            throw new IllegalArgumentException(String.format("No Gson profile registered under name: '%s'", name));
+        }
+
+        return gson;
+    }
+
+    /**
+     * Returns if a profile is registered under the given name.
+     * @param name Profile name.
+     * @return True if a profile exist, false otherwise.
+     */
+    public static boolean contains(final @NonNull String name)
+    {
+        return PROFILES.containsKey(name);
+    }
+
+    /**
+     * Registers (or replaces) a profile.
+     * @param name Profile name.
+     * @param gson Gson instance.
+     * @return Registered Gson instance.
+     */
+    public static Gson register(final @NonNull String name, final @NonNull Gson gson)
+    {
+        PROFILES.put(name, gson);
+        return gson;
+    }
+
+    /**
+     * Registers (or replaces) a profile built from the given builder.
+     * @param name Profile name.
+     * @param builder Gson builder.
+     * @return Registered Gson instance.
+     */
+    public static Gson register(final @NonNull String name, final @NonNull GsonBuilder builder)
+    {
+        return register(name, builder.create());
+    }
+
+    /**
+     * Registers (or replaces) a profile containing the given type adapter factories such as a
+     * {@link org.ressec.avocado.core.runtime.RuntimeTypeAdapterFactory}.
+     * @param name Profile name.
+     * @param prettyPrinting True if the profile must produce pretty printed json, false otherwise.
+     * @param factories Type adapter factories to register.
+     * @return Registered Gson instance.
+     */
+    public static Gson register(final @NonNull String name, final boolean prettyPrinting, final @NonNull TypeAdapterFactory... factories)
+    {
+        var builder = newBuilder();
+
+        if (prettyPrinting)
+        {
+            builder.setPrettyPrinting();
+        }
+
+        for (TypeAdapterFactory factory : factories)
+        {
+            builder.registerTypeAdapterFactory(factory);
+        }
+
+        return register(name, builder);
+    }
+
+    /**
+     * Removes a profile.
+     * @param name Profile name.
+     * @throws IllegalArgumentException Thrown in case of an attempt to remove one of the default profiles.
+     */
+    public static void unregister(final @NonNull String name)
+    {
+        if (name.equals(PROFILE_COMPACT) || name.equals(PROFILE_PRETTY))
+        {
+            throw new IllegalArgumentException(String.format("Cannot remove default Gson profile: '%s'", name));
+        }
+
+        PROFILES.remove(name);
+    }
+
+    /**
+     * Warms up all the registered profiles by creating (and caching) the type adapters of the given types.
+     * @param types Types to warm up.
+     */
+    public static void warmUp(final @NonNull Type... types)
+    {
+        for (Gson gson : PROFILES.values())
+        {
+            warmUp(gson, types);
+        }
+    }
+
+    /**
+     * Warms up a profile by creating (and caching) the type adapters of the given types.
+     * @param name Profile name.
+     * @param types Types to warm up.
+     */
+    public static void warmUp(final @NonNull String name, final @NonNull Type... types)
+    {
+        warmUp(get(name), types);
+    }
+
+    /**
+     * Warms up a {@code Gson} instance by creating (and caching) the type adapters of the given types.
+     * @param gson Gson instance.
+     * @param types Types to warm up.
+     */
+    private static void warmUp(final @NonNull Gson gson, final @NonNull Type... types)
+    {
+        for (Type type : types)
+        {
+            gson.getAdapter(TypeToken.get(type));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.json;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import lombok.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A lazy iterator over the elements of a json array.
+ * <br><br>
+ * Elements are read and bound one at a time while iterating, so the array can be far larger than the
+ * available memory. The array can either be the document itself or any array referenced by a {@link JsonPointer}.
+ * <br><br>
+ * The reader must be closed once done (closing a stream obtained with {@link #stream()} closes the reader).
+ * @param <T> Type of the array elements.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class JsonArrayReader<T> implements Iterator<T>, Closeable
+{
+    /**
+     * Underlying json reader.
+     */
+    private final JsonReader reader;
+
+    /**
+     * Type adapter used to bind the elements.
+     */
+    private final TypeAdapter<T> adapter;
+
+    /**
+     * Creates a new json array reader positioned on the first element of the referenced array.
+     * @param gson Gson instance used to bind the elements.
+     * @param reader Reader providing the json document.
+     * @param type Type of the array elements.
+     * @param pointer Json pointer referencing the array to iterate.
+     * @throws IOException Thrown in case an error occurred while reaching the array.
+     */
+    @SuppressWarnings("unchecked")
+    public JsonArrayReader(final @NonNull Gson gson, final @NonNull Reader reader, final @NonNull Type type, final @NonNull JsonPointer pointer) throws IOException
+    {
+        this.reader = gson.newJsonReader(reader);
+        this.adapter = (TypeAdapter<T>) gson.getAdapter(TypeToken.get(type));
+
+        try
+        {
+            pointer.navigate(this.reader);
+            this.reader.beginArray();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            this.reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a new json array reader positioned on the first element of the document array.
+     * @param gson Gson instance used to bind the elements.
+     * @param reader Reader providing the json document.
+     * @param type Type of the array elements.
+     * @throws IOException Thrown in case an error occurred while reaching the array.
+     */
+    public JsonArrayReader(final @NonNull Gson gson, final @NonNull Reader reader, final @NonNull Type type) throws IOException
+    {
+        this(gson, reader, type, JsonPointer.ROOT);
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        try
+        {
+            return reader.hasNext();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+
+        try
+        {
+            return adapter.read(reader);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns a lazily evaluated sequential stream of the array elements.
+     * <br>
+     * Closing the stream closes this reader.
+     * @return Stream of elements.
+     */
+    public Stream<T> stream()
+    {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+                .onClose(() ->
+                {
+                    try
+                    {
+                        close();
+                    }
+                    catch (IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        reader.close();
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.json;
+
+import com.google.gson.Gson;
+import lombok.Cleanup;
+import lombok.NonNull;
+
+import java.io.File;
+import java.lang.reflect.Type;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded executor running json file operations asynchronously.
+ * <br><br>
+ * The executor owns a fixed number of threads and a bounded queue of pending operations. When both are
+ * exhausted, submitting a new operation applies backpressure: {@link #submit(Callable)} blocks the caller
+ * until a slot is released while {@link #trySubmit(Callable, long, TimeUnit)} gives up after a timeout.
+ * The number of threads and the memory held by pending operations are therefore bounded whatever the
+ * number of concurrent callers.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class JsonAsyncExecutor implements AutoCloseable
+{
+    /**
+     * Counter used to name the executor threads.
+     */
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    /**
+     * Underlying thread pool.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Slots available for new operations (running + queued).
+     */
+    private final Semaphore slots;
+
+    /**
+     * Creates a new bounded executor.
+     * @param threads Number of threads.
+     * @param queueCapacity Maximum number of operations waiting for a thread.
+     */
+    public JsonAsyncExecutor(final int threads, final int queueCapacity)
+    {
+        if (threads <= 0 || queueCapacity < 0)
+        {
+            throw new IllegalArgumentException(String.format("Invalid executor bounds, threads: %d, queue capacity: %d", threads, queueCapacity));
+        }
+
+        // The semaphore bounds the pending operations. As a slot is released just before its thread polls
+        // the queue, the queue is sized on all the slots so it never rejects an operation holding one.
+        this.slots = new Semaphore(threads + queueCapacity);
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(threads + queueCapacity), runnable ->
+        {
+            var thread = new Thread(runnable, "avocado-json-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Submits an operation, blocking the caller while the executor is saturated.
+     * @param operation Operation to run.
+     * @param <T> Type of the operation result.
+     * @return Future completed with the operation result (completed exceptionally if the operation failed or if the caller has been interrupted while waiting).
+     */
+    public <T> CompletableFuture<T> submit(final @NonNull Callable<T> operation)
+    {
+        try
+        {
+            slots.acquire();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return execute(operation);
+    }
+
+    /**
+     * Submits an operation, waiting at most the given timeout for the executor to accept it.
+     * @param operation Operation to run.
+     * @param timeout Maximum time to wait.
+     * @param unit Unit of the timeout.
+     * @param <T> Type of the operation result.
+     * @return Future completed with the operation result (completed exceptionally with a {@link RejectedExecutionException} if the executor stayed saturated).
+     */
+    public <T> CompletableFuture<T> trySubmit(final @NonNull Callable<T> operation, final long timeout, final @NonNull TimeUnit unit)
+    {
+        try
+        {
+            if (!slots.tryAcquire(timeout, unit))
+            {
+                return CompletableFuture.failedFuture(new RejectedExecutionException("Json executor is saturated"));
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return execute(operation);
+    }
+
+    /**
+     * Serializes an object in a json file asynchronously.
+     * @param gson Gson instance to use to serialize.
+     * @param file File representing the json file.
+     * @param object Object to serialize.
+     * @param type Type of the object.
+     * @param options Write options.
+     * @return Future completed with true if the file has been written, false if it has been skipped because its content is unchanged.
+     */
+    public CompletableFuture<Boolean> serialize(final @NonNull Gson gson, final @NonNull File file, final @NonNull Object object, final @NonNull Type type, final @NonNull JsonWriteOptions options)
+    {
+        return submit(() -> JsonFiles.write(file.toPath(), options, writer -> gson.toJson(object, type, gson.newJsonWriter(writer))));
+    }
+
+    /**
+     * De-serializes a json file asynchronously.
+     * @param gson Gson instance to use to de-serialize.
+     * @param file Json file.
+     * @param type Type of the de-serialized object.
+     * @param <T> Type of the de-serialized object.
+     * @return Future completed with the de-serialized object.
+     */
+    public <T> CompletableFuture<T> deserialize(final @NonNull Gson gson, final @NonNull File file, final @NonNull Type type)
+    {
+        return submit(() ->
+        {
+            @Cleanup
+            var reader = JsonFiles.newReader(file.toPath());
+
+            return gson.fromJson(reader, type);
+        });
+    }
+
+    /**
+     * Returns the number of operations waiting for a thread.
+     * @return Queue depth.
+     */
+    public int getQueueDepth()
+    {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the number of operations being run.
+     * @return Number of running operations.
+     */
+    public int getActiveCount()
+    {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Stops accepting new operations and waits for the submitted ones to complete.
+     * <br>
+     * If the caller is interrupted while waiting, the submitted operations keep running and the interrupt
+     * status of the caller is restored.
+     */
+    @Override
+    public void close()
+    {
+        executor.shutdown();
+        try
+        {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES))
+            {
+                // Wait for all the submitted operations.
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs an operation for which a slot has been acquired.
+     * @param operation Operation to run.
+     * @param <T> Type of the operation result.
+     * @return Future completed with the operation result.
+     */
+    private <T> CompletableFuture<T> execute(final @NonNull Callable<T> operation)
+    {
+        var future = new CompletableFuture<T>();
+
+        try
+        {
+            executor.execute(() ->
+            {
+                try
+                {
+                    future.complete(operation.call());
+                }
+                catch (Exception e)
+                {
+                    future.completeExceptionally(e);
+                }
+                finally
+                {
+                    slots.release();
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            // Only occurs once the executor has been closed.
+            slots.release();
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.json;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * An enumeration of the compression formats supported for json files.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public enum JsonCompression
+{
+    /**
+     * No compression.
+     */
+    NONE(""),
+
+    /**
+     * Gzip compression (detected by extension or by magic bytes).
+     */
+    GZIP(".gz"),
+
+    /**
+     * Raw deflate compression (no header, detected by extension only).
+     */
+    DEFLATE(".deflate");
+
+    /**
+     * Size of the compression buffers.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * First byte of the gzip magic number.
+     */
+    private static final int GZIP_MAGIC_1 = 0x1f;
+
+    /**
+     * Second byte of the gzip magic number.
+     */
+    private static final int GZIP_MAGIC_2 = 0x8b;
+
+    /**
+     * File name extension of the compression format.
+     */
+    @Getter
+    private final String extension;
+
+    /**
+     * Creates a new compression format.
+     * @param extension File name extension.
+     */
+    JsonCompression(final @NonNull String extension)
+    {
+        this.extension = extension;
+    }
+
+    /**
+     * Returns the compression format matching the extension of the given file.
+     * @param path File path.
+     * @return Compression format ({@link #NONE} if the extension is not a compression extension).
+     */
+    public static JsonCompression fromExtension(final @NonNull Path path)
+    {
+        String name = path.getFileName().toString();
+
+        if (name.endsWith(GZIP.extension))
+        {
+            return GZIP;
+        }
+        else if (name.endsWith(DEFLATE.extension))
+        {
+            return DEFLATE;
+        }
+
+        return NONE;
+    }
+
+    /**
+     * Returns the compression format of the given file, detected from its extension or, when the extension is
+     * not a compression one, from the magic bytes of its content.
+     * @param path File path.
+     * @return Compression format ({@link #NONE} if the file is neither compressed by extension nor by content).
+     * @throws IOException Thrown in case an error occurred while reading the content of the file.
+     */
+    public static JsonCompression of(final @NonNull Path path) throws IOException
+    {
+        var compression = fromExtension(path);
+        if (compression != NONE)
+        {
+            return compression;
+        }
+
+        try (InputStream input = Files.newInputStream(path))
+        {
+            return isGzip(input.read(), input.read()) ? GZIP : NONE;
+        }
+    }
+
+    /**
+     * Wraps an output stream to compress the bytes written through it.
+     * @param output Output stream receiving the compressed bytes.
+     * @param level Compression level ({@link Deflater#DEFAULT_COMPRESSION} or 0-9).
+     * @param parallel True to compress blocks in parallel (only supported by {@link #GZIP}).
+     * @return Compressing output stream (closing it finishes the compression and closes the given stream).
+     * @throws IOException Thrown in case an error occurred while writing the compression header.
+     */
+    public OutputStream wrap(final @NonNull OutputStream output, final int level, final boolean parallel) throws IOException
+    {
+        switch (this)
+        {
+            case GZIP:
+                return parallel
+                        ? new ParallelGzipOutputStream(output, level)
+                        : new LevelGzipOutputStream(output, level);
+
+            case DEFLATE:
+                return new DeflaterOutputStream(output, new Deflater(level, true), BUFFER_SIZE)
+                {
+                    @Override
+                    public void close() throws IOException
+                    {
+                        try
+                        {
+                            super.close();
+                        }
+                        finally
+                        {
+                            def.end();
+                        }
+                    }
+                };
+
+            case NONE:
+            default:
+                return output;
+        }
+    }
+
+    /**
+     * Wraps an input stream to decompress the bytes read through it.
+     * @param input Input stream providing the compressed bytes.
+     * @return Decompressing input stream.
+     * @throws IOException Thrown in case an error occurred while reading the compression header.
+     */
+    public InputStream wrap(final @NonNull InputStream input) throws IOException
+    {
+        switch (this)
+        {
+            case GZIP:
+                return new GZIPInputStream(input, BUFFER_SIZE);
+
+            case DEFLATE:
+                return new InflaterInputStream(input, new Inflater(true), BUFFER_SIZE)
+                {
+                    @Override
+                    public void close() throws IOException
+                    {
+                        try
+                        {
+                            super.close();
+                        }
+                        finally
+                        {
+                            inf.end();
+                        }
+                    }
+                };
+
+            case NONE:
+            default:
+                return input;
+        }
+    }
+
+    /**
+     * Wraps an input stream to decompress the bytes read through it, the compression format being detected
+     * from the extension of the file or, when the extension is not a compression one, from the magic bytes
+     * of the content.
+     * @param path File path.
+     * @param input Input stream providing the content of the file.
+     * @return Decompressing input stream.
+     * @throws IOException Thrown in case an error occurred while reading the content.
+     */
+    public static InputStream detect(final @NonNull Path path, final @NonNull InputStream input) throws IOException
+    {
+        var compression = fromExtension(path);
+        if (compression != NONE)
+        {
+            return compression.wrap(input);
+        }
+
+        var buffered = input.markSupported() ? input : new BufferedInputStream(input, BUFFER_SIZE);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+
+        return isGzip(first, second) ? GZIP.wrap(buffered) : buffered;
+    }
+
+    /**
+     * Checks if the first bytes of a content are the gzip magic number.
+     * @param first First byte ({@code -1} if the content is empty).
+     * @param second Second byte ({@code -1} if the content is shorter).
+     * @return True if the content is gzip compressed, false otherwise.
+     */
+    static boolean isGzip(final int first, final int second)
+    {
+        return first == GZIP_MAGIC_1 && second == GZIP_MAGIC_2;
+    }
+
+    /**
+     * A gzip output stream with a configurable compression level.
+     */
+    private static final class LevelGzipOutputStream extends GZIPOutputStream
+    {
+        /**
+         * Creates a new gzip output stream.
+         * @param output Output stream receiving the compressed bytes.
+         * @param level Compression level.
+         * @throws IOException Thrown in case an error occurred while writing the gzip header.
+         */
+        private LevelGzipOutputStream(final @NonNull OutputStream output, final int level) throws IOException
+        {
+            super(output, BUFFER_SIZE);
+            def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,588 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.json;
+
+import com.google.common.util.concurrent.Striped;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Utility class providing the low level services used to read and write json files.
+ * <br><br>
+ * Json files are always read and written through buffered UTF-8 streams, optionally compressed (see
+ * {@link JsonCompression}). Writes can be made atomic (temporary sibling file renamed over the target),
+ * durable (forced to the storage device) and can be skipped when the content did not change, see
+ * {@link JsonWriteOptions}.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@UtilityClass
+public class JsonFiles
+{
+    /**
+     * Size of the I/O buffers.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Algorithm used to compare file contents.
+     */
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * Size of the blocks read backward while looking for the end of a json array.
+     */
+    private static final int TAIL_BLOCK_SIZE = 4096;
+
+    /**
+     * Locks serializing the in-place appends of this JVM (a file lock is held by the whole JVM and cannot
+     * be used to serialize its own threads).
+     */
+    private static final Striped<Lock> ARRAY_LOCKS = Striped.lock(64);
+
+    /**
+     * Produces the content of a json file.
+     */
+    @FunctionalInterface
+    public interface Content
+    {
+        /**
+         * Writes the content.
+         * @param writer Buffered writer of the file.
+         * @throws IOException Thrown in case an error occurred while writing the content.
+         */
+        void write(Writer writer) throws IOException;
+    }
+
+    /**
+     * Produces the binary content of a file.
+     */
+    @FunctionalInterface
+    public interface BinaryContent
+    {
+        /**
+         * Writes the content.
+         * @param output Buffered output stream of the file.
+         * @throws IOException Thrown in case an error occurred while writing the content.
+         */
+        void write(OutputStream output) throws IOException;
+    }
+
+    /**
+     * Writes a json file.
+     * @param target Path of the file to write (parent directories are created if necessary).
+     * @param options Write options.
+     * @param content Content to write.
+     * @return True if the file has been written, false if it has been skipped because its content is unchanged.
+     * @throws IOException Thrown in case an error occurred while writing the file.
+     */
+    public static boolean write(final @NonNull Path target, final @NonNull JsonWriteOptions options, final @NonNull Content content) throws IOException
+    {
+        var compression = options.getCompression(target);
+
+        return writeStream(target, options, stream ->
+        {
+            try (var writer = newWriter(stream, compression, options))
+            {
+                content.write(writer);
+            }
+        });
+    }
+
+    /**
+     * Writes a binary file (for example a json document encoded by a {@link BinaryJsonWriter}).
+     * <br>
+     * The same options as for a text file apply: the file can be compressed, written atomically, durably
+     * and skipped when its content did not change.
+     * @param target Path of the file to write (parent directories are created if necessary).
+     * @param options Write options.
+     * @param content Content to write.
+     * @return True if the file has been written, false if it has been skipped because its content is unchanged.
+     * @throws IOException Thrown in case an error occurred while writing the file.
+     */
+    public static boolean writeBinary(final @NonNull Path target, final @NonNull JsonWriteOptions options, final @NonNull BinaryContent content) throws IOException
+    {
+        var compression = options.getCompression(target);
+
+        return writeStream(target, options, stream ->
+        {
+            try (var output = new BufferedOutputStream(compression.wrap(stream, options.getCompressionLevel(), options.isParallelCompression()), BUFFER_SIZE))
+            {
+                content.write(output);
+            }
+        });
+    }
+
+    /**
+     * Writes a file through an output stream, applying the atomicity, durability and skip options.
+     * @param target Path of the file to write (parent directories are created if necessary).
+     * @param options Write options.
+     * @param content Content writing the (possibly compressed) bytes of the file, closing the streams it wraps.
+     * @return True if the file has been written, false if it has been skipped because its content is unchanged.
+     * @throws IOException Thrown in case an error occurred while writing the file.
+     */
+    private static boolean writeStream(final @NonNull Path target, final @NonNull JsonWriteOptions options, final @NonNull BinaryContent content) throws IOException
+    {
+        var directory = target.toAbsolutePath().getParent();
+        if (directory != null)
+        {
+            Files.createDirectories(directory);
+        }
+
+        boolean useTemporary = options.isAtomic() || options.isSkipUnchanged();
+        var output = useTemporary
+                ? target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".tmp")
+                : target;
+        MessageDigest digest = options.isSkipUnchanged() ? newDigest() : null;
+
+        try (var channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            OutputStream stream = new UnclosableOutputStream(Channels.newOutputStream(channel));
+            if (digest != null)
+            {
+                stream = new DigestOutputStream(stream, digest);
+            }
+
+            content.write(stream);
+
+            if (options.isDurable())
+            {
+                channel.force(true);
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            if (useTemporary)
+            {
+                Files.deleteIfExists(output);
+            }
+            throw e;
+        }
+
+        if (!useTemporary)
+        {
+            return true;
+        }
+
+        if (digest != null && isSameContent(target, Files.size(output), digest.digest()))
+        {
+            Files.delete(output);
+            return false;
+        }
+
+        move(output, target);
+
+        if (options.isDurable())
+        {
+            forceDirectory(directory);
+        }
+
+        return true;
+    }
+
+    /**
+     * Appends content at the end of a json file.
+     * <br>
+     * A compressed file can only be appended in {@link JsonCompression#GZIP} format, the appended content
+     * being written as a new gzip member.
+     * @param target Path of the file to append to (created with its parent directories if necessary).
+     * @param options Write options (only the compression ones are used).
+     * @param content Content to append.
+     * @throws IOException Thrown in case an error occurred while appending to the file.
+     */
+    public static void append(final @NonNull Path target, final @NonNull JsonWriteOptions options, final @NonNull Content content) throws IOException
+    {
+        var compression = options.getCompression(target);
+        if (compression == JsonCompression.DEFLATE)
+        {
+            throw new IOException(String.format("Cannot append to file: '%s' compressed in raw deflate format", target));
+        }
+
+        var directory = target.toAbsolutePath().getParent();
+        if (directory != null)
+        {
+            Files.createDirectories(directory);
+        }
+
+        try (var writer = newWriter(Files.newOutputStream(target, StandardOpenOption.CREATE, StandardOpenOption.APPEND), compression, options))
+        {
+            content.write(writer);
+        }
+    }
+
+    /**
+     * Appends elements in place at the end of the top-level array of a json file.
+     * <br><br>
+     * The closing bracket of the array is located by reading the file backward from its end, the new
+     * elements are then written over it followed by a new closing bracket. The cost of an append therefore
+     * only depends on the size of the appended elements, not on the size of the file.
+     * <br><br>
+     * Appends to the same file are serialized between the threads of this JVM and, through a file lock,
+     * between processes (when supported by the file system). An append is not atomic: a failure while
+     * writing leaves an unterminated array, use {@link #write(Path, JsonWriteOptions, Content)} with the
+     * {@code atomic} option when this is not acceptable. Compressed files, detected from their extension or
+     * from their magic bytes, are not supported.
+     * @param target Path of the file to append to (created with an empty array if it does not exist or is empty).
+     * @param options Write options (only the {@code durable} option is used).
+     * @param elements Content writing at least one element, elements being separated by a comma.
+     * @throws IOException Thrown in case the file is compressed, does not contain a json array or an error occurred while appending to it.
+     */
+    public static void appendToArray(final @NonNull Path target, final @NonNull JsonWriteOptions options, final @NonNull Content elements) throws IOException
+    {
+        if (options.getCompression(target) != JsonCompression.NONE)
+        {
+            throw new IOException(String.format("Cannot append in place to compressed file: '%s'", target));
+        }
+
+        var directory = target.toAbsolutePath().getParent();
+        if (directory != null)
+        {
+            Files.createDirectories(directory);
+        }
+
+        var lock = ARRAY_LOCKS.get(target.toAbsolutePath().normalize());
+        lock.lock();
+        try (var channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            var fileLock = channel.lock();
+            try
+            {
+                appendToArray(channel, target, options, elements);
+            }
+            finally
+            {
+                fileLock.release();
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends elements at the end of the top-level array of a locked json file.
+     * @param channel Channel opened on the file for reading and writing.
+     * @param target Path of the file.
+     * @param options Write options (only the {@code durable} option is used).
+     * @param elements Content writing at least one element, elements being separated by a comma.
+     * @throws IOException Thrown in case the file is compressed, does not contain a json array or an error occurred while appending to it.
+     */
+    private static void appendToArray(final @NonNull FileChannel channel, final @NonNull Path target, final @NonNull JsonWriteOptions options, final @NonNull Content elements) throws IOException
+    {
+        if (channel.size() >= 2 && JsonCompression.isGzip(readByte(channel, 0) & 0xff, readByte(channel, 1) & 0xff))
+        {
+            throw new IOException(String.format("Cannot append in place to compressed file: '%s'", target));
+        }
+
+        long position;
+        boolean empty;
+
+        long last = lastNonWhitespace(channel, channel.size());
+        if (last < 0)
+        {
+            // New (or blank) file, the array is created.
+            channel.write(ByteBuffer.wrap(new byte[] { '[' }), 0);
+            position = 1;
+            empty = true;
+        }
+        else
+        {
+            if (readByte(channel, last) != ']')
+            {
+                throw new IOException(String.format("Cannot append in place to file: '%s', it does not contain a json array", target));
+            }
+
+            long previous = lastNonWhitespace(channel, last);
+            if (previous < 0)
+            {
+                throw new IOException(String.format("Cannot append in place to file: '%s', it does not contain a json array", target));
+            }
+
+            empty = readByte(channel, previous) == '[';
+            position = last;
+        }
+
+        channel.position(position);
+        try (var writer = newWriter(new UnclosableOutputStream(Channels.newOutputStream(channel)), JsonCompression.NONE, options))
+        {
+            if (!empty)
+            {
+                writer.write(',');
+            }
+            elements.write(writer);
+            writer.write(']');
+        }
+
+        // Removes the trailing whitespaces that followed the previous closing bracket, if any.
+        channel.truncate(channel.position());
+
+        if (options.isDurable())
+        {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Opens a buffered UTF-8 reader on a json file.
+     * <br>
+     * Compressed files are transparently decompressed, the compression format being detected from the
+     * file name extension or from the magic bytes of the content.
+     * @param path Path of the file to read.
+     * @return Reader.
+     * @throws IOException Thrown in case an error occurred while opening the file.
+     */
+    public static BufferedReader newReader(final @NonNull Path path) throws IOException
+    {
+        var input = Files.newInputStream(path);
+
+        try
+        {
+            return new BufferedReader(new InputStreamReader(JsonCompression.detect(path, input), StandardCharsets.UTF_8), BUFFER_SIZE);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a buffered input stream on a binary file, transparently decompressed as done by {@link #newReader(Path)}.
+     * @param path Path of the file to read.
+     * @return Input stream.
+     * @throws IOException Thrown in case an error occurred while opening the file.
+     */
+    public static InputStream newInputStream(final @NonNull Path path) throws IOException
+    {
+        var input = Files.newInputStream(path);
+
+        try
+        {
+            return new BufferedInputStream(JsonCompression.detect(path, input), BUFFER_SIZE);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a buffered UTF-8 writer compressing its content if required.
+     * @param output Output stream.
+     * @param compression Compression format.
+     * @param options Write options.
+     * @return Writer (closing it finishes the compression and closes the output stream).
+     * @throws IOException Thrown in case an error occurred while writing the compression header.
+     */
+    private static Writer newWriter(final @NonNull OutputStream output, final @NonNull JsonCompression compression, final @NonNull JsonWriteOptions options) throws IOException
+    {
+        var stream = compression.wrap(output, options.getCompressionLevel(), options.isParallelCompression());
+
+        return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Returns the position of the last non whitespace byte of a file located before a given position.
+     * @param channel File channel.
+     * @param end Position (exclusive) the backward scan starts from.
+     * @return Position of the byte or -1 if there are only whitespaces before the given position.
+     * @throws IOException Thrown in case an error occurred while reading the file.
+     */
+    private static long lastNonWhitespace(final @NonNull FileChannel channel, final long end) throws IOException
+    {
+        var buffer = ByteBuffer.allocate(TAIL_BLOCK_SIZE);
+        long limit = end;
+
+        while (limit > 0)
+        {
+            long start = Math.max(0, limit - TAIL_BLOCK_SIZE);
+            buffer.clear().limit((int) (limit - start));
+            while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) >= 0)
+            {
+                // Fills the block.
+            }
+
+            for (int i = buffer.position() - 1; i >= 0; i--)
+            {
+                byte value = buffer.get(i);
+                if (value != ' ' && value != '\n' && value != '\r' && value != '\t')
+                {
+                    return start + i;
+                }
+            }
+
+            limit = start;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Reads a single byte of a file.
+     * @param channel File channel.
+     * @param position Position of the byte.
+     * @return Byte value.
+     * @throws IOException Thrown in case an error occurred while reading the file.
+     */
+    private static byte readByte(final @NonNull FileChannel channel, final long position) throws IOException
+    {
+        var buffer = ByteBuffer.allocate(1);
+        if (channel.read(buffer, position) != 1)
+        {
+            throw new IOException(String.format("Cannot read byte at position: %d", position));
+        }
+
+        return buffer.get(0);
+    }
+
+    /**
+     * Checks if a file has the given content size and digest.
+     * @param path File path.
+     * @param size Content size.
+     * @param hash Content digest.
+     * @return True if the file exists and has the same content, false otherwise.
+     * @throws IOException Thrown in case an error occurred while reading the file.
+     */
+    private static boolean isSameContent(final @NonNull Path path, final long size, final byte[] hash) throws IOException
+    {
+        if (!Files.isRegularFile(path) || Files.size(path) != size)
+        {
+            return false;
+        }
+
+        var digest = newDigest();
+        var buffer = new byte[BUFFER_SIZE];
+
+        try (InputStream input = Files.newInputStream(path))
+        {
+            int read;
+            while ((read = input.read(buffer)) > 0)
+            {
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        return Arrays.equals(hash, digest.digest());
+    }
+
+    /**
+     * Moves a file over another one, atomically if supported by the file system.
+     * @param source Source file.
+     * @param target Target file.
+     * @throws IOException Thrown in case an error occurred while moving the file.
+     */
+    private static void move(final @NonNull Path source, final @NonNull Path target) throws IOException
+    {
+        try
+        {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Forces the entries of a directory to the storage device so a rename is durable.
+     * @param directory Directory.
+     */
+    private static void forceDirectory(final Path directory)
+    {
+        if (directory == null)
+        {
+            return;
+        }
+
+        try (var channel = FileChannel.open(directory, StandardOpenOption.READ))
+        {
+            channel.force(true);
+        }
+        catch (IOException e)
+        {
+            // Not supported on all the platforms (Windows for example), the file content itself is durable.
+        }
+    }
+
+    /**
+     * Creates a new message digest used to compare file contents.
+     * @return Message digest.
+     */
+    private static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * An output stream flushing instead of closing the underlying stream, so a file channel can still be
+     * forced once all the writers wrapping it have been closed.
+     */
+    private static final class UnclosableOutputStream extends FilterOutputStream
+    {
+        /**
+         * Creates a new unclosable output stream.
+         * @param output Underlying output stream.
+         */
+        private UnclosableOutputStream(final @NonNull OutputStream output)
+        {
+            super(output);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException
+        {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            out.flush();
+        }
+    }
+}
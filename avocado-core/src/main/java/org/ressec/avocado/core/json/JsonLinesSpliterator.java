@@ -0,0 +1,364 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.json;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A spliterator decoding the records of a json lines file (one json record per line) in parallel.
+ * <br><br>
+ * The file is recursively split into byte ranges aligned on line boundaries, each range being decoded
+ * by the thread of the {@code ForkJoinPool} processing it with its own read buffer and a single json reader,
+ * reading the records of the range one after the other (as a lenient reader accepting several top level
+ * values). All the ranges share a single file channel accessed through positional (thread-safe) reads.
+ * <br><br>
+ * Parallel streams run on the common {@code ForkJoinPool}, or on the pool from which their terminal
+ * operation is invoked.
+ * @param <T> Type of the records.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class JsonLinesSpliterator<T> implements Spliterator<T>
+{
+    /**
+     * Default minimum size (in bytes) of a range decoded by a single task.
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 1L << 20;
+
+    /**
+     * Size of the read buffer of a range.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Shared file channel.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Gson instance used to create the json readers.
+     */
+    private final Gson gson;
+
+    /**
+     * Type adapter used to bind the records.
+     */
+    private final TypeAdapter<T> adapter;
+
+    /**
+     * Minimum size (in bytes) of a range.
+     */
+    private final long chunkSize;
+
+    /**
+     * Whether the encounter order of the records must be preserved.
+     */
+    private final boolean ordered;
+
+    /**
+     * Start position (inclusive) of the range, always at the beginning of a line.
+     */
+    private long start;
+
+    /**
+     * End position (exclusive) of the range, always at the beginning of a line or at the end of the file.
+     */
+    private long end;
+
+    /**
+     * Position of the next byte to read in the file.
+     */
+    private long filePosition;
+
+    /**
+     * Read buffer (allocated on first read).
+     */
+    private byte[] buffer;
+
+    /**
+     * Position of the next byte to consume in the read buffer.
+     */
+    private int bufferPosition;
+
+    /**
+     * Number of bytes available in the read buffer.
+     */
+    private int bufferLimit;
+
+    /**
+     * Json reader of the records of the range (created on first read).
+     */
+    private JsonReader reader;
+
+    /**
+     * Creates a new spliterator covering a range of a json lines file.
+     * @param channel Shared file channel.
+     * @param gson Gson instance used to bind the records.
+     * @param adapter Type adapter used to bind the records.
+     * @param chunkSize Minimum size (in bytes) of a range.
+     * @param ordered Whether the encounter order of the records must be preserved.
+     * @param start Start position (inclusive) of the range.
+     * @param end End position (exclusive) of the range.
+     */
+    private JsonLinesSpliterator(final @NonNull FileChannel channel, final @NonNull Gson gson, final @NonNull TypeAdapter<T> adapter, final long chunkSize, final boolean ordered, final long start, final long end)
+    {
+        this.channel = channel;
+        this.gson = gson;
+        this.adapter = adapter;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.ordered = ordered;
+        this.start = start;
+        this.end = end;
+        this.filePosition = start;
+    }
+
+    /**
+     * Creates a parallel stream of the records of a json lines file.
+     * <br>
+     * The returned stream must be closed to release the file.
+     * @param gson Gson instance used to bind the records.
+     * @param path Json lines file path.
+     * @param type Type of the records.
+     * @param ordered True if the encounter order of the records must be preserved, false otherwise.
+     * @param chunkSize Minimum size (in bytes) of a range decoded by a single task.
+     * @param <T> Type of the records.
+     * @return Parallel stream of records.
+     * @throws IOException Thrown in case an error occurred while opening the file.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Stream<T> stream(final @NonNull Gson gson, final @NonNull Path path, final @NonNull Type type, final boolean ordered, final long chunkSize) throws IOException
+    {
+        var channel = FileChannel.open(path, StandardOpenOption.READ);
+        var adapter = (TypeAdapter<T>) gson.getAdapter(TypeToken.get(type));
+        var spliterator = new JsonLinesSpliterator<>(channel, gson, adapter, chunkSize, ordered, 0, channel.size());
+
+        Stream<T> stream = StreamSupport.stream(spliterator, true).onClose(() ->
+        {
+            try
+            {
+                channel.close();
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ordered ? stream : stream.unordered();
+    }
+
+    /**
+     * Creates a parallel stream of the records of a json lines file using the default chunk size.
+     * <br>
+     * The returned stream must be closed to release the file.
+     * @param gson Gson instance used to bind the records.
+     * @param path Json lines file path.
+     * @param type Type of the records.
+     * @param ordered True if the encounter order of the records must be preserved, false otherwise.
+     * @param <T> Type of the records.
+     * @return Parallel stream of records.
+     * @throws IOException Thrown in case an error occurred while opening the file.
+     */
+    public static <T> Stream<T> stream(final @NonNull Gson gson, final @NonNull Path path, final @NonNull Type type, final boolean ordered) throws IOException
+    {
+        return stream(gson, path, type, ordered, DEFAULT_CHUNK_SIZE);
+    }
+
+    @Override
+    public boolean tryAdvance(final @NonNull Consumer<? super T> action)
+    {
+        try
+        {
+            if (reader == null)
+            {
+                buffer = new byte[BUFFER_SIZE];
+                reader = gson.newJsonReader(new InputStreamReader(new RangeInputStream(), StandardCharsets.UTF_8));
+                // The records of the range are read as consecutive top level values, the blank lines being skipped.
+                reader.setLenient(true);
+            }
+
+            if (reader.peek() == JsonToken.END_DOCUMENT)
+            {
+                return false;
+            }
+
+            action.accept(adapter.read(reader));
+            return true;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit()
+    {
+        // Only a range not being read yet can be split.
+        if (buffer != null || end - start < 2 * chunkSize)
+        {
+            return null;
+        }
+
+        try
+        {
+            long split = nextLineStart(start + (end - start) / 2);
+            if (split <= start || split >= end)
+            {
+                return null;
+            }
+
+            var prefix = new JsonLinesSpliterator<>(channel, gson, adapter, chunkSize, ordered, start, split);
+            start = split;
+            filePosition = split;
+
+            return prefix;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long estimateSize()
+    {
+        // Each record takes at least one byte, the remaining size in bytes is an upper bound.
+        return end - filePosition + (long) (bufferLimit - bufferPosition);
+    }
+
+    @Override
+    public int characteristics()
+    {
+        return ordered ? ORDERED : 0;
+    }
+
+    /**
+     * Returns the position of the first line starting at or after the given position.
+     * @param position Position in the file.
+     * @return Position of the beginning of the line, or the end of the range if no line starts after the given position.
+     * @throws IOException Thrown in case an error occurred while reading the file.
+     */
+    private long nextLineStart(final long position) throws IOException
+    {
+        var scan = ByteBuffer.allocate(8192);
+        long current = position - 1;
+
+        while (current < end)
+        {
+            scan.clear();
+            scan.limit((int) Math.min(scan.capacity(), end - current));
+            int read = channel.read(scan, current);
+            if (read <= 0)
+            {
+                break;
+            }
+
+            for (int i = 0; i < read; i++)
+            {
+                if (scan.get(i) == '\n')
+                {
+                    return current + i + 1;
+                }
+            }
+
+            current += read;
+        }
+
+        return end;
+    }
+
+    /**
+     * Fills the read buffer with the next bytes of the range.
+     * @return True if some bytes have been read, false if the end of the range has been reached.
+     * @throws IOException Thrown in case an error occurred while reading the file.
+     */
+    private boolean fill() throws IOException
+    {
+        if (filePosition >= end)
+        {
+            return false;
+        }
+
+        var wrapper = ByteBuffer.wrap(buffer, 0, (int) Math.min(buffer.length, end - filePosition));
+        int read = channel.read(wrapper, filePosition);
+        if (read <= 0)
+        {
+            // File has been truncated while reading.
+            end = filePosition;
+            return false;
+        }
+
+        filePosition += read;
+        bufferPosition = 0;
+        bufferLimit = read;
+
+        return true;
+    }
+
+    /**
+     * An input stream over the bytes of the range, read through the read buffer.
+     */
+    private final class RangeInputStream extends InputStream
+    {
+        @Override
+        public int read() throws IOException
+        {
+            if (bufferPosition == bufferLimit && !fill())
+            {
+                return -1;
+            }
+
+            return buffer[bufferPosition++] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException
+        {
+            if (length == 0)
+            {
+                return 0;
+            }
+
+            if (bufferPosition == bufferLimit && !fill())
+            {
+                return -1;
+            }
+
+            int count = Math.min(length, bufferLimit - bufferPosition);
+            System.arraycopy(buffer, bufferPosition, bytes, offset, count);
+            bufferPosition += count;
+
+            return count;
+        }
+    }
+}
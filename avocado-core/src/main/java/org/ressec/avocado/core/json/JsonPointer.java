@@ -0,0 +1,209 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.json;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable json pointer as defined by the <a href="https://tools.ietf.org/html/rfc6901">RFC 6901</a>
+ * such as {@code /data/items} or {@code /pages/0/entries}.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class JsonPointer
+{
+    /**
+     * Pointer referencing the whole document.
+     */
+    public static final JsonPointer ROOT = new JsonPointer("", Collections.emptyList());
+
+    /**
+     * Textual representation of the pointer.
+     */
+    private final String pointer;
+
+    /**
+     * Un-escaped reference tokens of the pointer.
+     */
+    @Getter
+    private final List<String> tokens;
+
+    /**
+     * Creates a new json pointer.
+     * @param pointer Textual representation of the pointer.
+     * @param tokens Un-escaped reference tokens.
+     */
+    private JsonPointer(final @NonNull String pointer, final @NonNull List<String> tokens)
+    {
+        this.pointer = pointer;
+        this.tokens = tokens;
+    }
+
+    /**
+     * Parses a json pointer.
+     * @param pointer Textual representation of the pointer (an empty string references the whole document).
+     * @return Json pointer.
+     * @throws IllegalArgumentException Thrown in case the given pointer is not a valid json pointer.
+     */
+    public static JsonPointer of(final @NonNull String pointer)
+    {
+        if (pointer.isEmpty())
+        {
+            return ROOT;
+        }
+
+        if (pointer.charAt(0) != '/')
+        {
+            throw new IllegalArgumentException(String.format("Invalid json pointer: '%s', it must start with a '/'", pointer));
+        }
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : pointer.substring(1).split("/", -1))
+        {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+
+        return new JsonPointer(pointer, Collections.unmodifiableList(tokens));
+    }
+
+    /**
+     * Advances the given reader to the value referenced by this pointer.
+     * <br>
+     * The reader must be positioned before the value containing the pointed value (generally the
+     * beginning of the document). All the values preceding the pointed value are skipped without
+     * being bound.
+     * @param reader Json reader.
+     * @throws IOException Thrown in case an error occurred while reading.
+     * @throws JsonParseException Thrown in case the referenced value does not exist.
+     */
+    public void navigate(final @NonNull JsonReader reader) throws IOException
+    {
+        for (String token : tokens)
+        {
+            JsonToken next = reader.peek();
+            if (next == JsonToken.BEGIN_OBJECT)
+            {
+                reader.beginObject();
+                if (!skipToName(reader, token))
+                {
+                    throw new JsonParseException(String.format("Cannot find member: '%s' of json pointer: '%s'", token, pointer));
+                }
+            }
+            else if (next == JsonToken.BEGIN_ARRAY)
+            {
+                reader.beginArray();
+                if (!skipToIndex(reader, parseIndex(token)))
+                {
+                    throw new JsonParseException(String.format("Cannot find index: '%s' of json pointer: '%s'", token, pointer));
+                }
+            }
+            else
+            {
+                throw new JsonParseException(String.format("Cannot resolve token: '%s' of json pointer: '%s' on a json %s", token, pointer, next));
+            }
+        }
+    }
+
+    /**
+     * Skips the members of the current object until the given member name.
+     * @param reader Json reader.
+     * @param name Member name.
+     * @return True if the member has been found, false otherwise.
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private static boolean skipToName(final @NonNull JsonReader reader, final @NonNull String name) throws IOException
+    {
+        while (reader.hasNext())
+        {
+            if (reader.nextName().equals(name))
+            {
+                return true;
+            }
+
+            reader.skipValue();
+        }
+
+        return false;
+    }
+
+    /**
+     * Skips the elements of the current array until the given index.
+     * @param reader Json reader.
+     * @param index Element index.
+     * @return True if the element has been found, false otherwise.
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private static boolean skipToIndex(final @NonNull JsonReader reader, final int index) throws IOException
+    {
+        for (int i = 0; i < index; i++)
+        {
+            if (!reader.hasNext())
+            {
+                return false;
+            }
+
+            reader.skipValue();
+        }
+
+        return reader.hasNext();
+    }
+
+    /**
+     * Parses an array index token.
+     * @param token Token.
+     * @return Array index.
+     */
+    private int parseIndex(final @NonNull String token)
+    {
+        try
+        {
+            int index = Integer.parseInt(token);
+            if (index >= 0)
+            {
+                return index;
+            }
+        }
+        catch (NumberFormatException e)
+        {
+            // Reported below.
+        }
+
+        throw new JsonParseException(String.format("Invalid array index: '%s' in json pointer: '%s'", token, pointer));
+    }
+
+    @Override
+    public boolean equals(final Object other)
+    {
+        return other instanceof JsonPointer && pointer.equals(((JsonPointer) other).pointer);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return pointer.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return pointer;
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A projection of a json document on a set of json pointers.
+ * <br><br>
+ * The document is walked with a {@link JsonReader} following a trie of the requested pointers: every value
+ * not leading to a requested pointer is skipped without being parsed nor bound, only the requested values
+ * are materialized and the reading stops as soon as all of them have been found. Scanning documents for a
+ * few fields therefore costs a fraction of a full binding.
+ * <pre>   {@code
+ *   JsonProjection projection = JsonProjection.of("/id", "/meta/timestamp", "/items/0/name");
+ *   Map<String, JsonElement> values = projection.extract(reader);
+ *   Summary summary = projection.project(gson, reader, Summary.class);
+ * }</pre>
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class JsonProjection
+{
+    /**
+     * Target field name of each pointer.
+     */
+    private final Map<JsonPointer, String> fields;
+
+    /**
+     * Root of the pointer trie.
+     */
+    private final Node root = new Node();
+
+    /**
+     * Creates a new projection.
+     * @param fields Target field name of each pointer (null name for the document root).
+     */
+    private JsonProjection(final @NonNull Map<JsonPointer, String> fields)
+    {
+        if (fields.isEmpty())
+        {
+            throw new IllegalArgumentException("A json projection requires at least one json pointer");
+        }
+
+        this.fields = Collections.unmodifiableMap(fields);
+        for (JsonPointer pointer : fields.keySet())
+        {
+            var node = root;
+            node.size++;
+            for (String token : pointer.getTokens())
+            {
+                node = node.children.computeIfAbsent(token, key -> new Node());
+                node.size++;
+            }
+            node.pointer = pointer.toString();
+        }
+    }
+
+    /**
+     * Creates a projection on the given json pointers, each value being projected on the target field
+     * named after the last token of its pointer.
+     * @param pointers Json pointers (such as {@code /meta/timestamp}).
+     * @return Json projection.
+     * @throws IllegalArgumentException Thrown in case a pointer is invalid.
+     */
+    public static JsonProjection of(final @NonNull String... pointers)
+    {
+        var fields = new LinkedHashMap<JsonPointer, String>();
+        for (String pointer : pointers)
+        {
+            var parsed = JsonPointer.of(pointer);
+            var tokens = parsed.getTokens();
+            fields.put(parsed, tokens.isEmpty() ? null : tokens.get(tokens.size() - 1));
+        }
+
+        return new JsonProjection(fields);
+    }
+
+    /**
+     * Creates a projection on the given json pointers, each value being projected on the given target field.
+     * @param fields Json pointer (such as {@code /meta/timestamp}) of each target field name.
+     * @return Json projection.
+     * @throws IllegalArgumentException Thrown in case a pointer is invalid.
+     */
+    public static JsonProjection ofFields(final @NonNull Map<String, String> fields)
+    {
+        var pointers = new LinkedHashMap<JsonPointer, String>();
+        fields.forEach((name, pointer) -> pointers.put(JsonPointer.of(pointer), name));
+
+        return new JsonProjection(pointers);
+    }
+
+    /**
+     * Returns the json pointers of the projection.
+     * @return Json pointers.
+     */
+    public List<JsonPointer> getPointers()
+    {
+        return new ArrayList<>(fields.keySet());
+    }
+
+    /**
+     * Extracts the requested values of a json document.
+     * <br>
+     * The reader is left positioned right after the last requested value (the remaining of the document is
+     * not read).
+     * @param reader Json reader positioned before the document.
+     * @return Values indexed by json pointer, in document order (pointers not found in the document are absent).
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    public Map<String, JsonElement> extract(final @NonNull JsonReader reader) throws IOException
+    {
+        var extraction = new Extraction(root.size);
+
+        if (root.pointer != null)
+        {
+            collect(root, JsonParser.parseReader(reader), extraction);
+        }
+        else
+        {
+            walk(reader, root, extraction);
+        }
+
+        return extraction.values;
+    }
+
+    /**
+     * Extracts the requested values of a json document and binds them into an object of the given type,
+     * each value being bound to the target field of its pointer.
+     * @param gson Gson instance used to bind the values.
+     * @param reader Json reader positioned before the document.
+     * @param type Target type.
+     * @param <T> Target type.
+     * @return Projected object.
+     * @throws IOException Thrown in case an error occurred while reading.
+     * @throws IllegalArgumentException Thrown in case the projection contains the root pointer or several pointers are projected on the same target field.
+     */
+    public <T> T project(final @NonNull Gson gson, final @NonNull JsonReader reader, final @NonNull Type type) throws IOException
+    {
+        if (fields.containsKey(JsonPointer.ROOT))
+        {
+            throw new IllegalArgumentException("Cannot project the whole document on a target field");
+        }
+
+        var values = extract(reader);
+        var object = new JsonObject();
+        for (Map.Entry<JsonPointer, String> field : fields.entrySet())
+        {
+            var value = values.get(field.getKey().toString());
+            if (value != null && object.has(field.getValue()))
+            {
+                throw new IllegalArgumentException(String.format("Several json pointers are projected on target field: '%s'", field.getValue()));
+            }
+            if (value != null)
+            {
+                object.add(field.getValue(), value);
+            }
+        }
+
+        return gson.fromJson(object, type);
+    }
+
+    /**
+     * Walks a json value following a node of the trie not referencing a requested pointer itself.
+     * @param reader Json reader positioned before the value.
+     * @param node Trie node.
+     * @param extraction Extraction state.
+     * @return Number of requested values found in the walked value.
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private static int walk(final @NonNull JsonReader reader, final @NonNull Node node, final @NonNull Extraction extraction) throws IOException
+    {
+        int found = 0;
+
+        switch (reader.peek())
+        {
+            case BEGIN_OBJECT:
+                reader.beginObject();
+                while (reader.hasNext())
+                {
+                    var child = found < node.size ? node.children.get(reader.nextName()) : skipName(reader);
+                    found += child == null ? skip(reader) : visit(reader, child, extraction);
+                    if (extraction.remaining == 0)
+                    {
+                        return found;
+                    }
+                }
+                reader.endObject();
+                break;
+
+            case BEGIN_ARRAY:
+                reader.beginArray();
+                for (int index = 0; reader.hasNext(); index++)
+                {
+                    var child = found < node.size ? node.children.get(Integer.toString(index)) : null;
+                    found += child == null ? skip(reader) : visit(reader, child, extraction);
+                    if (extraction.remaining == 0)
+                    {
+                        return found;
+                    }
+                }
+                reader.endArray();
+                break;
+
+            default:
+                // A scalar value cannot contain the requested pointers.
+                reader.skipValue();
+                break;
+        }
+
+        return found;
+    }
+
+    /**
+     * Visits a json value matching a node of the trie.
+     * @param reader Json reader positioned before the value.
+     * @param node Trie node.
+     * @param extraction Extraction state.
+     * @return Number of requested values found in the visited value.
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private static int visit(final @NonNull JsonReader reader, final @NonNull Node node, final @NonNull Extraction extraction) throws IOException
+    {
+        if (node.pointer == null)
+        {
+            return walk(reader, node, extraction);
+        }
+
+        // A requested value is materialized, the pointers it contains are resolved in the materialized tree.
+        return collect(node, JsonParser.parseReader(reader), extraction);
+    }
+
+    /**
+     * Collects the requested values of a materialized json value.
+     * @param node Trie node matching the value.
+     * @param element Json value.
+     * @param extraction Extraction state.
+     * @return Number of requested values collected.
+     */
+    private static int collect(final @NonNull Node node, final @NonNull JsonElement element, final @NonNull Extraction extraction)
+    {
+        int found = 0;
+
+        if (node.pointer != null && extraction.values.putIfAbsent(node.pointer, element) == null)
+        {
+            extraction.remaining--;
+            found++;
+        }
+
+        for (Map.Entry<String, Node> entry : node.children.entrySet())
+        {
+            var child = child(element, entry.getKey());
+            if (child != null)
+            {
+                found += collect(entry.getValue(), child, extraction);
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Returns the child of a materialized json value referenced by a pointer token.
+     * @param element Json value.
+     * @param token Pointer token (member name or array index).
+     * @return Child value or null if not found.
+     */
+    private static JsonElement child(final @NonNull JsonElement element, final @NonNull String token)
+    {
+        if (element.isJsonObject())
+        {
+            return element.getAsJsonObject().get(token);
+        }
+
+        if (element.isJsonArray())
+        {
+            var array = element.getAsJsonArray();
+            try
+            {
+                int index = Integer.parseInt(token);
+                return index >= 0 && index < array.size() ? array.get(index) : null;
+            }
+            catch (NumberFormatException e)
+            {
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Skips a member name.
+     * @param reader Json reader positioned before the member name.
+     * @return Always null (no trie node).
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private static Node skipName(final @NonNull JsonReader reader) throws IOException
+    {
+        reader.skipValue();
+
+        return null;
+    }
+
+    /**
+     * Skips a json value.
+     * @param reader Json reader positioned before the value.
+     * @return Always 0 (no requested value found).
+     * @throws IOException Thrown in case an error occurred while reading.
+     */
+    private static int skip(final @NonNull JsonReader reader) throws IOException
+    {
+        reader.skipValue();
+
+        return 0;
+    }
+
+    /**
+     * A node of the pointer trie.
+     */
+    private static final class Node
+    {
+        /**
+         * Child nodes indexed by pointer token.
+         */
+        private final Map<String, Node> children = new HashMap<>();
+
+        /**
+         * Requested pointer ending at this node, null if none.
+         */
+        private String pointer;
+
+        /**
+         * Number of requested pointers ending at this node or below.
+         */
+        private int size;
+    }
+
+    /**
+     * State of an extraction.
+     */
+    private static final class Extraction
+    {
+        /**
+         * Extracted values.
+         */
+        private final Map<String, JsonElement> values = new LinkedHashMap<>();
+
+        /**
+         * Number of requested values not found yet.
+         */
+        private int remaining;
+
+        /**
+         * Creates a new extraction state.
+         * @param remaining Number of requested values.
+         */
+        private Extraction(final int remaining)
+        {
+            this.remaining = remaining;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.json;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+
+/**
+ * Options controlling how a json file is written by {@link JsonFiles}.
+ * <pre>   {@code
+ *   JsonWriteOptions options = JsonWriteOptions.builder()
+ *       .atomic(true)
+ *       .durable(true)
+ *       .skipUnchanged(true)
+ *       .compressionLevel(Deflater.BEST_SPEED)
+ *       .parallelCompression(true)
+ *       .build();
+ * }</pre>
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Getter
+@Builder(toBuilder = true)
+public final class JsonWriteOptions
+{
+    /**
+     * Default options: content is directly written (buffered, UTF-8) in the target file.
+     */
+    public static final JsonWriteOptions DEFAULT = JsonWriteOptions.builder().build();
+
+    /**
+     * Whether the content is written in a temporary sibling file atomically renamed over the target file
+     * once complete, so a failure while writing never leaves a truncated target file.
+     */
+    private final boolean atomic;
+
+    /**
+     * Whether the content is forced to the storage device before the file is considered as written.
+     */
+    private final boolean durable;
+
+    /**
+     * Whether the target file is left untouched when its content is identical to the new content.
+     */
+    private final boolean skipUnchanged;
+
+    /**
+     * Compression format of the file, when not set the format is deduced from the file name extension.
+     */
+    private final JsonCompression compression;
+
+    /**
+     * Compression level ({@link Deflater#DEFAULT_COMPRESSION} or 0-9).
+     */
+    @Builder.Default
+    private final int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * Whether the content is compressed by blocks on several cores (only supported by {@link JsonCompression#GZIP}).
+     */
+    private final boolean parallelCompression;
+
+    /**
+     * Returns the compression format to use for the given file.
+     * @param path File path.
+     * @return Compression format.
+     */
+    public JsonCompression getCompression(final @NonNull Path path)
+    {
+        return compression != null ? compression : JsonCompression.fromExtension(path);
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.json;
+
+import lombok.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An output stream compressing its content in gzip format using several cores.
+ * <br><br>
+ * The content is cut into fixed size blocks, each one being compressed concurrently as an independent gzip
+ * member. Members are written in order, the result being a valid multi-member gzip file readable by any gzip
+ * decoder (including {@link java.util.zip.GZIPInputStream}). The number of blocks being compressed is bounded,
+ * so the memory used does not depend on the size of the content.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class ParallelGzipOutputStream extends OutputStream
+{
+    /**
+     * Default size of a block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    /**
+     * Output stream receiving the compressed members.
+     */
+    private final OutputStream output;
+
+    /**
+     * Compression level.
+     */
+    private final int level;
+
+    /**
+     * Size of a block.
+     */
+    private final int blockSize;
+
+    /**
+     * Executor compressing the blocks.
+     */
+    private final Executor executor;
+
+    /**
+     * Maximum number of blocks being compressed.
+     */
+    private final int maxPending;
+
+    /**
+     * Blocks being compressed, in content order.
+     */
+    private final Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+
+    /**
+     * Block being filled.
+     */
+    private byte[] block;
+
+    /**
+     * Number of bytes in the block being filled.
+     */
+    private int count;
+
+    /**
+     * Whether at least one member has been written.
+     */
+    private boolean written;
+
+    /**
+     * Whether the stream has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a new parallel gzip output stream.
+     * @param output Output stream receiving the compressed members.
+     * @param level Compression level.
+     * @param blockSize Size of a block.
+     * @param executor Executor compressing the blocks.
+     * @param parallelism Number of blocks compressed concurrently.
+     */
+    public ParallelGzipOutputStream(final @NonNull OutputStream output, final int level, final int blockSize, final @NonNull Executor executor, final int parallelism)
+    {
+        this.output = output;
+        this.level = level;
+        this.blockSize = blockSize;
+        this.executor = executor;
+        this.maxPending = 2 * Math.max(1, parallelism);
+        this.block = new byte[blockSize];
+    }
+
+    /**
+     * Creates a new parallel gzip output stream compressing blocks on the common {@code ForkJoinPool}.
+     * @param output Output stream receiving the compressed members.
+     * @param level Compression level.
+     */
+    public ParallelGzipOutputStream(final @NonNull OutputStream output, final int level)
+    {
+        this(output, level, DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    @Override
+    public void write(final int b) throws IOException
+    {
+        block[count++] = (byte) b;
+        if (count == blockSize)
+        {
+            submit();
+        }
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException
+    {
+        int position = offset;
+        int remaining = length;
+
+        while (remaining > 0)
+        {
+            int size = Math.min(remaining, blockSize - count);
+            System.arraycopy(bytes, position, block, count, size);
+            count += size;
+            position += size;
+            remaining -= size;
+
+            if (count == blockSize)
+            {
+                submit();
+            }
+        }
+    }
+
+    /**
+     * Flushes the already compressed members. The block being filled is not compressed, so flushing does
+     * not degrade the compression ratio.
+     * @throws IOException Thrown in case an error occurred while writing.
+     */
+    @Override
+    public void flush() throws IOException
+    {
+        while (!pending.isEmpty() && pending.peekFirst().isDone())
+        {
+            drain();
+        }
+
+        output.flush();
+    }
+
+    /**
+     * Compresses the remaining content and writes all the members, without closing the underlying stream.
+     * @throws IOException Thrown in case an error occurred while writing.
+     */
+    public void finish() throws IOException
+    {
+        if (count > 0 || !written)
+        {
+            submit();
+        }
+
+        while (!pending.isEmpty())
+        {
+            drain();
+        }
+
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+
+        closed = true;
+        try
+        {
+            finish();
+        }
+        finally
+        {
+            output.close();
+        }
+    }
+
+    /**
+     * Submits the block being filled for compression.
+     * @throws IOException Thrown in case an error occurred while writing the already compressed members.
+     */
+    private void submit() throws IOException
+    {
+        final byte[] data = block;
+        final int size = count;
+
+        block = new byte[blockSize];
+        count = 0;
+        written = true;
+
+        pending.addLast(CompletableFuture.supplyAsync(() -> compress(data, size), executor));
+
+        while (pending.size() > maxPending)
+        {
+            drain();
+        }
+    }
+
+    /**
+     * Waits for the oldest member to be compressed and writes it.
+     * @throws IOException Thrown in case an error occurred while compressing or writing.
+     */
+    private void drain() throws IOException
+    {
+        try
+        {
+            output.write(pending.removeFirst().join());
+        }
+        catch (CompletionException e)
+        {
+            if (e.getCause() instanceof UncheckedIOException)
+            {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Compresses a block as a gzip member.
+     * @param data Block content.
+     * @param size Block size.
+     * @return Gzip member.
+     */
+    private byte[] compress(final byte[] data, final int size)
+    {
+        var buffer = new ByteArrayOutputStream(size / 2 + 64);
+
+        try (var gzip = new GZIPOutputStream(buffer, 8192)
+        {
+            {
+                def.setLevel(level);
+            }
+        })
+        {
+            gzip.write(data, 0, size);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        return buffer.toByteArray();
+    }
+}
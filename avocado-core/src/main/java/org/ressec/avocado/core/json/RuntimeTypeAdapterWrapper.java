@@ -0,0 +1,89 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.json;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.internal.bind.ReflectiveTypeAdapterFactory;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import lombok.NonNull;
+
+import java.io.IOException;
+
+/**
+ * A type adapter writing the values with the adapter of their runtime type, as {@code Gson} does for the
+ * fields of the reflectively bound types.
+ * <br><br>
+ * The generated type adapters wrap the adapter of each field declared with a non-final class, so a field
+ * declared as a super type (for example {@code Shape shape = new Circle()}) keeps the fields of its subclass.
+ * As with {@code Gson}, the adapter of the declared type is kept when the runtime type is bound reflectively
+ * but the declared type is not (for example when it is handled by a polymorphic type adapter factory). The
+ * values are always read with the adapter of the declared type.
+ * @param <T> Declared type.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class RuntimeTypeAdapterWrapper<T> extends TypeAdapter<T>
+{
+    /**
+     * Gson instance providing the adapters of the runtime types.
+     */
+    private final Gson gson;
+
+    /**
+     * Adapter of the declared type.
+     */
+    private final TypeAdapter<T> delegate;
+
+    /**
+     * Declared type.
+     */
+    private final Class<T> type;
+
+    /**
+     * Creates a new runtime type adapter wrapper.
+     * @param gson Gson instance providing the adapters of the runtime types.
+     * @param delegate Adapter of the declared type.
+     * @param type Declared type.
+     */
+    public RuntimeTypeAdapterWrapper(final @NonNull Gson gson, final @NonNull TypeAdapter<T> delegate, final @NonNull Class<T> type)
+    {
+        this.gson = gson;
+        this.delegate = delegate;
+        this.type = type;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void write(final JsonWriter out, final T value) throws IOException
+    {
+        TypeAdapter<T> chosen = delegate;
+        if (value != null && value.getClass() != type)
+        {
+            var runtimeAdapter = (TypeAdapter<T>) gson.getAdapter(value.getClass());
+            if (!(runtimeAdapter instanceof ReflectiveTypeAdapterFactory.Adapter) || delegate instanceof ReflectiveTypeAdapterFactory.Adapter)
+            {
+                // The runtime type adapter is preferred, unless it is reflective while the declared one is not.
+                chosen = runtimeAdapter;
+            }
+        }
+
+        chosen.write(out, value);
+    }
+
+    @Override
+    public T read(final JsonReader in) throws IOException
+    {
+        return delegate.read(in);
+    }
+}
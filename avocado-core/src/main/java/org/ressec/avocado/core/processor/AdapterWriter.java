@@ -0,0 +1,516 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.processor;
+
+import lombok.NonNull;
+import org.ressec.avocado.core.processor.TypeAdapterProcessor.Property;
+
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the source code of a generated type adapter.
+ * <br><br>
+ * Primitive and {@code String} fields are read and written inline with the same semantic as the {@code Gson}
+ * built-in adapters, other fields are delegated to the adapter provided by the {@code Gson} instance. As with
+ * the reflective binding, the fields declared with a non-final class are written with the adapter of the
+ * runtime type of their value (see {@link org.ressec.avocado.core.json.RuntimeTypeAdapterWrapper}).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class AdapterWriter
+{
+    /**
+     * Gson package.
+     */
+    private static final String GSON = "com.google.gson.";
+
+    /**
+     * Adapter wrapper writing the values with the adapter of their runtime type.
+     */
+    private static final String RUNTIME_WRAPPER = "org.ressec.avocado.core.json.RuntimeTypeAdapterWrapper";
+
+    /**
+     * Writer of the source file.
+     */
+    private final PrintWriter out;
+
+    /**
+     * Qualified name of the type the adapter is generated for.
+     */
+    private final String typeName;
+
+    /**
+     * Properties of the type.
+     */
+    private final List<Property> properties;
+
+    /**
+     * Properties passed to the constructor (empty for the no-argument constructor).
+     */
+    private final List<Property> constructor;
+
+    /**
+     * Delegate adapter field name of each delegated type.
+     */
+    private final Map<String, String> adapters = new LinkedHashMap<>();
+
+    /**
+     * Expression creating the delegate adapter of each delegated type.
+     */
+    private final Map<String, String> initializers = new LinkedHashMap<>();
+
+    /**
+     * Creates a new adapter writer.
+     * @param out Writer of the source file.
+     * @param typeName Qualified name of the type the adapter is generated for.
+     * @param properties Properties of the type.
+     * @param constructor Properties passed to the constructor.
+     */
+    AdapterWriter(final @NonNull PrintWriter out, final @NonNull String typeName, final @NonNull List<Property> properties, final @NonNull List<Property> constructor)
+    {
+        this.out = out;
+        this.typeName = typeName;
+        this.properties = properties;
+        this.constructor = constructor;
+
+        for (Property property : properties)
+        {
+            var type = property.typeName;
+            if (isDelegated(property) && !adapters.containsKey(type))
+            {
+                var raw = property.type.getKind() == TypeKind.DECLARED && ((DeclaredType) property.type).getTypeArguments().isEmpty();
+                var adapter = "gson.getAdapter(" + (raw ? type + ".class" : "new " + GSON + "reflect.TypeToken<" + type + ">() {}") + ")";
+                adapters.put(type, "adapter" + adapters.size());
+                initializers.put(type, raw && isPolymorphic((DeclaredType) property.type) ? "new " + RUNTIME_WRAPPER + "<>(gson, " + adapter + ", " + type + ".class)" : adapter);
+            }
+        }
+    }
+
+    /**
+     * Writes the source code.
+     * @param packageName Package of the adapter.
+     * @param adapterName Simple name of the adapter.
+     */
+    void write(final @NonNull String packageName, final @NonNull String adapterName)
+    {
+        if (!packageName.isEmpty())
+        {
+            out.println("package " + packageName + ";");
+            out.println();
+        }
+
+        out.println("/**");
+        out.println(" * Gson type adapter of {@link " + typeName + "}, generated at compile time.");
+        out.println(" */");
+        out.println("@javax.annotation.processing.Generated(\"" + TypeAdapterProcessor.class.getName() + "\")");
+        out.println("public final class " + adapterName + " extends " + GSON + "TypeAdapter<" + typeName + ">");
+        out.println("{");
+        writeFields();
+        writeConstructor(adapterName);
+        writeWrite();
+        writeRead();
+        if (hasKind(TypeKind.CHAR))
+        {
+            writeReadChar();
+        }
+        out.println("}");
+    }
+
+    /**
+     * Writes the delegate adapter fields.
+     */
+    private void writeFields()
+    {
+        adapters.forEach((type, field) -> out.println("    private final " + GSON + "TypeAdapter<" + type + "> " + field + ";"));
+        if (hasKind(TypeKind.DOUBLE))
+        {
+            out.println("    private final " + GSON + "TypeAdapter<java.lang.Double> doubleAdapter;");
+        }
+        if (hasKind(TypeKind.FLOAT))
+        {
+            out.println("    private final " + GSON + "TypeAdapter<java.lang.Float> floatAdapter;");
+        }
+        out.println();
+    }
+
+    /**
+     * Writes the constructor, fetching the delegate adapters.
+     * @param adapterName Simple name of the adapter.
+     */
+    private void writeConstructor(final @NonNull String adapterName)
+    {
+        out.println("    public " + adapterName + "(final " + GSON + "Gson gson)");
+        out.println("    {");
+        adapters.forEach((type, field) -> out.println("        this." + field + " = " + initializers.get(type) + ";"));
+        if (hasKind(TypeKind.DOUBLE))
+        {
+            out.println("        this.doubleAdapter = gson.getAdapter(double.class);");
+        }
+        if (hasKind(TypeKind.FLOAT))
+        {
+            out.println("        this.floatAdapter = gson.getAdapter(float.class);");
+        }
+        out.println("    }");
+        out.println();
+    }
+
+    /**
+     * Writes the {@code write} method.
+     */
+    private void writeWrite()
+    {
+        out.println("    @Override");
+        out.println("    public void write(final " + GSON + "stream.JsonWriter out, final " + typeName + " value) throws java.io.IOException");
+        out.println("    {");
+        out.println("        if (value == null)");
+        out.println("        {");
+        out.println("            out.nullValue();");
+        out.println("            return;");
+        out.println("        }");
+        out.println();
+        out.println("        out.beginObject();");
+        for (Property property : properties)
+        {
+            var local = "v" + property.index;
+            out.println("        out.name(" + literal(property.jsonName) + ");");
+            switch (property.type.getKind())
+            {
+                case BOOLEAN:
+                    out.println("        out.value(" + property.getter + ");");
+                    break;
+
+                case BYTE:
+                case SHORT:
+                case INT:
+                    out.println("        out.value((long) " + property.getter + ");");
+                    break;
+
+                case LONG:
+                    out.println("        out.value(" + property.getter + ");");
+                    break;
+
+                case CHAR:
+                    out.println("        out.value(String.valueOf(" + property.getter + "));");
+                    break;
+
+                case DOUBLE:
+                    out.println("        final double " + local + " = " + property.getter + ";");
+                    out.println("        if (Double.isFinite(" + local + ")) out.value(" + local + "); else doubleAdapter.write(out, " + local + ");");
+                    break;
+
+                case FLOAT:
+                    out.println("        final float " + local + " = " + property.getter + ";");
+                    out.println("        if (Float.isFinite(" + local + ")) out.jsonValue(Float.toString(" + local + ")); else floatAdapter.write(out, " + local + ");");
+                    break;
+
+                default:
+                    out.println(isString(property)
+                            ? "        out.value(" + property.getter + ");"
+                            : "        " + adapters.get(property.typeName) + ".write(out, " + property.getter + ");");
+                    break;
+            }
+        }
+        out.println("        out.endObject();");
+        out.println("    }");
+        out.println();
+    }
+
+    /**
+     * Writes the {@code read} method.
+     */
+    private void writeRead()
+    {
+        out.println("    @Override");
+        out.println("    public " + typeName + " read(final " + GSON + "stream.JsonReader in) throws java.io.IOException");
+        out.println("    {");
+        out.println("        if (in.peek() == " + GSON + "stream.JsonToken.NULL)");
+        out.println("        {");
+        out.println("            in.nextNull();");
+        out.println("            return null;");
+        out.println("        }");
+        out.println();
+
+        var useConstructor = !constructor.isEmpty();
+        if (useConstructor)
+        {
+            for (Property property : properties)
+            {
+                out.println("        " + property.typeName + " v" + property.index + " = " + defaultValue(property) + ";");
+                if (!constructor.contains(property))
+                {
+                    out.println("        boolean s" + property.index + " = false;");
+                }
+            }
+        }
+        else
+        {
+            out.println("        final " + typeName + " value = new " + typeName + "();");
+        }
+
+        out.println("        in.beginObject();");
+        out.println("        try");
+        out.println("        {");
+        out.println("            while (in.hasNext())");
+        out.println("            {");
+        out.println("                switch (in.nextName())");
+        out.println("                {");
+        for (Property property : properties)
+        {
+            for (String name : property.getJsonNames())
+            {
+                out.println("                    case " + literal(name) + ":");
+            }
+            writeReadProperty(property, useConstructor);
+            out.println("                        break;");
+            out.println();
+        }
+        out.println("                    default:");
+        out.println("                        in.skipValue();");
+        out.println("                }");
+        out.println("            }");
+        out.println("        }");
+        out.println("        catch (NumberFormatException e)");
+        out.println("        {");
+        out.println("            throw new " + GSON + "JsonSyntaxException(e);");
+        out.println("        }");
+        out.println("        in.endObject();");
+
+        if (useConstructor)
+        {
+            var arguments = new StringBuilder();
+            for (Property property : constructor)
+            {
+                arguments.append(arguments.length() == 0 ? "" : ", ").append('v').append(property.index);
+            }
+            out.println();
+            out.println("        final " + typeName + " value = new " + typeName + "(" + arguments + ");");
+            for (Property property : properties)
+            {
+                if (!constructor.contains(property))
+                {
+                    out.println("        if (s" + property.index + ") " + String.format(property.setter, "v" + property.index) + ";");
+                }
+            }
+        }
+
+        out.println("        return value;");
+        out.println("    }");
+    }
+
+    /**
+     * Writes the statements reading a property.
+     * @param property Property.
+     * @param useConstructor Whether the value is stored in a local variable passed to the constructor.
+     */
+    private void writeReadProperty(final @NonNull Property property, final boolean useConstructor)
+    {
+        String expression;
+        switch (property.type.getKind())
+        {
+            case BOOLEAN:
+                expression = "in.peek() == " + GSON + "stream.JsonToken.STRING ? Boolean.parseBoolean(in.nextString()) : in.nextBoolean()";
+                break;
+
+            case BYTE:
+                expression = "(byte) in.nextInt()";
+                break;
+
+            case SHORT:
+                expression = "(short) in.nextInt()";
+                break;
+
+            case INT:
+                expression = "in.nextInt()";
+                break;
+
+            case LONG:
+                expression = "in.nextLong()";
+                break;
+
+            case CHAR:
+                expression = "readChar(in)";
+                break;
+
+            case DOUBLE:
+                expression = "in.nextDouble()";
+                break;
+
+            case FLOAT:
+                expression = "(float) in.nextDouble()";
+                break;
+
+            default:
+                if (!isString(property))
+                {
+                    out.println("                        " + assign(property, adapters.get(property.typeName) + ".read(in)", useConstructor));
+                    return;
+                }
+                expression = "in.peek() == " + GSON + "stream.JsonToken.BOOLEAN ? Boolean.toString(in.nextBoolean()) : in.nextString()";
+                break;
+        }
+
+        // Null values are ignored for primitive fields, as Gson does.
+        out.println("                        if (in.peek() == " + GSON + "stream.JsonToken.NULL)");
+        out.println("                        {");
+        out.println("                            in.nextNull();");
+        if (isString(property))
+        {
+            out.println("                            " + assign(property, "null", useConstructor));
+        }
+        out.println("                        }");
+        out.println("                        else");
+        out.println("                        {");
+        out.println("                            " + assign(property, expression, useConstructor));
+        out.println("                        }");
+    }
+
+    /**
+     * Writes the helper method reading a {@code char}.
+     */
+    private void writeReadChar()
+    {
+        out.println();
+        out.println("    private static char readChar(final " + GSON + "stream.JsonReader in) throws java.io.IOException");
+        out.println("    {");
+        out.println("        final String text = in.nextString();");
+        out.println("        if (text.length() != 1)");
+        out.println("        {");
+        out.println("            throw new " + GSON + "JsonSyntaxException(\"Expecting character, got: \" + text);");
+        out.println("        }");
+        out.println("        return text.charAt(0);");
+        out.println("    }");
+    }
+
+    /**
+     * Returns the statement assigning a value to a property.
+     * @param property Property.
+     * @param expression Value expression.
+     * @param useConstructor Whether the value is stored in a local variable passed to the constructor.
+     * @return Statement.
+     */
+    private String assign(final @NonNull Property property, final @NonNull String expression, final boolean useConstructor)
+    {
+        if (!useConstructor)
+        {
+            return String.format(property.setter, expression) + ";";
+        }
+
+        var statement = "v" + property.index + " = " + expression + ";";
+
+        return constructor.contains(property) ? statement : statement + " s" + property.index + " = true;";
+    }
+
+    /**
+     * Returns the default value of a property type.
+     * @param property Property.
+     * @return Default value expression.
+     */
+    private static String defaultValue(final @NonNull Property property)
+    {
+        switch (property.type.getKind())
+        {
+            case BOOLEAN:
+                return "false";
+
+            case CHAR:
+                return "'\\0'";
+
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case DOUBLE:
+            case FLOAT:
+                return "0";
+
+            default:
+                return "null";
+        }
+    }
+
+    /**
+     * Checks if a property is delegated to an adapter provided by the {@code Gson} instance.
+     * @param property Property.
+     * @return True if delegated, false if read and written inline.
+     */
+    private static boolean isDelegated(final @NonNull Property property)
+    {
+        return !property.type.getKind().isPrimitive() && !isString(property);
+    }
+
+    /**
+     * Checks if a property is a {@code String}.
+     * @param property Property.
+     * @return True if a {@code String}, false otherwise.
+     */
+    private static boolean isString(final @NonNull Property property)
+    {
+        return property.string;
+    }
+
+    /**
+     * Checks if the values of a declared type can have another runtime type (the type is neither final nor an
+     * enumeration).
+     * @param type Declared type.
+     * @return True if the values can be instances of a subclass, false otherwise.
+     */
+    private static boolean isPolymorphic(final @NonNull DeclaredType type)
+    {
+        var element = type.asElement();
+
+        return element.getKind() != ElementKind.ENUM && !element.getModifiers().contains(Modifier.FINAL);
+    }
+
+    /**
+     * Checks if a property has the given primitive type.
+     * @param kind Primitive type kind.
+     * @return True if at least one property has the type, false otherwise.
+     */
+    private boolean hasKind(final @NonNull TypeKind kind)
+    {
+        return properties.stream().anyMatch(property -> property.type.getKind() == kind);
+    }
+
+    /**
+     * Returns the Java string literal of a text.
+     * @param text Text.
+     * @return String literal.
+     */
+    private static String literal(final @NonNull String text)
+    {
+        var builder = new StringBuilder("\"");
+        for (char c : text.toCharArray())
+        {
+            if (c == '"' || c == '\\')
+            {
+                builder.append('\\').append(c);
+            }
+            else if (c < 0x20 || c > 0x7e)
+            {
+                builder.append(String.format("\\u%04x", (int) c));
+            }
+            else
+            {
+                builder.append(c);
+            }
+        }
+
+        return builder.append('"').toString();
+    }
+}
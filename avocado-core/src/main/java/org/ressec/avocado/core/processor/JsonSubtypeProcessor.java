@@ -0,0 +1,200 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.processor;
+
+import lombok.NonNull;
+import org.ressec.avocado.core.annotation.JsonSubtype;
+import org.ressec.avocado.core.runtime.SubtypeIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * An annotation processor indexing the types annotated with {@link JsonSubtype}.
+ * <br><br>
+ * The binary name, the label and the super types of each annotated type are written in the
+ * {@link SubtypeIndex#INDEX_RESOURCE} resource of the compiled module, so the subtypes of a base type can be
+ * registered at runtime without scanning the class path. On an incremental compilation, the entries of the
+ * existing index whose type is still annotated are kept, and the index is rewritten even if no compiled type is
+ * annotated anymore, so the entries of the removed annotations do not outlive them. The processor is thus
+ * invoked on every compilation (it supports all the annotations but does not claim any).
+ * <br><br>
+ * The processor is registered as a service of the avocado-core artifact, so it runs on every module
+ * compiled with avocado-core on its class path.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@SupportedAnnotationTypes("*")
+public final class JsonSubtypeProcessor extends AbstractProcessor
+{
+    /**
+     * Index lines collected so far, by binary name of the annotated type.
+     */
+    private final Map<String, String> entries = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment round)
+    {
+        for (Element element : round.getElementsAnnotatedWith(JsonSubtype.class))
+        {
+            if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT))
+            {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@JsonSubtype can only be placed on a concrete class", element);
+                continue;
+            }
+
+            var type = (TypeElement) element;
+            entries.put(getBinaryName(type), toLine(type));
+        }
+
+        if (round.processingOver())
+        {
+            try
+            {
+                writeIndex();
+            }
+            catch (IOException e)
+            {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format("Cannot write subtype index: %s", e.getMessage()));
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Creates the index line of an annotated type.
+     * @param type Annotated type.
+     * @return Index line.
+     */
+    private String toLine(final @NonNull TypeElement type)
+    {
+        var label = type.getAnnotation(JsonSubtype.class).label();
+
+        return getBinaryName(type)
+                + SubtypeIndex.COLUMN_SEPARATOR + (label.isEmpty() ? type.getSimpleName().toString() : label)
+                + SubtypeIndex.COLUMN_SEPARATOR + String.join(String.valueOf(SubtypeIndex.SUPERTYPE_SEPARATOR), getSupertypes(type));
+    }
+
+    /**
+     * Returns the binary names of all the super types (classes and interfaces) of a type.
+     * @param type Type.
+     * @return Binary names of the super types, {@code java.lang.Object} excepted.
+     */
+    private Set<String> getSupertypes(final @NonNull TypeElement type)
+    {
+        var types = processingEnv.getTypeUtils();
+        var supertypes = new TreeSet<String>();
+        var pending = new ArrayDeque<TypeMirror>(types.directSupertypes(type.asType()));
+
+        while (!pending.isEmpty())
+        {
+            var supertype = pending.poll();
+            if (supertype.getKind() != TypeKind.DECLARED)
+            {
+                continue;
+            }
+
+            var element = (TypeElement) ((DeclaredType) supertype).asElement();
+            var name = getBinaryName(element);
+            if (!name.equals(Object.class.getName()) && supertypes.add(name))
+            {
+                pending.addAll(types.directSupertypes(supertype));
+            }
+        }
+
+        return supertypes;
+    }
+
+    /**
+     * Writes the index, merged with the entries of the existing index still valid. Nothing is written if there
+     * is neither an existing index nor an annotated type.
+     * @throws IOException Thrown in case an error occurred while writing the index.
+     */
+    private void writeIndex() throws IOException
+    {
+        var filer = processingEnv.getFiler();
+        var merged = new TreeMap<String, String>();
+        var existing = false;
+
+        try (var reader = new BufferedReader(filer.getResource(StandardLocation.CLASS_OUTPUT, "", SubtypeIndex.INDEX_RESOURCE).openReader(true)))
+        {
+            existing = true;
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                var name = line.split(String.valueOf(SubtypeIndex.COLUMN_SEPARATOR), -1)[0];
+                var element = processingEnv.getElementUtils().getTypeElement(name.replace('$', '.'));
+                if (element != null && element.getAnnotation(JsonSubtype.class) != null)
+                {
+                    merged.put(name, line);
+                }
+            }
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            // No index yet.
+        }
+
+        if (!existing && entries.isEmpty())
+        {
+            return;
+        }
+
+        merged.putAll(entries);
+
+        var resource = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SubtypeIndex.INDEX_RESOURCE);
+        try (var writer = new PrintWriter(resource.openWriter()))
+        {
+            for (String line : merged.values())
+            {
+                writer.print(line);
+                writer.print('\n');
+            }
+        }
+    }
+
+    /**
+     * Returns the binary name of a type.
+     * @param type Type.
+     * @return Binary name.
+     */
+    private String getBinaryName(final @NonNull TypeElement type)
+    {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+}
@@ -0,0 +1,608 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.processor;
+
+import lombok.NonNull;
+import org.ressec.avocado.core.annotation.GenerateTypeAdapter;
+import org.ressec.avocado.core.json.GeneratedTypeAdapterFactory;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * An annotation processor generating a {@code Gson} type adapter for each type annotated with
+ * {@link GenerateTypeAdapter}.
+ * <br><br>
+ * The generated adapter is named after the type (for example {@code Outer_Inner_GsonTypeAdapter} for the
+ * nested type {@code Outer.Inner}) and is placed in the same package, so it can access the non-private
+ * fields directly. Private fields are accessed through their getter and setter. A type is instantiated
+ * through its no-argument constructor or, when some fields cannot be set after construction, through the
+ * constructor whose parameters are named after these fields.
+ * <br><br>
+ * The processor is registered as a service of the avocado-core artifact, so it runs on every module
+ * compiled with avocado-core on its class path.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@SupportedAnnotationTypes("org.ressec.avocado.core.annotation.GenerateTypeAdapter")
+public final class TypeAdapterProcessor extends AbstractProcessor
+{
+    /**
+     * Lombok annotations generating getters when placed on a type.
+     */
+    private static final Set<String> LOMBOK_TYPE_GETTERS = Set.of("lombok.Getter", "lombok.Data", "lombok.Value");
+
+    /**
+     * Lombok annotations generating setters when placed on a type.
+     */
+    private static final Set<String> LOMBOK_TYPE_SETTERS = Set.of("lombok.Setter", "lombok.Data");
+
+    /**
+     * Lombok annotations generating a no-argument constructor when placed on a type.
+     */
+    private static final Set<String> LOMBOK_NO_ARGS_CONSTRUCTORS = Set.of("lombok.NoArgsConstructor");
+
+    /**
+     * Name of the {@code Gson} annotation used to rename fields.
+     */
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment round)
+    {
+        for (Element element : round.getElementsAnnotatedWith(GenerateTypeAdapter.class))
+        {
+            try
+            {
+                generate(check(element));
+            }
+            catch (ProcessingException e)
+            {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+            }
+            catch (IOException e)
+            {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format("Cannot generate type adapter: %s", e.getMessage()), element);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks that an annotated element is a type a type adapter can be generated for.
+     * @param element Annotated element.
+     * @return Type element.
+     * @throws ProcessingException Thrown in case the element is not supported.
+     */
+    private TypeElement check(final @NonNull Element element) throws ProcessingException
+    {
+        if (element.getKind() != ElementKind.CLASS)
+        {
+            throw new ProcessingException(element, "@GenerateTypeAdapter can only be placed on a class");
+        }
+
+        var type = (TypeElement) element;
+        if (type.getModifiers().contains(Modifier.ABSTRACT) || !type.getTypeParameters().isEmpty())
+        {
+            throw new ProcessingException(element, String.format("@GenerateTypeAdapter is not supported on abstract or generic class: '%s'", type.getQualifiedName()));
+        }
+
+        for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement())
+        {
+            var nested = ((TypeElement) current).getNestingKind() == NestingKind.MEMBER;
+            if (current.getModifiers().contains(Modifier.PRIVATE) || (nested && !current.getModifiers().contains(Modifier.STATIC)))
+            {
+                throw new ProcessingException(element, String.format("@GenerateTypeAdapter requires a non-private top-level or static nested class: '%s'", type.getQualifiedName()));
+            }
+        }
+
+        return type;
+    }
+
+    /**
+     * Generates the type adapter of a type.
+     * @param type Type element.
+     * @throws ProcessingException Thrown in case the type cannot be bound without reflection.
+     * @throws IOException Thrown in case an error occurred while writing the generated source file.
+     */
+    private void generate(final @NonNull TypeElement type) throws ProcessingException, IOException
+    {
+        var packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        var simpleNames = new ArrayDeque<String>();
+        for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement())
+        {
+            simpleNames.addFirst(current.getSimpleName().toString());
+        }
+
+        var adapterName = GeneratedTypeAdapterFactory.getAdapterName(packageName, simpleNames);
+        var adapterSimpleName = adapterName.substring(adapterName.lastIndexOf('.') + 1);
+        var properties = collectProperties(type, packageName);
+        var constructor = findConstructor(type, packageName, properties);
+
+        var file = processingEnv.getFiler().createSourceFile(adapterName, type);
+        try (var out = new PrintWriter(file.openWriter()))
+        {
+            new AdapterWriter(out, type.getQualifiedName().toString(), properties, constructor).write(packageName, adapterSimpleName);
+        }
+    }
+
+    /**
+     * Collects the serialized fields of a type (the fields of the type then the ones of its super classes,
+     * as {@code Gson} does).
+     * @param type Type element.
+     * @param packageName Package of the generated adapter.
+     * @return Properties.
+     * @throws ProcessingException Thrown in case a field cannot be accessed without reflection.
+     */
+    private List<Property> collectProperties(final @NonNull TypeElement type, final @NonNull String packageName) throws ProcessingException
+    {
+        var types = processingEnv.getTypeUtils();
+        var declaredType = (DeclaredType) type.asType();
+        var stringType = processingEnv.getElementUtils().getTypeElement(String.class.getName()).asType();
+        var names = new LinkedHashSet<String>();
+        var properties = new ArrayList<Property>();
+
+        for (TypeElement current = type; current != null && !current.getQualifiedName().contentEquals("java.lang.Object"); current = superclass(current))
+        {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements()))
+            {
+                if (field.getModifiers().contains(Modifier.STATIC) || field.getModifiers().contains(Modifier.TRANSIENT))
+                {
+                    continue;
+                }
+
+                var fieldType = types.asMemberOf(declaredType, field);
+                var property = new Property(field, fieldType, toSource(fieldType), types.isSameType(fieldType, stringType), properties.size());
+                readSerializedName(property);
+                for (String name : property.getJsonNames())
+                {
+                    if (!names.add(name))
+                    {
+                        throw new ProcessingException(field, String.format("Type: '%s' declares multiple json fields named: '%s'", type.getQualifiedName(), name));
+                    }
+                }
+
+                bindAccessors(property, type, current, packageName);
+                properties.add(property);
+            }
+        }
+
+        return properties;
+    }
+
+    /**
+     * Returns the source code of a type, without its type annotations (a type annotation such as
+     * {@code @NonNull} is not allowed in a class literal nor useful in the generated code).
+     * @param type Type.
+     * @return Source code of the type.
+     */
+    private String toSource(final @NonNull TypeMirror type)
+    {
+        switch (type.getKind())
+        {
+            case ARRAY:
+                return toSource(((ArrayType) type).getComponentType()) + "[]";
+
+            case DECLARED:
+                var declared = (DeclaredType) type;
+                var name = ((TypeElement) declared.asElement()).getQualifiedName().toString();
+                return declared.getTypeArguments().isEmpty()
+                        ? name
+                        : name + declared.getTypeArguments().stream().map(this::toSource).collect(Collectors.joining(", ", "<", ">"));
+
+            case WILDCARD:
+                var wildcard = (WildcardType) type;
+                if (wildcard.getExtendsBound() != null)
+                {
+                    return "? extends " + toSource(wildcard.getExtendsBound());
+                }
+                return wildcard.getSuperBound() != null ? "? super " + toSource(wildcard.getSuperBound()) : "?";
+
+            case TYPEVAR:
+                return toSource(processingEnv.getTypeUtils().erasure(type));
+
+            default:
+                return type.getKind().isPrimitive() ? type.getKind().name().toLowerCase(Locale.ROOT) : type.toString();
+        }
+    }
+
+    /**
+     * Returns the super class of a type.
+     * @param type Type element.
+     * @return Super class element or null if the type has no super class.
+     */
+    private static TypeElement superclass(final @NonNull TypeElement type)
+    {
+        var superclass = type.getSuperclass();
+
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+    }
+
+    /**
+     * Reads the {@code @SerializedName} annotation of a field.
+     * @param property Property of the field.
+     */
+    private static void readSerializedName(final @NonNull Property property)
+    {
+        for (AnnotationMirror annotation : property.field.getAnnotationMirrors())
+        {
+            if (!((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(SERIALIZED_NAME))
+            {
+                continue;
+            }
+
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet())
+            {
+                var key = entry.getKey().getSimpleName().toString();
+                if ("value".equals(key))
+                {
+                    property.jsonName = (String) entry.getValue().getValue();
+                }
+                else if ("alternate".equals(key))
+                {
+                    for (Object alternate : (List<?>) entry.getValue().getValue())
+                    {
+                        property.alternates.add((String) ((AnnotationValue) alternate).getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines how a property is read and written: directly through its field when accessible from the
+     * generated adapter, through its getter and setter otherwise.
+     * @param property Property.
+     * @param type Type the adapter is generated for.
+     * @param declaring Type declaring the field.
+     * @param packageName Package of the generated adapter.
+     * @throws ProcessingException Thrown in case the property cannot be read without reflection.
+     */
+    private void bindAccessors(final @NonNull Property property, final @NonNull TypeElement type, final @NonNull TypeElement declaring, final @NonNull String packageName) throws ProcessingException
+    {
+        var field = property.field;
+        var name = field.getSimpleName().toString();
+        var accessible = isAccessible(field, packageName);
+        var isBoolean = property.type.getKind() == TypeKind.BOOLEAN;
+        var booleanPrefixed = isBoolean && name.length() > 2 && name.startsWith("is") && Character.isUpperCase(name.charAt(2));
+        var capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        var getterName = booleanPrefixed ? name : (isBoolean ? "is" : "get") + capitalized;
+        var setterName = "set" + (booleanPrefixed ? name.substring(2) : capitalized);
+
+        if (accessible)
+        {
+            property.getter = "value." + name;
+        }
+        else if (hasMethod(type, packageName, getterName, null) || hasLombok(field, declaring, Set.of("lombok.Getter"), LOMBOK_TYPE_GETTERS))
+        {
+            property.getter = "value." + getterName + "()";
+        }
+        else if (isBoolean && hasMethod(type, packageName, "get" + capitalized, null))
+        {
+            property.getter = "value.get" + capitalized + "()";
+        }
+        else
+        {
+            throw new ProcessingException(field, String.format("Field: '%s' of type: '%s' is not accessible and has no getter", name, type.getQualifiedName()));
+        }
+
+        if (field.getModifiers().contains(Modifier.FINAL))
+        {
+            return;
+        }
+
+        if (accessible)
+        {
+            property.setter = "value." + name + " = %s";
+        }
+        else if (hasMethod(type, packageName, setterName, property.type) || hasLombok(field, declaring, Set.of("lombok.Setter"), LOMBOK_TYPE_SETTERS))
+        {
+            property.setter = "value." + setterName + "(%s)";
+        }
+    }
+
+    /**
+     * Checks if a member is accessible from the generated adapter.
+     * @param member Member element.
+     * @param packageName Package of the generated adapter.
+     * @return True if accessible, false otherwise.
+     */
+    private boolean isAccessible(final @NonNull Element member, final @NonNull String packageName)
+    {
+        var modifiers = member.getModifiers();
+
+        return modifiers.contains(Modifier.PUBLIC) || (!modifiers.contains(Modifier.PRIVATE)
+                && processingEnv.getElementUtils().getPackageOf(member).getQualifiedName().contentEquals(packageName));
+    }
+
+    /**
+     * Checks if a type has an accessible instance method.
+     * @param type Type element.
+     * @param packageName Package of the generated adapter.
+     * @param name Method name.
+     * @param parameter Type of the single parameter of the method or null for a method without parameter.
+     * @return True if the method exists, false otherwise.
+     */
+    private boolean hasMethod(final @NonNull TypeElement type, final @NonNull String packageName, final @NonNull String name, final TypeMirror parameter)
+    {
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type)))
+        {
+            if (method.getSimpleName().contentEquals(name) && !method.getModifiers().contains(Modifier.STATIC) && isAccessible(method, packageName)
+                    && (parameter == null
+                        ? method.getParameters().isEmpty()
+                        : method.getParameters().size() == 1 && processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), parameter)))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if an accessor of a field is generated by Lombok.
+     * @param field Field element.
+     * @param declaring Type declaring the field.
+     * @param fieldAnnotations Lombok annotations generating the accessor when placed on the field.
+     * @param typeAnnotations Lombok annotations generating the accessor when placed on the type.
+     * @return True if the accessor is generated by Lombok, false otherwise.
+     */
+    private static boolean hasLombok(final @NonNull Element field, final @NonNull TypeElement declaring, final @NonNull Set<String> fieldAnnotations, final @NonNull Set<String> typeAnnotations)
+    {
+        return hasAnnotation(field, fieldAnnotations) || hasAnnotation(declaring, typeAnnotations);
+    }
+
+    /**
+     * Checks if an element is annotated with one of the given annotations.
+     * @param element Element.
+     * @param names Qualified names of the annotations.
+     * @return True if annotated, false otherwise.
+     */
+    private static boolean hasAnnotation(final @NonNull Element element, final @NonNull Set<String> names)
+    {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors())
+        {
+            if (names.contains(((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString()))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Finds the constructor used to instantiate a type: the no-argument constructor when all the properties
+     * can be set after construction, otherwise the constructor with the most parameters all named after
+     * properties (with the same type) and such that the remaining properties can be set after construction.
+     * @param type Type element.
+     * @param packageName Package of the generated adapter.
+     * @param properties Properties of the type.
+     * @return Properties passed to the constructor, in parameter order (empty for the no-argument constructor).
+     * @throws ProcessingException Thrown in case there is no such constructor.
+     */
+    private List<Property> findConstructor(final @NonNull TypeElement type, final @NonNull String packageName, final @NonNull List<Property> properties) throws ProcessingException
+    {
+        var byName = new LinkedHashMap<String, Property>();
+        properties.forEach(property -> byName.putIfAbsent(property.field.getSimpleName().toString(), property));
+
+        List<Property> selected = null;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements()))
+        {
+            if (!isAccessible(constructor, packageName))
+            {
+                continue;
+            }
+
+            var parameters = new ArrayList<Property>();
+            for (VariableElement parameter : constructor.getParameters())
+            {
+                var property = byName.get(parameter.getSimpleName().toString());
+                if (property == null || !processingEnv.getTypeUtils().isSameType(property.type, parameter.asType()))
+                {
+                    parameters = null;
+                    break;
+                }
+                parameters.add(property);
+            }
+
+            if (parameters != null && isComplete(properties, parameters) && (selected == null || parameters.size() > selected.size()))
+            {
+                selected = parameters;
+            }
+        }
+
+        if (selected == null && hasAnnotation(type, LOMBOK_NO_ARGS_CONSTRUCTORS) && isComplete(properties, List.of()))
+        {
+            selected = List.of();
+        }
+
+        if (selected == null)
+        {
+            for (Property property : properties)
+            {
+                if (property.setter == null)
+                {
+                    throw new ProcessingException(property.field, String.format("Field: '%s' of type: '%s' cannot be set without reflection (no setter and no constructor parameter)", property.field.getSimpleName(), type.getQualifiedName()));
+                }
+            }
+            throw new ProcessingException(type, String.format("Type: '%s' has no accessible constructor usable to instantiate it", type.getQualifiedName()));
+        }
+
+        return selected;
+    }
+
+    /**
+     * Checks if all the properties are either passed to the constructor or can be set after construction.
+     * @param properties Properties.
+     * @param parameters Properties passed to the constructor.
+     * @return True if all the properties can be set, false otherwise.
+     */
+    private static boolean isComplete(final @NonNull List<Property> properties, final @NonNull List<Property> parameters)
+    {
+        for (Property property : properties)
+        {
+            if (property.setter == null && !parameters.contains(property))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * A serialized field of the type.
+     */
+    static final class Property
+    {
+        /**
+         * Field element.
+         */
+        final VariableElement field;
+
+        /**
+         * Type of the field (as a member of the type the adapter is generated for).
+         */
+        final TypeMirror type;
+
+        /**
+         * Source code of the type of the field, without its type annotations.
+         */
+        final String typeName;
+
+        /**
+         * Whether the type of the field is {@code String}.
+         */
+        final boolean string;
+
+        /**
+         * Index of the property.
+         */
+        final int index;
+
+        /**
+         * Json name of the field.
+         */
+        String jsonName;
+
+        /**
+         * Alternate json names accepted when reading.
+         */
+        final List<String> alternates = new ArrayList<>();
+
+        /**
+         * Expression reading the property from the {@code value} variable.
+         */
+        String getter;
+
+        /**
+         * Format of the statement writing the property in the {@code value} variable, or null if the
+         * property can only be set through the constructor.
+         */
+        String setter;
+
+        /**
+         * Creates a new property.
+         * @param field Field element.
+         * @param type Type of the field.
+         * @param typeName Source code of the type of the field, without its type annotations.
+         * @param string Whether the type of the field is {@code String}.
+         * @param index Index of the property.
+         */
+        Property(final @NonNull VariableElement field, final @NonNull TypeMirror type, final @NonNull String typeName, final boolean string, final int index)
+        {
+            this.field = field;
+            this.type = type;
+            this.typeName = typeName;
+            this.string = string;
+            this.index = index;
+            this.jsonName = field.getSimpleName().toString();
+        }
+
+        /**
+         * Returns all the json names of the property.
+         * @return Json names.
+         */
+        List<String> getJsonNames()
+        {
+            var names = new ArrayList<String>();
+            names.add(jsonName);
+            names.addAll(alternates);
+
+            return names;
+        }
+    }
+
+    /**
+     * Exception thrown when a type adapter cannot be generated.
+     */
+    private static final class ProcessingException extends Exception
+    {
+        /**
+         * Default serialization identifier.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Element the error is reported on.
+         */
+        private final transient Element element;
+
+        /**
+         * Creates a new processing exception.
+         * @param element Element the error is reported on.
+         * @param message Message.
+         */
+        private ProcessingException(final @NonNull Element element, final @NonNull String message)
+        {
+            super(message);
+            this.element = element;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.runtime;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A migration step of a polymorphic object from one version to the next one, registered on a
+ * {@link RuntimeTypeAdapterFactory}.
+ * <pre>   {@code
+ *   JsonMigration migration = JsonMigration.builder()
+ *       .renameField("colour", "color")
+ *       .removeField("legacy")
+ *       .addField("opacity", 1.0)
+ *       .build();
+ * }</pre>
+ * Renaming, removing and adding fields are applied while the object is streamed. A {@link Builder#transform
+ * transformation} of the object as a json tree can be used for any other change, the object then being
+ * buffered as a tree to be migrated.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class JsonMigration
+{
+    /**
+     * Operations of the step, in application order.
+     */
+    private final List<Operation> operations;
+
+    /**
+     * Creates a new migration step.
+     * @param operations Operations of the step.
+     */
+    private JsonMigration(final @NonNull List<Operation> operations)
+    {
+        this.operations = Collections.unmodifiableList(new ArrayList<>(operations));
+    }
+
+    /**
+     * Creates a new migration step builder.
+     * @return Builder.
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Returns the operations of the step.
+     * @return Unmodifiable list of operations, in application order.
+     */
+    List<Operation> getOperations()
+    {
+        return operations;
+    }
+
+    /**
+     * Builder of a migration step.
+     */
+    public static final class Builder
+    {
+        /**
+         * Operations of the step.
+         */
+        private final List<Operation> operations = new ArrayList<>();
+
+        /**
+         * Creates a new builder.
+         */
+        private Builder()
+        {
+        }
+
+        /**
+         * Renames a field of the object, replacing the field having the new name if any.
+         * @param name Current name of the field.
+         * @param newName New name of the field.
+         * @return Builder.
+         */
+        public Builder renameField(final @NonNull String name, final @NonNull String newName)
+        {
+            operations.add(new Operation(name, newName, null, null));
+            return this;
+        }
+
+        /**
+         * Removes a field of the object.
+         * @param name Name of the field.
+         * @return Builder.
+         */
+        public Builder removeField(final @NonNull String name)
+        {
+            operations.add(new Operation(name, null, null, null));
+            return this;
+        }
+
+        /**
+         * Adds a field to the object, unless the object already defines it.
+         * @param name Name of the field.
+         * @param value Value of the field.
+         * @return Builder.
+         */
+        public Builder addField(final @NonNull String name, final @NonNull String value)
+        {
+            operations.add(new Operation(name, name, new JsonPrimitive(value), null));
+            return this;
+        }
+
+        /**
+         * Adds a field to the object, unless the object already defines it.
+         * @param name Name of the field.
+         * @param value Value of the field.
+         * @return Builder.
+         */
+        public Builder addField(final @NonNull String name, final @NonNull Number value)
+        {
+            operations.add(new Operation(name, name, new JsonPrimitive(value), null));
+            return this;
+        }
+
+        /**
+         * Adds a field to the object, unless the object already defines it.
+         * @param name Name of the field.
+         * @param value Value of the field.
+         * @return Builder.
+         */
+        public Builder addField(final @NonNull String name, final boolean value)
+        {
+            operations.add(new Operation(name, name, new JsonPrimitive(value), null));
+            return this;
+        }
+
+        /**
+         * Transforms the object as a json tree. The type and version fields of the object are not part of the
+         * tree, unless they are maintained by the objects.
+         * @param transformation Transformation of the object.
+         * @return Builder.
+         */
+        public Builder transform(final @NonNull Consumer<JsonObject> transformation)
+        {
+            operations.add(new Operation(null, null, null, transformation));
+            return this;
+        }
+
+        /**
+         * Builds the migration step.
+         * @return Migration step.
+         */
+        public JsonMigration build()
+        {
+            return new JsonMigration(operations);
+        }
+    }
+
+    /**
+     * An operation of a migration step.
+     */
+    static final class Operation
+    {
+        /**
+         * Name of the renamed, removed or added field ({@code null} for a transformation).
+         */
+        private final String name;
+
+        /**
+         * New name of the field ({@code null} if the field is removed).
+         */
+        private final String newName;
+
+        /**
+         * Value of the added field ({@code null} if the operation does not add a field).
+         */
+        private final JsonPrimitive value;
+
+        /**
+         * Transformation of the object ({@code null} if the operation is not a transformation).
+         */
+        private final Consumer<JsonObject> transformation;
+
+        /**
+         * Creates a new operation.
+         * @param name Name of the renamed, removed or added field.
+         * @param newName New name of the field.
+         * @param value Value of the added field.
+         * @param transformation Transformation of the object.
+         */
+        private Operation(final String name, final String newName, final JsonPrimitive value, final Consumer<JsonObject> transformation)
+        {
+            this.name = name;
+            this.newName = newName;
+            this.value = value;
+            this.transformation = transformation;
+        }
+
+        /**
+         * Returns whether the operation is a transformation of the object as a json tree.
+         * @return True if the operation is a transformation.
+         */
+        boolean isTransformation()
+        {
+            return transformation != null;
+        }
+
+        /**
+         * Returns the value of the field added by the operation.
+         * @return Value of the added field, or {@code null} if the operation does not add a field.
+         */
+        JsonPrimitive getAddedValue()
+        {
+            return value;
+        }
+
+        /**
+         * Returns the name of the field added by the operation.
+         * @return Name of the added field.
+         */
+        String getAddedName()
+        {
+            return name;
+        }
+
+        /**
+         * Returns the name a field has after the operation.
+         * @param fieldName Name of the field before the operation.
+         * @return Name of the field after the operation, or {@code null} if the operation removes it.
+         */
+        String rename(final @NonNull String fieldName)
+        {
+            return value == null && transformation == null && name.equals(fieldName) ? newName : fieldName;
+        }
+
+        /**
+         * Names of the fields renamed or removed by the operation.
+         * @return Name of the field, or {@code null} if the operation does not rename or remove a field.
+         */
+        String getRenamedName()
+        {
+            return value == null && transformation == null ? name : null;
+        }
+
+        /**
+         * Returns the new name of the field renamed by the operation.
+         * @return New name of the field, or {@code null} if the field is removed.
+         */
+        String getNewName()
+        {
+            return newName;
+        }
+
+        /**
+         * Applies the operation on an object.
+         * @param object Json object.
+         */
+        void apply(final @NonNull JsonObject object)
+        {
+            if (transformation != null)
+            {
+                transformation.accept(object);
+            }
+            else if (value != null)
+            {
+                if (!object.has(name))
+                {
+                    object.add(name, value.deepCopy());
+                }
+            }
+            else if (object.has(name))
+            {
+                var element = object.remove(name);
+                if (newName != null)
+                {
+                    object.add(newName, element);
+                }
+            }
+        }
+    }
+}
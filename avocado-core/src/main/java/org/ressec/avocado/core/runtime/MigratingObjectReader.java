@@ -0,0 +1,350 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.runtime;
+
+import com.google.gson.internal.JsonReaderInternalAccess;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import lombok.NonNull;
+import org.ressec.avocado.core.json.DetachedJsonReader;
+
+import java.io.IOException;
+
+/**
+ * A json reader applying a streamable {@link MigrationChain} on the fields of an object being read from
+ * another reader.
+ * <br><br>
+ * The reader is created inside the object. The names of its fields are migrated as they are read, and the
+ * removed fields are skipped, looking ahead for the next field kept by the chain. The nested values are
+ * forwarded as is.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class MigratingObjectReader extends DetachedJsonReader
+{
+    /**
+     * Underlying reader, positioned inside the object.
+     */
+    private final JsonReader in;
+
+    /**
+     * Migration chain.
+     */
+    private final MigrationChain chain;
+
+    /**
+     * Migrated name of the next field of the object, once looked ahead ({@code null} otherwise).
+     */
+    private String pendingName;
+
+    /**
+     * Depth in the object (1 for the fields of the object, 0 once the object has been ended).
+     */
+    private int depth = 1;
+
+    /**
+     * Whether a field name is expected at depth 1.
+     */
+    private boolean expectingName = true;
+
+    /**
+     * Creates a new migrating object reader.
+     * @param in Underlying reader, positioned inside the object.
+     * @param chain Migration chain.
+     * @throws IOException Thrown in case an error occurred while creating the reader.
+     */
+    MigratingObjectReader(final @NonNull JsonReader in, final @NonNull MigrationChain chain) throws IOException
+    {
+        this.in = in;
+        this.chain = chain;
+    }
+
+    @Override
+    public void beginArray() throws IOException
+    {
+        beforeValue(JsonToken.BEGIN_ARRAY);
+        in.beginArray();
+        depth++;
+    }
+
+    @Override
+    public void endArray() throws IOException
+    {
+        forwardPromotion();
+        in.endArray();
+        depth--;
+        afterValue();
+    }
+
+    @Override
+    public void beginObject() throws IOException
+    {
+        beforeValue(JsonToken.BEGIN_OBJECT);
+        in.beginObject();
+        depth++;
+    }
+
+    @Override
+    public void endObject() throws IOException
+    {
+        if (isAtName() && lookAhead())
+        {
+            throw new IllegalStateException("Expected END_OBJECT but was NAME at path " + getPath());
+        }
+
+        forwardPromotion();
+        in.endObject();
+        depth--;
+        afterValue();
+    }
+
+    @Override
+    public boolean hasNext() throws IOException
+    {
+        return isAtName() ? lookAhead() : in.hasNext();
+    }
+
+    @Override
+    public JsonToken peek() throws IOException
+    {
+        if (isAtName())
+        {
+            if (!lookAhead())
+            {
+                return JsonToken.END_OBJECT;
+            }
+
+            return isPromoted() ? JsonToken.STRING : JsonToken.NAME;
+        }
+
+        forwardPromotion();
+        return in.peek();
+    }
+
+    @Override
+    public String nextName() throws IOException
+    {
+        if (isAtName())
+        {
+            return takeName();
+        }
+
+        forwardPromotion();
+        return in.nextName();
+    }
+
+    @Override
+    public String nextString() throws IOException
+    {
+        if (isAtName() && isPromoted())
+        {
+            // The name of the field is read as a map key.
+            clearPromotion();
+            return takeName();
+        }
+
+        beforeValue(JsonToken.STRING);
+        String value = in.nextString();
+        afterValue();
+        return value;
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException
+    {
+        beforeValue(JsonToken.BOOLEAN);
+        boolean value = in.nextBoolean();
+        afterValue();
+        return value;
+    }
+
+    @Override
+    public void nextNull() throws IOException
+    {
+        beforeValue(JsonToken.NULL);
+        in.nextNull();
+        afterValue();
+    }
+
+    @Override
+    public double nextDouble() throws IOException
+    {
+        if (isAtName() && isPromoted())
+        {
+            return Double.parseDouble(nextString());
+        }
+
+        beforeValue(JsonToken.NUMBER);
+        double value = in.nextDouble();
+        afterValue();
+        return value;
+    }
+
+    @Override
+    public long nextLong() throws IOException
+    {
+        if (isAtName() && isPromoted())
+        {
+            return Long.parseLong(nextString());
+        }
+
+        beforeValue(JsonToken.NUMBER);
+        long value = in.nextLong();
+        afterValue();
+        return value;
+    }
+
+    @Override
+    public int nextInt() throws IOException
+    {
+        if (isAtName() && isPromoted())
+        {
+            return Integer.parseInt(nextString());
+        }
+
+        beforeValue(JsonToken.NUMBER);
+        int value = in.nextInt();
+        afterValue();
+        return value;
+    }
+
+    @Override
+    public void skipValue() throws IOException
+    {
+        if (isAtName())
+        {
+            if (isPromoted())
+            {
+                clearPromotion();
+            }
+
+            // Like the parent class, skipping a name only skips the name.
+            if (lookAhead())
+            {
+                takeName();
+            }
+            return;
+        }
+
+        forwardPromotion();
+        in.skipValue();
+        afterValue();
+    }
+
+    @Override
+    public String getPath()
+    {
+        return in.getPath();
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + " at path " + getPath();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        in.close();
+    }
+
+    /**
+     * Returns whether the reader is positioned before a field name of the object.
+     * @return True if a field name is expected.
+     */
+    private boolean isAtName()
+    {
+        return depth == 1 && expectingName;
+    }
+
+    /**
+     * Looks ahead for the next field of the object kept by the migration chain, skipping the removed ones.
+     * @return True if the object has a next field, false if the end of the object has been reached.
+     * @throws IOException Thrown in case an error occurred while reading the underlying reader.
+     */
+    private boolean lookAhead() throws IOException
+    {
+        while (pendingName == null)
+        {
+            if (!in.hasNext())
+            {
+                return false;
+            }
+
+            pendingName = chain.rename(in.nextName());
+            if (pendingName == null)
+            {
+                in.skipValue();
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the migrated name of the next field of the object.
+     * @return Migrated name.
+     * @throws IOException Thrown in case an error occurred while reading the underlying reader.
+     */
+    private String takeName() throws IOException
+    {
+        if (!lookAhead())
+        {
+            throw new IllegalStateException("Expected NAME but was END_OBJECT at path " + getPath());
+        }
+
+        String name = pendingName;
+        pendingName = null;
+        expectingName = false;
+        return name;
+    }
+
+    /**
+     * Checks a value can be read.
+     * @param expected Expected token, used in the error messages.
+     * @throws IOException Thrown in case an error occurred while forwarding a promotion.
+     */
+    private void beforeValue(final JsonToken expected) throws IOException
+    {
+        if (isAtName())
+        {
+            throw new IllegalStateException("Expected " + expected + " but was " + peek() + " at path " + getPath());
+        }
+
+        forwardPromotion();
+    }
+
+    /**
+     * Expects the next field name once a value of the object has been read.
+     */
+    private void afterValue()
+    {
+        if (depth == 1)
+        {
+            expectingName = true;
+        }
+    }
+
+    /**
+     * Forwards to the underlying reader the promotion of a name to a value made by Gson on this reader.
+     * @throws IOException Thrown in case an error occurred while promoting the name.
+     */
+    private void forwardPromotion() throws IOException
+    {
+        if (isPromoted())
+        {
+            clearPromotion();
+            JsonReaderInternalAccess.INSTANCE.promoteNameToValue(in);
+        }
+    }
+}
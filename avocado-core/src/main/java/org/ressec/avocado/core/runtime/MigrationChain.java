@@ -0,0 +1,154 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.runtime;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The composition of the migration steps bringing a polymorphic object from a version to the current one.
+ * <br><br>
+ * When none of the steps transforms the object as a json tree, the renamed, removed and added fields of all
+ * the steps are composed once, so the chain can be applied while the object is streamed: each field name is
+ * migrated with a single lookup, and the added fields are replayed before the fields of the object.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class MigrationChain
+{
+    /**
+     * Operations of all the steps, in application order.
+     */
+    private final List<JsonMigration.Operation> operations = new ArrayList<>();
+
+    /**
+     * Whether the chain can be applied while the object is streamed.
+     */
+    private final boolean streamable;
+
+    /**
+     * Migrated names of the fields renamed or removed by the chain (a {@code null} name for a removed field).
+     */
+    private final Map<String, String> renames = new HashMap<>();
+
+    /**
+     * Fields added by the chain, with their migrated name.
+     */
+    private final Map<String, JsonPrimitive> addedFields = new LinkedHashMap<>();
+
+    /**
+     * Unmodifiable view of the added fields.
+     */
+    private final Map<String, JsonPrimitive> addedFieldsView = Collections.unmodifiableMap(addedFields);
+
+    /**
+     * Creates a new migration chain.
+     * @param steps Migration steps, in application order.
+     */
+    MigrationChain(final @NonNull List<JsonMigration> steps)
+    {
+        steps.forEach(step -> operations.addAll(step.getOperations()));
+        streamable = operations.stream().noneMatch(JsonMigration.Operation::isTransformation);
+        if (!streamable)
+        {
+            return;
+        }
+
+        // A field is only affected by the chain if its name is renamed or removed by one of the operations.
+        for (var operation : operations)
+        {
+            var name = operation.getRenamedName();
+            if (name != null)
+            {
+                renames.put(name, migrate(name, 0));
+            }
+        }
+
+        for (int i = 0; i < operations.size(); i++)
+        {
+            var value = operations.get(i).getAddedValue();
+            if (value != null)
+            {
+                // An added field is only added if absent, so an earlier addition takes precedence.
+                var name = migrate(operations.get(i).getAddedName(), i + 1);
+                if (name != null)
+                {
+                    addedFields.putIfAbsent(name, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether the chain can be applied while the object is streamed.
+     * @return True if the chain can be applied while streaming, false if the object must be buffered as a tree.
+     */
+    boolean isStreamable()
+    {
+        return streamable;
+    }
+
+    /**
+     * Returns the migrated name of a field (streamable chains only).
+     * @param name Name of the field.
+     * @return Migrated name of the field, or {@code null} if the field is removed.
+     */
+    String rename(final @NonNull String name)
+    {
+        return renames.containsKey(name) ? renames.get(name) : name;
+    }
+
+    /**
+     * Returns the fields added by the chain (streamable chains only).
+     * @return Unmodifiable map of the added fields, indexed by their migrated name.
+     */
+    Map<String, JsonPrimitive> getAddedFields()
+    {
+        return addedFieldsView;
+    }
+
+    /**
+     * Applies the chain on an object buffered as a json tree.
+     * @param object Json object.
+     */
+    void apply(final @NonNull JsonObject object)
+    {
+        for (var operation : operations)
+        {
+            operation.apply(object);
+        }
+    }
+
+    /**
+     * Migrates the name of a field through the operations.
+     * @param name Name of the field.
+     * @param start Index of the first operation to apply.
+     * @return Migrated name of the field, or {@code null} if the field is removed.
+     */
+    private String migrate(String name, final int start)
+    {
+        for (int i = start; i < operations.size() && name != null; i++)
+        {
+            name = operations.get(i).rename(name);
+        }
+
+        return name;
+    }
+}
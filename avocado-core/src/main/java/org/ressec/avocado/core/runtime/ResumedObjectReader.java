@@ -0,0 +1,343 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.runtime;
+
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.JsonReaderInternalAccess;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import lombok.NonNull;
+import org.ressec.avocado.core.json.DetachedJsonReader;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A json reader resuming an object whose beginning has already been consumed from another reader to read its
+ * type discriminator.
+ * <br><br>
+ * The opening of the object and some primitive members (the discriminator when it is maintained by the
+ * objects, the fields added by a migration, etc.) are replayed, then all the reads are forwarded to the
+ * underlying reader. This lets a polymorphic type adapter stream the object into the
+ * adapter of its subtype instead of buffering it as a tree.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class ResumedObjectReader extends DetachedJsonReader
+{
+    /**
+     * State replaying the opening of the object.
+     */
+    private static final int REPLAY_BEGIN = 0;
+
+    /**
+     * State replaying the name of a member.
+     */
+    private static final int REPLAY_NAME = 1;
+
+    /**
+     * State replaying the value of a member.
+     */
+    private static final int REPLAY_VALUE = 2;
+
+    /**
+     * State forwarding the reads to the underlying reader.
+     */
+    private static final int FORWARD = 3;
+
+    /**
+     * Underlying reader, positioned after the consumed discriminator.
+     */
+    private final JsonReader in;
+
+    /**
+     * Members to replay.
+     */
+    private final Iterator<Map.Entry<String, JsonPrimitive>> members;
+
+    /**
+     * Member being replayed.
+     */
+    private Map.Entry<String, JsonPrimitive> member;
+
+    /**
+     * Replay state.
+     */
+    private int state = REPLAY_BEGIN;
+
+    /**
+     * Creates a new resumed object reader.
+     * @param in Underlying reader, positioned after the consumed discriminator.
+     * @param members Members to replay, in order.
+     * @throws IOException Thrown in case an error occurred while creating the reader.
+     */
+    ResumedObjectReader(final @NonNull JsonReader in, final @NonNull Map<String, JsonPrimitive> members) throws IOException
+    {
+        this.in = in;
+        this.members = members.entrySet().iterator();
+    }
+
+    @Override
+    public void beginArray() throws IOException
+    {
+        forward(JsonToken.BEGIN_ARRAY);
+        in.beginArray();
+    }
+
+    @Override
+    public void endArray() throws IOException
+    {
+        forward(JsonToken.END_ARRAY);
+        in.endArray();
+    }
+
+    @Override
+    public void beginObject() throws IOException
+    {
+        if (state == REPLAY_BEGIN)
+        {
+            nextMember();
+            return;
+        }
+
+        forward(JsonToken.BEGIN_OBJECT);
+        in.beginObject();
+    }
+
+    @Override
+    public void endObject() throws IOException
+    {
+        forward(JsonToken.END_OBJECT);
+        in.endObject();
+    }
+
+    @Override
+    public boolean hasNext() throws IOException
+    {
+        return state != FORWARD || in.hasNext();
+    }
+
+    @Override
+    public JsonToken peek() throws IOException
+    {
+        switch (state)
+        {
+            case REPLAY_BEGIN:
+                return JsonToken.BEGIN_OBJECT;
+
+            case REPLAY_NAME:
+                return isPromoted() ? JsonToken.STRING : JsonToken.NAME;
+
+            case REPLAY_VALUE:
+                return tokenOf(member.getValue());
+
+            default:
+                forwardPromotion();
+                return in.peek();
+        }
+    }
+
+    @Override
+    public String nextName() throws IOException
+    {
+        if (state == REPLAY_NAME)
+        {
+            state = REPLAY_VALUE;
+            return member.getKey();
+        }
+
+        forward(JsonToken.NAME);
+        return in.nextName();
+    }
+
+    @Override
+    public String nextString() throws IOException
+    {
+        if (state == REPLAY_NAME && isPromoted())
+        {
+            // The name of the member is read as a map key.
+            clearPromotion();
+            return nextName();
+        }
+
+        if (state == REPLAY_VALUE)
+        {
+            String value = member.getValue().getAsString();
+            nextMember();
+            return value;
+        }
+
+        forward(JsonToken.STRING);
+        return in.nextString();
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException
+    {
+        if (state == REPLAY_VALUE)
+        {
+            return Boolean.parseBoolean(nextString());
+        }
+
+        forward(JsonToken.BOOLEAN);
+        return in.nextBoolean();
+    }
+
+    @Override
+    public void nextNull() throws IOException
+    {
+        forward(JsonToken.NULL);
+        in.nextNull();
+    }
+
+    @Override
+    public double nextDouble() throws IOException
+    {
+        return state == REPLAY_VALUE || state == REPLAY_NAME ? Double.parseDouble(nextString()) : forwardNumber().nextDouble();
+    }
+
+    @Override
+    public long nextLong() throws IOException
+    {
+        return state == REPLAY_VALUE || state == REPLAY_NAME ? Long.parseLong(nextString()) : forwardNumber().nextLong();
+    }
+
+    @Override
+    public int nextInt() throws IOException
+    {
+        return state == REPLAY_VALUE || state == REPLAY_NAME ? Integer.parseInt(nextString()) : forwardNumber().nextInt();
+    }
+
+    @Override
+    public void skipValue() throws IOException
+    {
+        switch (state)
+        {
+            case REPLAY_BEGIN:
+                // Skips the remaining members of the object.
+                state = FORWARD;
+                while (in.hasNext())
+                {
+                    in.skipValue();
+                }
+                in.endObject();
+                break;
+
+            case REPLAY_NAME:
+                if (isPromoted())
+                {
+                    clearPromotion();
+                }
+                state = REPLAY_VALUE;
+                break;
+
+            case REPLAY_VALUE:
+                nextMember();
+                break;
+
+            default:
+                forwardPromotion();
+                in.skipValue();
+                break;
+        }
+    }
+
+    @Override
+    public String getPath()
+    {
+        return in.getPath();
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + " at path " + getPath();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        in.close();
+    }
+
+    /**
+     * Moves to the next member to replay, or starts forwarding the reads once all the members are replayed.
+     */
+    private void nextMember()
+    {
+        if (members.hasNext())
+        {
+            member = members.next();
+            state = REPLAY_NAME;
+        }
+        else
+        {
+            member = null;
+            state = FORWARD;
+        }
+    }
+
+    /**
+     * Returns the token of a replayed value.
+     * @param value Value.
+     * @return Token.
+     */
+    private static JsonToken tokenOf(final JsonPrimitive value)
+    {
+        if (value.isBoolean())
+        {
+            return JsonToken.BOOLEAN;
+        }
+
+        return value.isNumber() ? JsonToken.NUMBER : JsonToken.STRING;
+    }
+
+    /**
+     * Checks the reads can be forwarded to the underlying reader.
+     * @param expected Expected token, used in the error messages.
+     * @throws IOException Thrown in case an error occurred while forwarding a promotion.
+     */
+    private void forward(final JsonToken expected) throws IOException
+    {
+        if (state != FORWARD)
+        {
+            throw new IllegalStateException("Expected " + expected + " but was " + peek() + " at path " + getPath());
+        }
+
+        forwardPromotion();
+    }
+
+    /**
+     * Checks a number can be read from the underlying reader.
+     * @return Underlying reader.
+     * @throws IOException Thrown in case an error occurred while forwarding a promotion.
+     */
+    private JsonReader forwardNumber() throws IOException
+    {
+        forward(JsonToken.NUMBER);
+        return in;
+    }
+
+    /**
+     * Forwards to the underlying reader the promotion of a name to a value made by Gson on this reader.
+     * @throws IOException Thrown in case an error occurred while promoting the name.
+     */
+    private void forwardPromotion() throws IOException
+    {
+        if (isPromoted())
+        {
+            clearPromotion();
+            JsonReaderInternalAccess.INSTANCE.promoteNameToValue(in);
+        }
+    }
+}
@@ -21,11 +21,23 @@ import com.google.gson.*;
 import com.google.gson.internal.Streams;
 import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
+import org.ressec.avocado.core.annotation.JsonSubtype;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Adapts values whose runtime type may differ from their declaration type. This
@@ -115,6 +127,11 @@ import java.util.Map;
  *       .registerSubtype(Circle.class)
  *       .registerSubtype(Diamond.class);
  * }</pre>
+ * Subtypes annotated with {@link JsonSubtype} can also be registered all at once, from an index generated at
+ * compile time: <pre>   {@code
+ *   RuntimeTypeAdapterFactory<Shape> shapeAdapterFactory = RuntimeTypeAdapterFactory.of(Shape.class)
+ *       .registerIndexedSubtypes();
+ * }</pre>
  *
  * <h3>Serialization and deserialization</h3>
  * In order to serialize and deserialize a polymorphic object,
@@ -127,13 +144,60 @@ import java.util.Map;
  * <pre>   {@code
  *   Shape shape = gson.fromJson(json, Shape.class);
  * }</pre>
+ *
+ * <h3>Compact type ids</h3>
+ * In high volume streams, the type label repeated on every object can be replaced by a small integer id
+ * declared at registration. Objects of such subtypes are written with their id as the type field value,
+ * and ids are resolved through an array on read. The label of a subtype registered with an id is still
+ * accepted on read, so that payloads written before the ids were introduced remain readable.
+ * <pre>   {@code
+ *   RuntimeTypeAdapterFactory<Shape> shapeAdapterFactory = RuntimeTypeAdapterFactory.of(Shape.class)
+ *       .registerSubtype(Rectangle.class, 0)
+ *       .registerSubtype(Circle.class, 1)
+ *       .registerSubtype(Diamond.class, 2);
+ * }</pre>
+ * which writes the top shape of the drawing as: <pre>   {@code
+ *   {"type":1,"radius":2,"x":4,"y":1}
+ * }</pre>
+ *
+ * <h3>Versioning</h3>
+ * Persisted objects can outlive the classes they have been written from. Once
+ * versioned, the objects are written with their version right after their type,
+ * and the objects of former versions are migrated while being read by the steps
+ * registered for their subtype. Objects whose version does not follow their type
+ * are buffered to find it. A renamed label can be kept as an alias.
+ * <pre>   {@code
+ *   RuntimeTypeAdapterFactory<Shape> shapeAdapterFactory = RuntimeTypeAdapterFactory.of(Shape.class)
+ *       .registerSubtype(Circle.class)
+ *       .registerLabelAlias(Circle.class, "Round")
+ *       .registerVersion("version", 1)
+ *       .registerMigration(Circle.class, 0, JsonMigration.builder()
+ *           .renameField("r", "radius")
+ *           .build());
+ * }</pre>
+ *
+ * Subtypes can be registered at any time and from any thread, including after
+ * the creation of the {@code Gson} instance: the adapters created by the factory
+ * pick up the new subtypes on their next read or write.
+ *
+ * An object whose class is not registered, such as a proxy or an anonymous
+ * subclass, is written as the nearest registered type among its superclasses
+ * and interfaces. The resolved type is cached per concrete class.
+ *
+ * Objects are written in a single pass, the type field being written as their first member. When the type
+ * field is the first member of the object, as written by this factory, the object is streamed into the
+ * adapter of its subtype. Otherwise, it is buffered as a json tree until the type field is found.
  */
 public final class RuntimeTypeAdapterFactory<T> implements TypeAdapterFactory
 {
+    /**
+     * Greatest type id that can be registered, ids being used as indexes in an array of adapters.
+     */
+    public static final int MAX_ID = 0xFFFF;
+
     private final Class<?> baseType;
     private final String typeFieldName;
-    private final Map<String, Class<?>> labelToSubtype = new LinkedHashMap<>();
-    private final Map<Class<?>, String> subtypeToLabel = new LinkedHashMap<>();
+    private final AtomicReference<SubtypeRegistry> registry = new AtomicReference<>(SubtypeRegistry.EMPTY);
     private final boolean maintainType;
 
     private RuntimeTypeAdapterFactory(Class<?> baseType, String typeFieldName, boolean maintainType)
@@ -203,17 +267,54 @@ public final class RuntimeTypeAdapterFactory<T> implements TypeAdapterFactory
             throw new NullPointerException();
         }
 
-        if (subtypeToLabel.containsKey(type) || labelToSubtype.containsKey(label))
+        registry.updateAndGet(current -> current.with(type, label, -1));
+
+        return this;
+    }
+
+    /**
+     * Registers {@code type} identified by {@code label} and written with the
+     * compact type id {@code id}. Both the label and the id are accepted on read.
+     * @param type Type class.
+     * @param label Label.
+     * @param id Type id (between 0 and {@link #MAX_ID}).
+     * @return Runtime type adapter factory.
+     * @throws IllegalArgumentException if either {@code type}, {@code label} or
+     *     {@code id} have already been registered on this type adapter, or if
+     *     {@code id} is out of range.
+     */
+    public RuntimeTypeAdapterFactory<T> registerSubtype(Class<?/* extends T*/> type, String label, int id)
+    {
+        if (id < 0 || id > MAX_ID)
         {
-            throw new IllegalArgumentException("types and labels must be unique");
+            throw new IllegalArgumentException(String.format("Type id must be between 0 and %d: '%d'", MAX_ID, id));
         }
 
-        labelToSubtype.put(label, type);
-        subtypeToLabel.put(type, label);
+        if (type == null || label == null)
+        {
+            throw new NullPointerException();
+        }
+
+        registry.updateAndGet(current -> current.with(type, label, id));
 
         return this;
     }
 
+    /**
+     * Registers {@code type} identified by its {@link Class#getSimpleName simple
+     * name} and written with the compact type id {@code id}.
+     * @param type Type class.
+     * @param id Type id (between 0 and {@link #MAX_ID}).
+     * @return Runtime type adapter factory.
+     * @throws IllegalArgumentException if either {@code type}, its simple name or
+     *     {@code id} have already been registered on this type adapter, or if
+     *     {@code id} is out of range.
+     */
+    public RuntimeTypeAdapterFactory<T> registerSubtype(Class<? extends T> type, int id)
+    {
+        return registerSubtype(type, type.getSimpleName(), id);
+    }
+
     /**
      * Registers {@code type} identified by its {@link Class#getSimpleName simple
      * name}. Labels are case sensitive.
@@ -227,6 +328,136 @@ public final class RuntimeTypeAdapterFactory<T> implements TypeAdapterFactory
         return registerSubtype(type, type.getSimpleName());
     }
 
+    /**
+     * Registers the subtypes of the base type annotated with {@link JsonSubtype}, as recorded at compile time
+     * in the subtype index (see {@link SubtypeIndex}). When the index does not contain any subtype of the base
+     * type, the package of the base type is scanned at runtime. Subtypes already registered are left as is.
+     * @return Runtime type adapter factory.
+     * @throws IllegalArgumentException if the label of an indexed subtype has already been registered on this
+     *     type adapter.
+     */
+    public RuntimeTypeAdapterFactory<T> registerIndexedSubtypes()
+    {
+        Map<Class<?>, String> subtypes = SubtypeIndex.find(baseType);
+
+        return registerSubtypes(subtypes.isEmpty() ? SubtypeIndex.scan(baseType) : subtypes);
+    }
+
+    /**
+     * Registers the subtypes of the base type annotated with {@link JsonSubtype} found by scanning packages of
+     * the class path at runtime. Subtypes already registered are left as is.
+     * @param packages Packages to scan (the package of the base type when none is given).
+     * @return Runtime type adapter factory.
+     * @throws IllegalArgumentException if the label of a scanned subtype has already been registered on this
+     *     type adapter.
+     */
+    public RuntimeTypeAdapterFactory<T> registerScannedSubtypes(String... packages)
+    {
+        return registerSubtypes(SubtypeIndex.scan(baseType, packages));
+    }
+
+    /**
+     * Registers {@code alias} as a former label of {@code type}, still accepted on
+     * read after the label of the type has been renamed.
+     * @param type Type class, already registered.
+     * @param alias Former label.
+     * @return Runtime type adapter factory.
+     * @throws IllegalArgumentException if {@code type} is not registered or if
+     *     {@code alias} has already been registered on this type adapter.
+     */
+    public RuntimeTypeAdapterFactory<T> registerLabelAlias(Class<?/* extends T*/> type, String alias)
+    {
+        if (type == null || alias == null)
+        {
+            throw new NullPointerException();
+        }
+
+        registry.updateAndGet(current -> current.withAlias(type, alias));
+
+        return this;
+    }
+
+    /**
+     * Versions the serialized objects: {@code version} is written in the {@code
+     * versionFieldName} field, right after the type field, and the objects of
+     * former versions are migrated on read by the registered migration steps.
+     * Objects without a version field are considered as being of version 0.
+     * @param versionFieldName Name of the version field.
+     * @param version Current version of the objects.
+     * @return Runtime type adapter factory.
+     * @throws IllegalArgumentException if {@code version} is negative or if
+     *     {@code versionFieldName} is the name of the type field.
+     */
+    public RuntimeTypeAdapterFactory<T> registerVersion(String versionFieldName, int version)
+    {
+        if (versionFieldName == null)
+        {
+            throw new NullPointerException();
+        }
+
+        if (version < 0 || versionFieldName.equals(typeFieldName))
+        {
+            throw new IllegalArgumentException(String.format("Invalid version field: '%s', version: '%d'", versionFieldName, version));
+        }
+
+        registry.updateAndGet(current -> current.withVersion(versionFieldName, version));
+
+        return this;
+    }
+
+    /**
+     * Registers the step migrating the objects of {@code type} from version {@code
+     * fromVersion} to the next version. The steps from the version of an object
+     * to the current version are composed once and applied while the object is
+     * read.
+     * @param type Type class.
+     * @param fromVersion Version migrated by the step.
+     * @param migration Migration step.
+     * @return Runtime type adapter factory.
+     * @throws IllegalArgumentException if a step has already been registered for
+     *     {@code type} and {@code fromVersion}, or if {@code fromVersion} is negative.
+     */
+    public RuntimeTypeAdapterFactory<T> registerMigration(Class<?/* extends T*/> type, int fromVersion, JsonMigration migration)
+    {
+        if (type == null || migration == null)
+        {
+            throw new NullPointerException();
+        }
+
+        if (fromVersion < 0)
+        {
+            throw new IllegalArgumentException(String.format("Invalid migration version: '%d'", fromVersion));
+        }
+
+        registry.updateAndGet(current -> current.withMigration(type, fromVersion, migration));
+
+        return this;
+    }
+
+    /**
+     * Registers subtypes not already registered.
+     * @param subtypes Subtypes and their label.
+     * @return Runtime type adapter factory.
+     */
+    private RuntimeTypeAdapterFactory<T> registerSubtypes(Map<Class<?>, String> subtypes)
+    {
+        registry.updateAndGet(current ->
+        {
+            SubtypeRegistry next = current;
+            for (Map.Entry<Class<?>, String> entry : subtypes.entrySet())
+            {
+                if (!next.contains(entry.getKey()))
+                {
+                    next = next.with(entry.getKey(), entry.getValue(), -1);
+                }
+            }
+
+            return next;
+        });
+
+        return this;
+    }
+
     /**
      * Returns the type adapter.
      * @param gson Gson element.
@@ -241,86 +472,516 @@ public final class RuntimeTypeAdapterFactory<T> implements TypeAdapterFactory
             return null;
         }
 
-        final Map<String, TypeAdapter<?>> labelToDelegate
-                = new LinkedHashMap<>();
-        final Map<Class<?>, TypeAdapter<?>> subtypeToDelegate
-                = new LinkedHashMap<>();
-        for (Map.Entry<String, Class<?>> entry : labelToSubtype.entrySet())
-        {
-            TypeAdapter<?> delegate = gson.getDelegateAdapter(this, TypeToken.get(entry.getValue()));
-            labelToDelegate.put(entry.getKey(), delegate);
-            subtypeToDelegate.put(entry.getValue(), delegate);
-        }
-
         return new TypeAdapter<R>()
         {
-            @Override public R read(JsonReader in)
+            /**
+             * Adapters of the subtypes, built from the last registry seen by this adapter.
+             */
+            private volatile Delegates delegates = new Delegates(gson, registry.get(), null);
+
+            @Override public R read(JsonReader in) throws IOException
             {
-                JsonElement jsonElement = Streams.parse(in);
-                JsonElement labelJsonElement;
-                if (maintainType)
+                Delegates current = getDelegates();
+                if (in.peek() != JsonToken.BEGIN_OBJECT)
                 {
-                    labelJsonElement = jsonElement.getAsJsonObject().get(typeFieldName);
+                    return readTree(current, Streams.parse(in));
+                }
+
+                in.beginObject();
+                if (!in.hasNext())
+                {
+                    in.endObject();
+                    throw missingTypeField();
+                }
+
+                String name = in.nextName();
+                JsonToken token = in.peek();
+                if (!typeFieldName.equals(name) || (token != JsonToken.STRING && token != JsonToken.NUMBER))
+                {
+                    // The discriminator is not the first member, the object is buffered to look for it.
+                    JsonObject jsonObject = new JsonObject();
+                    jsonObject.add(name, Streams.parse(in));
+                    while (in.hasNext())
+                    {
+                        jsonObject.add(in.nextName(), Streams.parse(in));
+                    }
+                    in.endObject();
+
+                    return readTree(current, jsonObject);
+                }
+
+                // Fast path: the object is streamed into the adapter of its subtype.
+                JsonPrimitive discriminator;
+                Binding binding;
+                if (token == JsonToken.NUMBER && current.idToBinding.length > 0)
+                {
+                    int id;
+                    try
+                    {
+                        id = in.nextInt();
+                    }
+                    catch (NumberFormatException e)
+                    {
+                        throw invalidId(e);
+                    }
+                    discriminator = maintainType ? new JsonPrimitive(id) : null;
+                    binding = getBinding(current, id);
                 }
                 else
                 {
-                    labelJsonElement = jsonElement.getAsJsonObject().remove(typeFieldName);
+                    String label = in.nextString();
+                    discriminator = maintainType ? new JsonPrimitive(label) : null;
+                    binding = getBinding(current, label);
+                }
+
+                // The version field, if any, is expected right after the type field.
+                String versionFieldName = current.registry.getVersionFieldName();
+                int version = current.registry.getVersion();
+                if (versionFieldName != null)
+                {
+                    version = 0;
+                    if (in.hasNext())
+                    {
+                        String member = in.nextName();
+                        JsonToken versionToken = in.peek();
+                        if (!versionFieldName.equals(member) || (versionToken != JsonToken.NUMBER && versionToken != JsonToken.STRING))
+                        {
+                            // The version field is not the next member, the object is buffered to look for it.
+                            JsonObject jsonObject = new JsonObject();
+                            jsonObject.add(typeFieldName, discriminator != null ? discriminator : new JsonPrimitive(binding.label));
+                            jsonObject.add(member, Streams.parse(in));
+                            while (in.hasNext())
+                            {
+                                jsonObject.add(in.nextName(), Streams.parse(in));
+                            }
+                            in.endObject();
+
+                            return readTree(current, jsonObject);
+                        }
+
+                        version = readVersion(in.nextString());
+                    }
+                }
+
+                MigrationChain chain = binding.getChain(version, current.registry.getVersion());
+                if (chain != null && !chain.isStreamable())
+                {
+                    // The chain transforms the object as a tree, the remaining of the object is buffered.
+                    JsonObject jsonObject = new JsonObject();
+                    jsonObject.add(typeFieldName, discriminator != null ? discriminator : new JsonPrimitive(binding.label));
+                    jsonObject.addProperty(versionFieldName, version);
+                    while (in.hasNext())
+                    {
+                        jsonObject.add(in.nextName(), Streams.parse(in));
+                    }
+                    in.endObject();
+
+                    return readTree(current, jsonObject);
+                }
+
+                @SuppressWarnings("unchecked") // registration requires that subtype extends T
+                TypeAdapter<R> delegate = (TypeAdapter<R>) binding.delegate;
+                JsonReader reader = chain != null ? new MigratingObjectReader(in, chain) : in;
+                Map<String, JsonPrimitive> replayed = chain != null ? chain.getAddedFields() : Collections.emptyMap();
+                if (maintainType)
+                {
+                    replayed = new LinkedHashMap<>(replayed);
+                    replayed.put(typeFieldName, discriminator);
+                    if (versionFieldName != null)
+                    {
+                        replayed.put(versionFieldName, new JsonPrimitive(current.registry.getVersion()));
+                    }
                 }
 
+                return delegate.read(new ResumedObjectReader(reader, replayed));
+            }
+
+            /**
+             * Returns the adapters of the subtypes, rebuilding them if subtypes have been registered since they
+             * have been built.
+             * @return Adapters of the subtypes.
+             */
+            private Delegates getDelegates()
+            {
+                Delegates current = delegates;
+                SubtypeRegistry latest = registry.get();
+                if (current.registry != latest)
+                {
+                    // Concurrent rebuilds are harmless, each of them being built from a consistent registry.
+                    current = new Delegates(gson, latest, current);
+                    delegates = current;
+                }
+
+                return current;
+            }
+
+            /**
+             * Reads an object buffered as a json tree.
+             * @param current Adapters of the subtypes.
+             * @param jsonElement Json tree.
+             * @return Object.
+             */
+            private R readTree(Delegates current, JsonElement jsonElement)
+            {
+                JsonObject jsonObject = jsonElement.getAsJsonObject();
+                JsonElement labelJsonElement = maintainType ? jsonObject.get(typeFieldName) : jsonObject.remove(typeFieldName);
                 if (labelJsonElement == null)
                 {
-                    throw new JsonParseException("cannot deserialize " + baseType
-                            + " because it does not define a field named " + typeFieldName);
+                    throw missingTypeField();
+                }
+
+                Binding binding;
+                if (current.idToBinding.length > 0 && labelJsonElement.isJsonPrimitive()
+                        && labelJsonElement.getAsJsonPrimitive().isNumber())
+                {
+                    try
+                    {
+                        binding = getBinding(current, Integer.parseInt(labelJsonElement.getAsString()));
+                    }
+                    catch (NumberFormatException e)
+                    {
+                        throw invalidId(e);
+                    }
+                }
+                else
+                {
+                    binding = getBinding(current, labelJsonElement.getAsString());
+                }
+
+                String versionFieldName = current.registry.getVersionFieldName();
+                if (versionFieldName != null)
+                {
+                    JsonElement versionJsonElement = maintainType ? jsonObject.get(versionFieldName) : jsonObject.remove(versionFieldName);
+                    MigrationChain chain = binding.getChain(versionJsonElement != null ? readVersion(versionJsonElement.getAsString()) : 0,
+                            current.registry.getVersion());
+                    if (chain != null)
+                    {
+                        chain.apply(jsonObject);
+                        if (maintainType)
+                        {
+                            jsonObject.addProperty(versionFieldName, current.registry.getVersion());
+                        }
+                    }
                 }
 
-                String label = labelJsonElement.getAsString();
                 @SuppressWarnings("unchecked") // registration requires that subtype extends T
-                TypeAdapter<R> delegate = (TypeAdapter<R>) labelToDelegate.get(label);
-                if (delegate == null)
+                TypeAdapter<R> delegate = (TypeAdapter<R>) binding.delegate;
+
+                return delegate.fromJsonTree(jsonObject);
+            }
+
+            /**
+             * Returns the binding of the subtype identified by a type id.
+             * @param current Adapters of the subtypes.
+             * @param id Type id.
+             * @return Binding.
+             */
+            private Binding getBinding(Delegates current, int id)
+            {
+                Binding binding = id >= 0 && id < current.idToBinding.length ? current.idToBinding[id] : null;
+                if (binding == null)
+                {
+                    throw new JsonParseException("cannot deserialize " + baseType + " subtype with id "
+                            + id + "; did you forget to register a subtype?");
+                }
+
+                return binding;
+            }
+
+            /**
+             * Returns the binding of the subtype identified by a label.
+             * @param current Adapters of the subtypes.
+             * @param label Label.
+             * @return Binding.
+             */
+            private Binding getBinding(Delegates current, String label)
+            {
+                Binding binding = current.labelToBinding.get(label);
+                if (binding == null)
                 {
                     throw new JsonParseException("cannot deserialize " + baseType + " subtype named "
                             + label + "; did you forget to register a subtype?");
                 }
 
-                return delegate.fromJsonTree(jsonElement);
+                return binding;
+            }
+
+            /**
+             * Parses the version of an object.
+             * @param text Version.
+             * @return Version.
+             */
+            private int readVersion(String text)
+            {
+                try
+                {
+                    return Integer.parseInt(text);
+                }
+                catch (NumberFormatException e)
+                {
+                    throw new JsonParseException("cannot deserialize " + baseType + " because its field named "
+                            + registry.get().getVersionFieldName() + " is not a valid version", e);
+                }
+            }
+
+            /**
+             * Creates the exception thrown when a numeric type field is not a valid type id.
+             * @param cause Parsing error.
+             * @return Exception.
+             */
+            private JsonParseException invalidId(NumberFormatException cause)
+            {
+                return new JsonParseException("cannot deserialize " + baseType
+                        + " because its field named " + typeFieldName + " is not a valid type id", cause);
+            }
+
+            /**
+             * Creates the exception thrown when an object does not define the type field.
+             * @return Exception.
+             */
+            private JsonParseException missingTypeField()
+            {
+                return new JsonParseException("cannot deserialize " + baseType
+                        + " because it does not define a field named " + typeFieldName);
             }
 
             @Override public void write(JsonWriter out, R value) throws IOException
             {
+                Delegates current = getDelegates();
                 Class<?> srcType = value.getClass();
-                String label = subtypeToLabel.get(srcType);
+                Binding binding = current.getBinding(srcType);
 
                 @SuppressWarnings("unchecked") // registration requires that subtype extends T
-                TypeAdapter<R> delegate = (TypeAdapter<R>) subtypeToDelegate.get(srcType);
+                TypeAdapter<R> delegate = (TypeAdapter<R>) binding.delegate;
                 if (delegate == null)
                 {
                     throw new JsonParseException("cannot serialize " + srcType.getName()
                             + "; did you forget to register a subtype?");
                 }
 
-                JsonObject jsonObject = delegate.toJsonTree(value).getAsJsonObject();
-
                 if (maintainType)
                 {
-                    Streams.write(jsonObject, out);
+                    delegate.write(out, value);
                     return;
                 }
 
-                JsonObject clone = new JsonObject();
-
-                if (jsonObject.has(typeFieldName))
+                TypedObjectWriter writer = new TypedObjectWriter(out, typeFieldName, binding.label, binding.id,
+                        current.registry.getVersionFieldName(), current.registry.getVersion(), srcType);
+                delegate.write(writer, value);
+                if (!writer.isComplete())
                 {
                     throw new JsonParseException("cannot serialize " + srcType.getName()
-                            + " because it already defines a field named " + typeFieldName);
+                            + " because it is not serialized as a json object");
+                }
+            }
+        }.nullSafe();
+    }
+
+    /**
+     * Finds the registered subtype nearest to a class, walking its superclasses and interfaces breadth first.
+     * At a same distance, the superclass is preferred to the interfaces, which are visited in declaration order.
+     * @param type Class.
+     * @param subtypes Registered subtypes.
+     * @return Nearest registered subtype, or {@code null} if the class does not extend any registered subtype.
+     */
+    private static Class<?> findNearestSubtype(Class<?> type, Set<Class<?>> subtypes)
+    {
+        Deque<Class<?>> candidates = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        candidates.add(type);
+        while (!candidates.isEmpty())
+        {
+            Class<?> candidate = candidates.poll();
+            if (!visited.add(candidate))
+            {
+                continue;
+            }
+
+            if (subtypes.contains(candidate))
+            {
+                return candidate;
+            }
+
+            if (candidate.getSuperclass() != null)
+            {
+                candidates.add(candidate.getSuperclass());
+            }
+            Collections.addAll(candidates, candidate.getInterfaces());
+        }
+
+        return null;
+    }
+
+    /**
+     * Adapters of the registered subtypes for a {@code Gson} instance, built from a registry snapshot.
+     */
+    private final class Delegates
+    {
+        /**
+         * Registry the adapters have been built from.
+         */
+        private final SubtypeRegistry registry;
+
+        /**
+         * Bindings indexed by the label (or former label) of their subtype.
+         */
+        private final Map<String, Binding> labelToBinding = new HashMap<>();
+
+        /**
+         * Bindings indexed by the type id of their subtype.
+         */
+        private final Binding[] idToBinding;
+
+        /**
+         * Bindings of the registered subtypes.
+         */
+        private final Map<Class<?>, Binding> subtypeToBinding = new HashMap<>();
+
+        /**
+         * Bindings of the concrete classes, resolving once per class the nearest registered type so writing
+         * stays a single lookup. The cache lives with this snapshot (unlike a {@link ClassValue}, whose values
+         * are retained by the classes themselves), so replaced adapters can be reclaimed.
+         */
+        private final Map<Class<?>, Binding> bindings = new ConcurrentHashMap<>();
+
+        /**
+         * Creates the adapters of the registered subtypes.
+         * @param gson Gson instance.
+         * @param registry Registry of the subtypes.
+         * @param previous Adapters built from a previous registry, reused for the subtypes still registered
+         *     ({@code null} if none).
+         */
+        private Delegates(Gson gson, SubtypeRegistry registry, Delegates previous)
+        {
+            this.registry = registry;
+            this.idToBinding = new Binding[registry.getMaxId() + 1];
+            for (Map.Entry<String, Class<?>> entry : registry.getSubtypes().entrySet())
+            {
+                Binding reused = previous != null ? previous.subtypeToBinding.get(entry.getValue()) : null;
+                TypeAdapter<?> delegate = reused != null
+                        ? reused.delegate
+                        : gson.getDelegateAdapter(RuntimeTypeAdapterFactory.this, TypeToken.get(entry.getValue()));
+
+                int id = registry.getId(entry.getValue());
+                Binding binding = new Binding(delegate, entry.getKey(), id, getChains(registry, entry.getValue()));
+                labelToBinding.put(entry.getKey(), binding);
+                if (id >= 0)
+                {
+                    idToBinding[id] = binding;
                 }
-                clone.add(typeFieldName, new JsonPrimitive(label));
+                subtypeToBinding.put(entry.getValue(), binding);
+            }
 
-                for (Map.Entry<String, JsonElement> e : jsonObject.entrySet())
+            for (Map.Entry<String, Class<?>> entry : registry.getAliases().entrySet())
+            {
+                labelToBinding.put(entry.getKey(), subtypeToBinding.get(entry.getValue()));
+            }
+        }
+
+        /**
+         * Returns the binding of a concrete class.
+         * @param type Concrete class.
+         * @return Binding of the nearest registered type ({@link Binding#UNREGISTERED} if the class does not
+         *     extend any registered subtype).
+         */
+        private Binding getBinding(Class<?> type)
+        {
+            return bindings.computeIfAbsent(type, key ->
+            {
+                Class<?> subtype = findNearestSubtype(key, subtypeToBinding.keySet());
+                return subtype != null ? subtypeToBinding.get(subtype) : Binding.UNREGISTERED;
+            });
+        }
+
+        /**
+         * Composes the migration chains of a subtype.
+         * @param registry Registry of the subtypes.
+         * @param type Subtype.
+         * @return Migration chains indexed by the version they migrate from ({@code null} when an object of the
+         *     version does not need to be migrated).
+         */
+        private MigrationChain[] getChains(SubtypeRegistry registry, Class<?> type)
+        {
+            Map<Integer, JsonMigration> migrations = registry.getMigrations(type);
+            MigrationChain[] chains = new MigrationChain[migrations.isEmpty() ? 0 : registry.getVersion()];
+            for (int version = 0; version < chains.length; version++)
+            {
+                List<JsonMigration> steps = new ArrayList<>();
+                for (int step = version; step < chains.length; step++)
                 {
-                    clone.add(e.getKey(), e.getValue());
+                    JsonMigration migration = migrations.get(step);
+                    if (migration != null)
+                    {
+                        steps.add(migration);
+                    }
                 }
-                Streams.write(clone, out);
+                chains[version] = steps.isEmpty() ? null : new MigrationChain(steps);
             }
-        }.nullSafe();
+
+            return chains;
+        }
+    }
+
+    /**
+     * Adapter, type field value and migration chains of a registered subtype.
+     */
+    private static final class Binding
+    {
+        /**
+         * Binding of the classes not extending any registered subtype.
+         */
+        private static final Binding UNREGISTERED = new Binding(null, null, -1, new MigrationChain[0]);
+
+        /**
+         * Adapter of the subtype ({@code null} if unregistered).
+         */
+        private final TypeAdapter<?> delegate;
+
+        /**
+         * Type label.
+         */
+        private final String label;
+
+        /**
+         * Type id, or a negative value if the subtype is identified by its label.
+         */
+        private final int id;
+
+        /**
+         * Migration chains indexed by the version they migrate from.
+         */
+        private final MigrationChain[] chains;
+
+        /**
+         * Creates a new binding.
+         * @param delegate Adapter of the subtype.
+         * @param label Type label.
+         * @param id Type id, or a negative value if the subtype is identified by its label.
+         * @param chains Migration chains indexed by the version they migrate from.
+         */
+        private Binding(TypeAdapter<?> delegate, String label, int id, MigrationChain[] chains)
+        {
+            this.delegate = delegate;
+            this.label = label;
+            this.id = id;
+            this.chains = chains;
+        }
+
+        /**
+         * Returns the migration chain of an object.
+         * @param version Version of the object.
+         * @param currentVersion Current version of the objects.
+         * @return Migration chain, or {@code null} if the object does not need to be migrated.
+         */
+        private MigrationChain getChain(int version, int currentVersion)
+        {
+            if (version < 0 || version > currentVersion)
+            {
+                throw new JsonParseException("cannot deserialize " + label + " of version " + version
+                        + "; the current version is " + currentVersion);
+            }
+
+            return version < chains.length ? chains[version] : null;
+        }
     }
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.runtime;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import org.reflections.Reflections;
+import org.ressec.avocado.core.annotation.JsonSubtype;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Utility class locating the subtypes annotated with {@link JsonSubtype}.
+ * <br><br>
+ * Subtypes are looked up in the index files generated at compile time by the
+ * {@code org.ressec.avocado.core.processor.JsonSubtypeProcessor} annotation processor (one per artifact,
+ * see {@link #INDEX_RESOURCE}), or found by scanning the class path at runtime. Each line of an index file
+ * describes an annotated type: its binary name, its label and the binary names of its super types, separated
+ * by tabulations (super types being separated by commas). The entries of the subtypes which cannot be loaded
+ * anymore are skipped.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@UtilityClass
+public class SubtypeIndex
+{
+    /**
+     * Path of the index files.
+     */
+    public static final String INDEX_RESOURCE = "META-INF/avocado/json-subtypes";
+
+    /**
+     * Separator of the columns of an index line.
+     */
+    public static final char COLUMN_SEPARATOR = '\t';
+
+    /**
+     * Separator of the super types of an index line.
+     */
+    public static final char SUPERTYPE_SEPARATOR = ',';
+
+    /**
+     * Returns the indexed subtypes of a base type.
+     * @param baseType Base type.
+     * @return Subtypes and their label, empty if the index does not contain any subtype of the base type.
+     */
+    public static Map<Class<?>, String> find(final @NonNull Class<?> baseType)
+    {
+        var loader = getClassLoader(baseType);
+        var subtypes = new LinkedHashMap<Class<?>, String>();
+
+        try
+        {
+            var resources = loader.getResources(INDEX_RESOURCE);
+            while (resources.hasMoreElements())
+            {
+                read(resources.nextElement(), baseType, loader, subtypes);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(String.format("Cannot read subtype index: '%s'", INDEX_RESOURCE), e);
+        }
+
+        return subtypes;
+    }
+
+    /**
+     * Scans packages of the class path for the subtypes of a base type annotated with {@link JsonSubtype}.
+     * <br>
+     * This is much slower than {@link #find(Class)} and is meant as a fallback when no index is available.
+     * @param baseType Base type.
+     * @param packages Packages to scan (the package of the base type when none is given).
+     * @return Subtypes and their label.
+     */
+    public static Map<Class<?>, String> scan(final @NonNull Class<?> baseType, final @NonNull String... packages)
+    {
+        Object[] prefixes = packages.length > 0 ? packages : new Object[] { baseType.getPackageName() };
+        var subtypes = new LinkedHashMap<Class<?>, String>();
+
+        new Reflections(prefixes, getClassLoader(baseType)).getSubTypesOf(baseType).stream()
+                .filter(type -> type.isAnnotationPresent(JsonSubtype.class) && !Modifier.isAbstract(type.getModifiers()))
+                .sorted(Comparator.comparing(Class::getName))
+                .forEach(type -> subtypes.put(type, getLabel(type)));
+
+        return subtypes;
+    }
+
+    /**
+     * Returns the label of an annotated subtype.
+     * @param type Subtype.
+     * @return Label declared by its {@link JsonSubtype} annotation or its simple name.
+     */
+    public static String getLabel(final @NonNull Class<?> type)
+    {
+        var annotation = type.getAnnotation(JsonSubtype.class);
+
+        return annotation == null || annotation.label().isEmpty() ? type.getSimpleName() : annotation.label();
+    }
+
+    /**
+     * Reads an index file.
+     * @param url Index file.
+     * @param baseType Base type of the subtypes to read.
+     * @param loader Class loader used to load the subtypes.
+     * @param subtypes Subtypes read so far.
+     * @throws IOException Thrown in case an error occurred while reading the index file.
+     */
+    private static void read(final @NonNull URL url, final @NonNull Class<?> baseType, final @NonNull ClassLoader loader, final @NonNull Map<Class<?>, String> subtypes) throws IOException
+    {
+        try (var reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8)))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                var columns = line.split(String.valueOf(COLUMN_SEPARATOR), -1);
+                if (line.isBlank() || line.startsWith("#") || columns.length != 3)
+                {
+                    continue;
+                }
+
+                var supertypes = Arrays.asList(columns[2].split(String.valueOf(SUPERTYPE_SEPARATOR)));
+                if (supertypes.contains(baseType.getName()))
+                {
+                    var subtype = load(columns[0], loader);
+                    if (subtype != null)
+                    {
+                        subtypes.putIfAbsent(subtype, columns[1]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads an indexed subtype.
+     * @param name Binary name of the subtype.
+     * @param loader Class loader.
+     * @return Subtype, or {@code null} if the subtype does not exist anymore.
+     */
+    private static Class<?> load(final @NonNull String name, final @NonNull ClassLoader loader)
+    {
+        try
+        {
+            return Class.forName(name, false, loader);
+        }
+        catch (ClassNotFoundException e)
+        {
+            // A stale entry of an index not rewritten since the subtype has been removed.
+            return null;
+        }
+    }
+
+    /**
+     * Returns the class loader used to look up the subtypes of a base type.
+     * @param baseType Base type.
+     * @return Class loader.
+     */
+    private static ClassLoader getClassLoader(final @NonNull Class<?> baseType)
+    {
+        return baseType.getClassLoader() != null ? baseType.getClassLoader() : ClassLoader.getSystemClassLoader();
+    }
+}
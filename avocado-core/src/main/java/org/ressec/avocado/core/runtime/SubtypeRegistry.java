@@ -0,0 +1,256 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.runtime;
+
+import lombok.NonNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable registry of the subtypes of a {@link RuntimeTypeAdapterFactory}.
+ * <br><br>
+ * Registering a subtype creates a new registry, so a registry can be published to and read by several
+ * threads without locking. Registries are compared by identity to detect a new registration.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class SubtypeRegistry
+{
+    /**
+     * Registry without any subtype.
+     */
+    static final SubtypeRegistry EMPTY = new SubtypeRegistry(null);
+
+    /**
+     * Subtypes indexed by their label, in registration order.
+     */
+    private final Map<String, Class<?>> labelToSubtype;
+
+    /**
+     * Labels indexed by their subtype.
+     */
+    private final Map<Class<?>, String> subtypeToLabel;
+
+    /**
+     * Type ids indexed by their subtype.
+     */
+    private final Map<Class<?>, Integer> subtypeToId;
+
+    /**
+     * Subtypes indexed by their former labels, only accepted on read.
+     */
+    private final Map<String, Class<?>> aliasToSubtype;
+
+    /**
+     * Migration steps of the subtypes, indexed by the version they migrate from.
+     */
+    private final Map<Class<?>, Map<Integer, JsonMigration>> migrations;
+
+    /**
+     * Name of the version field ({@code null} if the objects are not versioned).
+     */
+    private String versionFieldName;
+
+    /**
+     * Current version of the objects.
+     */
+    private int version;
+
+    /**
+     * Creates a copy of a registry, modified by the caller before being returned.
+     * @param source Copied registry ({@code null} to create an empty registry).
+     */
+    private SubtypeRegistry(final SubtypeRegistry source)
+    {
+        this.labelToSubtype = source != null ? new LinkedHashMap<>(source.labelToSubtype) : new LinkedHashMap<>();
+        this.subtypeToLabel = source != null ? new LinkedHashMap<>(source.subtypeToLabel) : new LinkedHashMap<>();
+        this.subtypeToId = source != null ? new LinkedHashMap<>(source.subtypeToId) : new LinkedHashMap<>();
+        this.aliasToSubtype = source != null ? new LinkedHashMap<>(source.aliasToSubtype) : new LinkedHashMap<>();
+        this.migrations = source != null ? new LinkedHashMap<>(source.migrations) : new LinkedHashMap<>();
+        this.versionFieldName = source != null ? source.versionFieldName : null;
+        this.version = source != null ? source.version : 0;
+    }
+
+    /**
+     * Returns a registry containing the subtypes of this registry and a new subtype.
+     * @param type Subtype.
+     * @param label Label.
+     * @param id Type id, or a negative value if the subtype is only identified by its label.
+     * @return New registry.
+     * @throws IllegalArgumentException if either {@code type}, {@code label} or {@code id} have already been
+     *     registered.
+     */
+    SubtypeRegistry with(final @NonNull Class<?> type, final @NonNull String label, final int id)
+    {
+        if (subtypeToLabel.containsKey(type) || labelToSubtype.containsKey(label) || aliasToSubtype.containsKey(label))
+        {
+            throw new IllegalArgumentException("types and labels must be unique");
+        }
+
+        if (id >= 0 && subtypeToId.containsValue(id))
+        {
+            throw new IllegalArgumentException("type ids must be unique");
+        }
+
+        var registry = new SubtypeRegistry(this);
+        registry.labelToSubtype.put(label, type);
+        registry.subtypeToLabel.put(type, label);
+        if (id >= 0)
+        {
+            registry.subtypeToId.put(type, id);
+        }
+
+        return registry;
+    }
+
+    /**
+     * Returns a registry accepting on read a former label of a registered subtype.
+     * @param type Subtype.
+     * @param alias Former label.
+     * @return New registry.
+     * @throws IllegalArgumentException if {@code type} is not registered or if {@code alias} has already been
+     *     registered.
+     */
+    SubtypeRegistry withAlias(final @NonNull Class<?> type, final @NonNull String alias)
+    {
+        if (!subtypeToLabel.containsKey(type))
+        {
+            throw new IllegalArgumentException(String.format("Type is not registered: '%s'", type.getName()));
+        }
+
+        if (labelToSubtype.containsKey(alias) || aliasToSubtype.containsKey(alias))
+        {
+            throw new IllegalArgumentException("types and labels must be unique");
+        }
+
+        var registry = new SubtypeRegistry(this);
+        registry.aliasToSubtype.put(alias, type);
+
+        return registry;
+    }
+
+    /**
+     * Returns a registry versioning the objects.
+     * @param fieldName Name of the version field.
+     * @param currentVersion Current version of the objects.
+     * @return New registry.
+     */
+    SubtypeRegistry withVersion(final @NonNull String fieldName, final int currentVersion)
+    {
+        var registry = new SubtypeRegistry(this);
+        registry.versionFieldName = fieldName;
+        registry.version = currentVersion;
+
+        return registry;
+    }
+
+    /**
+     * Returns a registry containing a new migration step of a subtype.
+     * @param type Subtype.
+     * @param fromVersion Version migrated by the step to the next version.
+     * @param migration Migration step.
+     * @return New registry.
+     * @throws IllegalArgumentException if a step has already been registered for the subtype and version.
+     */
+    SubtypeRegistry withMigration(final @NonNull Class<?> type, final int fromVersion, final @NonNull JsonMigration migration)
+    {
+        if (migrations.getOrDefault(type, Collections.emptyMap()).containsKey(fromVersion))
+        {
+            throw new IllegalArgumentException(String.format("Migration already registered for type: '%s' and version: '%d'", type.getName(), fromVersion));
+        }
+
+        var steps = new TreeMap<>(migrations.getOrDefault(type, Collections.emptyMap()));
+        steps.put(fromVersion, migration);
+        var registry = new SubtypeRegistry(this);
+        registry.migrations.put(type, Collections.unmodifiableMap(steps));
+
+        return registry;
+    }
+
+    /**
+     * Returns whether a subtype is registered.
+     * @param type Subtype.
+     * @return True if the subtype is registered.
+     */
+    boolean contains(final @NonNull Class<?> type)
+    {
+        return subtypeToLabel.containsKey(type);
+    }
+
+    /**
+     * Returns the registered subtypes indexed by their label, in registration order.
+     * @return Unmodifiable map of subtypes.
+     */
+    Map<String, Class<?>> getSubtypes()
+    {
+        return Collections.unmodifiableMap(labelToSubtype);
+    }
+
+    /**
+     * Returns the registered subtypes indexed by their former labels.
+     * @return Unmodifiable map of subtypes.
+     */
+    Map<String, Class<?>> getAliases()
+    {
+        return Collections.unmodifiableMap(aliasToSubtype);
+    }
+
+    /**
+     * Returns the type id of a subtype.
+     * @param type Subtype.
+     * @return Type id, or -1 if the subtype is only identified by its label.
+     */
+    int getId(final @NonNull Class<?> type)
+    {
+        return subtypeToId.getOrDefault(type, -1);
+    }
+
+    /**
+     * Returns the greatest registered type id.
+     * @return Greatest type id, or -1 if no subtype has a type id.
+     */
+    int getMaxId()
+    {
+        return subtypeToId.values().stream().mapToInt(Integer::intValue).max().orElse(-1);
+    }
+
+    /**
+     * Returns the name of the version field.
+     * @return Name of the version field, or {@code null} if the objects are not versioned.
+     */
+    String getVersionFieldName()
+    {
+        return versionFieldName;
+    }
+
+    /**
+     * Returns the current version of the objects.
+     * @return Current version.
+     */
+    int getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Returns the migration steps of a subtype.
+     * @param type Subtype.
+     * @return Unmodifiable map of the migration steps, indexed by the version they migrate from.
+     */
+    Map<Integer, JsonMigration> getMigrations(final @NonNull Class<?> type)
+    {
+        return migrations.getOrDefault(type, Collections.emptyMap());
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.runtime;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonWriter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A json writer forwarding the object written by the adapter of a subtype to another writer, inserting the
+ * type field (and the version field, if any) as the first members of the object.
+ * <br><br>
+ * This lets a polymorphic type adapter stream the object to the output instead of building it as a tree to
+ * put the type field first.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class TypedObjectWriter extends JsonWriter
+{
+    /**
+     * Text writer given to the parent class, never written as all the writes are forwarded.
+     */
+    private static final Writer UNUSED = Writer.nullWriter();
+
+    /**
+     * Underlying writer.
+     */
+    private final JsonWriter out;
+
+    /**
+     * Name of the type field.
+     */
+    private final String typeFieldName;
+
+    /**
+     * Type label.
+     */
+    private final String label;
+
+    /**
+     * Type id, written instead of the type label when positive or zero.
+     */
+    private final int id;
+
+    /**
+     * Name of the version field ({@code null} if the object is not versioned).
+     */
+    private final String versionFieldName;
+
+    /**
+     * Version written in the version field.
+     */
+    private final int version;
+
+    /**
+     * Serialized type, used in the error messages.
+     */
+    private final Class<?> type;
+
+    /**
+     * Depth of the current array or object (0 before and after the serialized object).
+     */
+    private int depth;
+
+    /**
+     * Whether the object has been started.
+     */
+    private boolean started;
+
+    /**
+     * Pending name of the object when it is the name of the type or version field ({@code null} otherwise).
+     */
+    private String reservedFieldPending;
+
+    /**
+     * Creates a new typed object writer.
+     * @param out Underlying writer.
+     * @param typeFieldName Name of the type field.
+     * @param label Type label.
+     * @param id Type id, written instead of the type label when positive or zero.
+     * @param versionFieldName Name of the version field ({@code null} if the object is not versioned).
+     * @param version Version written in the version field.
+     * @param type Serialized type, used in the error messages.
+     */
+    TypedObjectWriter(final @NonNull JsonWriter out, final @NonNull String typeFieldName, final @NonNull String label, final int id, final String versionFieldName, final int version, final @NonNull Class<?> type)
+    {
+        super(UNUSED);
+        this.out = out;
+        this.typeFieldName = typeFieldName;
+        this.label = label;
+        this.id = id;
+        this.versionFieldName = versionFieldName;
+        this.version = version;
+        this.type = type;
+
+        setLenient(out.isLenient());
+        setHtmlSafe(out.isHtmlSafe());
+        setSerializeNulls(out.getSerializeNulls());
+    }
+
+    /**
+     * Returns whether a complete object has been written.
+     * @return True if the object has been written.
+     */
+    boolean isComplete()
+    {
+        return started && depth == 0;
+    }
+
+    @Override
+    public JsonWriter beginArray() throws IOException
+    {
+        beforeValue();
+        depth++;
+        out.beginArray();
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException
+    {
+        depth--;
+        out.endArray();
+        return this;
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException
+    {
+        if (depth == 0)
+        {
+            if (started)
+            {
+                throw notAnObject();
+            }
+
+            started = true;
+            depth++;
+            out.beginObject();
+            out.name(typeFieldName);
+            if (id >= 0)
+            {
+                out.value(id);
+            }
+            else
+            {
+                out.value(label);
+            }
+            if (versionFieldName != null)
+            {
+                out.name(versionFieldName);
+                out.value(version);
+            }
+            return this;
+        }
+
+        beforeValue();
+        depth++;
+        out.beginObject();
+        return this;
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException
+    {
+        depth--;
+        out.endObject();
+        return this;
+    }
+
+    @Override
+    public JsonWriter name(final String name) throws IOException
+    {
+        reservedFieldPending = depth == 1 && (typeFieldName.equals(name) || name.equals(versionFieldName)) ? name : null;
+        out.name(name);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final String value) throws IOException
+    {
+        if (value == null)
+        {
+            return nullValue();
+        }
+
+        beforeValue();
+        out.value(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter jsonValue(final String value) throws IOException
+    {
+        if (value == null)
+        {
+            return nullValue();
+        }
+
+        beforeValue();
+        out.jsonValue(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException
+    {
+        if (reservedFieldPending != null && !out.getSerializeNulls())
+        {
+            // The field of the object is null and omitted from the output.
+            reservedFieldPending = null;
+        }
+
+        beforeValue();
+        out.nullValue();
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final boolean value) throws IOException
+    {
+        beforeValue();
+        out.value(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final Boolean value) throws IOException
+    {
+        if (value == null)
+        {
+            return nullValue();
+        }
+
+        beforeValue();
+        out.value(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final double value) throws IOException
+    {
+        beforeValue();
+        out.value(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final long value) throws IOException
+    {
+        beforeValue();
+        out.value(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final Number value) throws IOException
+    {
+        if (value == null)
+        {
+            return nullValue();
+        }
+
+        beforeValue();
+        out.value(value);
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        out.flush();
+    }
+
+    @Override
+    public void close()
+    {
+        // The underlying writer is owned by the caller.
+    }
+
+    /**
+     * Checks a value can be written.
+     */
+    private void beforeValue()
+    {
+        if (depth == 0)
+        {
+            throw notAnObject();
+        }
+
+        if (reservedFieldPending != null)
+        {
+            throw new JsonParseException("cannot serialize " + type.getName()
+                    + " because it already defines a field named " + reservedFieldPending);
+        }
+    }
+
+    /**
+     * Creates the exception thrown when the subtype is not serialized as a json object.
+     * @return Exception.
+     */
+    private JsonParseException notAnObject()
+    {
+        return new JsonParseException("cannot serialize " + type.getName() + " because it is not serialized as a json object");
+    }
+}
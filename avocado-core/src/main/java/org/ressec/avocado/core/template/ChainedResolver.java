@@ -0,0 +1,58 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.template;
+
+import lombok.NonNull;
+import org.ressec.avocado.core.exception.checked.StringExpanderException;
+
+import java.util.Objects;
+
+/**
+ * A resolver chaining some resolvers in order, the first resolver resolving a variable providing its value.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class ChainedResolver implements VariableResolver
+{
+    /**
+     * Resolvers, by order of precedence.
+     */
+    private final VariableResolver[] resolvers;
+
+    /**
+     * Creates a new chained resolver.
+     * @param resolvers Resolvers, by order of precedence.
+     */
+    ChainedResolver(final @NonNull VariableResolver[] resolvers)
+    {
+        this.resolvers = resolvers.clone();
+        for (VariableResolver resolver : this.resolvers)
+        {
+            Objects.requireNonNull(resolver, "resolver");
+        }
+    }
+
+    @Override
+    public Object resolve(final @NonNull String name) throws StringExpanderException
+    {
+        for (VariableResolver resolver : resolvers)
+        {
+            Object value = resolver.resolve(name);
+            if (value != null)
+            {
+                return value;
+            }
+        }
+
+        return null;
+    }
+}
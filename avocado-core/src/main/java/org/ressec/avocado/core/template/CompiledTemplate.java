@@ -0,0 +1,271 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.template;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import lombok.NonNull;
+import org.ressec.avocado.core.exception.checked.StringExpanderException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A text template parsed once into literal and variable segments (a variable has the format:
+ * <code>${property_path}</code> or <code>${property_path:format}</code>).
+ * <br><br>
+ * Compiled templates are immutable and cached by template text, so expanding the same template several
+ * times only parses it once. Rendering appends the segments in a single pass, by default in a string builder
+ * reused by the calling thread. The variables are compiled with the template (see {@link TemplateVariable}).
+ * <pre>   {@code
+ *   String message = CompiledTemplate.of("Order ${id} of ${customer.name}: ${lines[0].amount:#,##0.00}").render(order);
+ * }</pre>
+ * A <code>${</code> without a closing <code>}</code> is kept as literal text.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class CompiledTemplate
+{
+    /**
+     * Marker starting a variable.
+     */
+    private static final String VARIABLE_START = "${";
+
+    /**
+     * Marker ending a variable.
+     */
+    private static final char VARIABLE_END = '}';
+
+    /**
+     * Maximum number of compiled templates kept in the cache.
+     */
+    private static final int CACHE_SIZE = 1024;
+
+    /**
+     * Maximum capacity of the string builder kept by a thread between two renderings.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    /**
+     * Compiled templates indexed by their text.
+     */
+    private static final LoadingCache<String, CompiledTemplate> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .build(CacheLoader.from(CompiledTemplate::new));
+
+    /**
+     * String builder reused by the renderings of a thread.
+     */
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(StringBuilder::new);
+
+    /**
+     * Template text.
+     */
+    private final String text;
+
+    /**
+     * Literal segments, one more than the variables: the literal preceding each variable, then the trailing one.
+     */
+    private final String[] literals;
+
+    /**
+     * Variables, as written in the template, in order of appearance.
+     */
+    private final String[] variables;
+
+    /**
+     * Compiled variables.
+     */
+    private final TemplateVariable[] compiledVariables;
+
+    /**
+     * Parses a template.
+     * @param text Template text.
+     */
+    private CompiledTemplate(final @NonNull String text)
+    {
+        List<String> literalSegments = new ArrayList<>();
+        List<String> variableSegments = new ArrayList<>();
+
+        int index = 0;
+        int start = text.indexOf(VARIABLE_START);
+        while (start >= 0)
+        {
+            int end = text.indexOf(VARIABLE_END, start + VARIABLE_START.length());
+            if (end < 0)
+            {
+                // An unterminated variable is part of the trailing literal.
+                break;
+            }
+
+            literalSegments.add(text.substring(index, start));
+            variableSegments.add(text.substring(start + VARIABLE_START.length(), end));
+            index = end + 1;
+            start = text.indexOf(VARIABLE_START, index);
+        }
+        literalSegments.add(text.substring(index));
+
+        this.text = text;
+        this.literals = literalSegments.toArray(new String[0]);
+        this.variables = variableSegments.toArray(new String[0]);
+        this.compiledVariables = new TemplateVariable[variables.length];
+        for (int i = 0; i < variables.length; i++)
+        {
+            compiledVariables[i] = new TemplateVariable(variables[i]);
+        }
+    }
+
+    /**
+     * Returns the compiled template of a text, compiling it if it is not cached.
+     * @param text Template text.
+     * @return Compiled template.
+     */
+    public static CompiledTemplate of(final @NonNull String text)
+    {
+        return CACHE.getUnchecked(text);
+    }
+
+    /**
+     * Returns the template text.
+     * @return Template text.
+     */
+    public String getText()
+    {
+        return text;
+    }
+
+    /**
+     * Returns the variables of the template.
+     * @return Unmodifiable list of variables, as written in the template, in order of appearance.
+     */
+    public List<String> getVariables()
+    {
+        return Collections.unmodifiableList(Arrays.asList(variables));
+    }
+
+    /**
+     * Returns if the template contains variables.
+     * @return True if the template contains some variables, false otherwise.
+     */
+    public boolean hasVariables()
+    {
+        return variables.length > 0;
+    }
+
+    /**
+     * Renders the template with the values of an object instance.
+     * @param instance Object instance containing the variable values.
+     * @return Rendered text.
+     * @throws StringExpanderException Thrown to indicate an error occurred while trying to expand a variable.
+     */
+    public String render(final @NonNull Object instance) throws StringExpanderException
+    {
+        return renderToString(instance, null);
+    }
+
+    /**
+     * Renders the template with the values of an object instance, appending the rendered text to a builder.
+     * @param instance Object instance containing the variable values.
+     * @param builder Builder the rendered text is appended to.
+     * @return Builder.
+     * @throws StringExpanderException Thrown to indicate an error occurred while trying to expand a variable.
+     */
+    public StringBuilder render(final @NonNull Object instance, final @NonNull StringBuilder builder) throws StringExpanderException
+    {
+        return append(instance, null, builder);
+    }
+
+    /**
+     * Renders the template with the values provided by a variable resolver.
+     * @param resolver Variable resolver.
+     * @return Rendered text.
+     * @throws StringExpanderException Thrown to indicate a variable cannot be resolved or formatted.
+     */
+    public String render(final @NonNull VariableResolver resolver) throws StringExpanderException
+    {
+        return renderToString(null, resolver);
+    }
+
+    /**
+     * Renders the template with the values provided by a variable resolver, appending the rendered text to a
+     * builder.
+     * @param resolver Variable resolver.
+     * @param builder Builder the rendered text is appended to.
+     * @return Builder.
+     * @throws StringExpanderException Thrown to indicate a variable cannot be resolved or formatted.
+     */
+    public StringBuilder render(final @NonNull VariableResolver resolver, final @NonNull StringBuilder builder) throws StringExpanderException
+    {
+        return append(null, resolver, builder);
+    }
+
+    /**
+     * Renders the template in the string builder of the calling thread.
+     * @param instance Object instance containing the variable values ({@code null} if a resolver is given).
+     * @param resolver Variable resolver ({@code null} if an instance is given).
+     * @return Rendered text.
+     * @throws StringExpanderException Thrown to indicate an error occurred while trying to expand a variable.
+     */
+    private String renderToString(final Object instance, final VariableResolver resolver) throws StringExpanderException
+    {
+        if (variables.length == 0)
+        {
+            return text;
+        }
+
+        // The builder is taken from the thread while in use, so a nested rendering gets its own builder.
+        StringBuilder builder = BUILDER.get();
+        if (builder == null)
+        {
+            return append(instance, resolver, new StringBuilder()).toString();
+        }
+
+        BUILDER.set(null);
+        builder.setLength(0);
+        try
+        {
+            return append(instance, resolver, builder).toString();
+        }
+        finally
+        {
+            // Do not retain the memory of an unusually large rendering.
+            BUILDER.set(builder.capacity() > MAX_RETAINED_CAPACITY ? new StringBuilder() : builder);
+        }
+    }
+
+    /**
+     * Appends the rendered template to a builder.
+     * @param instance Object instance containing the variable values ({@code null} if a resolver is given).
+     * @param resolver Variable resolver ({@code null} if an instance is given).
+     * @param builder Builder the rendered text is appended to.
+     * @return Builder.
+     * @throws StringExpanderException Thrown to indicate an error occurred while trying to expand a variable.
+     */
+    private StringBuilder append(final Object instance, final VariableResolver resolver, final StringBuilder builder) throws StringExpanderException
+    {
+        for (int i = 0; i < variables.length; i++)
+        {
+            builder.append(literals[i]).append(resolver != null ? compiledVariables[i].render(resolver) : compiledVariables[i].render(instance));
+        }
+
+        return builder.append(literals[variables.length]);
+    }
+
+    @Override
+    public String toString()
+    {
+        return text;
+    }
+}
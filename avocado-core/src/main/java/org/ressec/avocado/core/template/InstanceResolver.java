@@ -0,0 +1,70 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.template;
+
+import lombok.NonNull;
+import org.ressec.avocado.core.exception.checked.StringExpanderException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A resolver reading the variables from the properties of an object instance, the property paths being compiled
+ * once per variable name.
+ * <br><br>
+ * A name which is not a property path of the instance is not resolved, so the next resolver of a chain can
+ * resolve it.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class InstanceResolver implements VariableResolver
+{
+    /**
+     * Maximum number of compiled property paths kept by the resolver.
+     */
+    private static final int MAX_CACHED_PATHS = 1024;
+
+    /**
+     * Object instance.
+     */
+    private final Object instance;
+
+    /**
+     * Compiled property paths indexed by variable name.
+     */
+    private final Map<String, PropertyPath> paths = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new instance resolver.
+     * @param instance Object instance.
+     */
+    InstanceResolver(final @NonNull Object instance)
+    {
+        this.instance = instance;
+    }
+
+    @Override
+    public Object resolve(final @NonNull String name) throws StringExpanderException
+    {
+        PropertyPath path = paths.get(name);
+        if (path == null)
+        {
+            path = PropertyPath.compile(name);
+            if (paths.size() < MAX_CACHED_PATHS)
+            {
+                paths.put(name, path);
+            }
+        }
+
+        return path.find(instance);
+    }
+}
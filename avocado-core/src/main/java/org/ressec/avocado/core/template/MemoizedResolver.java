@@ -0,0 +1,64 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.template;
+
+import lombok.NonNull;
+import org.ressec.avocado.core.exception.checked.StringExpanderException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A resolver caching the resolutions of another resolver, including the variables it does not resolve.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class MemoizedResolver implements VariableResolver
+{
+    /**
+     * Cached value of the variables not resolved by the resolver.
+     */
+    private static final Object UNRESOLVED = new Object();
+
+    /**
+     * Underlying resolver.
+     */
+    private final VariableResolver resolver;
+
+    /**
+     * Cached values indexed by variable name.
+     */
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new memoized resolver.
+     * @param resolver Underlying resolver.
+     */
+    MemoizedResolver(final @NonNull VariableResolver resolver)
+    {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public Object resolve(final @NonNull String name) throws StringExpanderException
+    {
+        Object value = values.get(name);
+        if (value == null)
+        {
+            // A failed resolution is not cached, so it fails again on the next resolution.
+            value = resolver.resolve(name);
+            values.put(name, value == null ? UNRESOLVED : value);
+        }
+
+        return value == UNRESOLVED ? null : value;
+    }
+}
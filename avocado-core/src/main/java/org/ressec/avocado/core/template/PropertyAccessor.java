@@ -0,0 +1,259 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.template;
+
+import lombok.NonNull;
+import org.ressec.avocado.core.exception.checked.StringExpanderException;
+import org.ressec.avocado.core.helper.ReflectionHelper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An accessor reading a property of the instances of a class, resolved once and invoked through a method
+ * handle.
+ * <br><br>
+ * A property is read through its public getter ({@code getName()} or {@code isName()}) when the class has one,
+ * and through the field of the class hierarchy having its name otherwise. The accessors are resolved once per
+ * class and property name, so reading a property does not perform any reflective lookup. A public getter is
+ * invoked through a public class or interface declaring it (for example {@code Map.Entry.getKey()} for the
+ * entries of a {@code HashMap}), the access checks only being suppressed when no public type declares it.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class PropertyAccessor
+{
+    /**
+     * Type of the accessor method handles.
+     */
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * Accessors of the classes, indexed by property name.
+     */
+    private static final ClassValue<Map<String, PropertyAccessor>> ACCESSORS = new ClassValue<>()
+    {
+        @Override
+        protected Map<String, PropertyAccessor> computeValue(final Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * Property name.
+     */
+    private final String name;
+
+    /**
+     * Method handle reading the property ({@code null} if the property cannot be read).
+     */
+    private final MethodHandle handle;
+
+    /**
+     * Error raised while resolving the property ({@code null} if the property can be read).
+     */
+    private final Exception failure;
+
+    /**
+     * Creates a new property accessor.
+     * @param name Property name.
+     * @param handle Method handle reading the property.
+     * @param failure Error raised while resolving the property.
+     */
+    private PropertyAccessor(final @NonNull String name, final MethodHandle handle, final Exception failure)
+    {
+        this.name = name;
+        this.handle = handle;
+        this.failure = failure;
+    }
+
+    /**
+     * Returns the accessor of a property of a class.
+     * @param type Class.
+     * @param name Property name.
+     * @return Property accessor (reading the property fails if the property cannot be resolved).
+     */
+    static PropertyAccessor of(final @NonNull Class<?> type, final @NonNull String name)
+    {
+        return ACCESSORS.get(type).computeIfAbsent(name, property -> resolve(type, property));
+    }
+
+    /**
+     * Returns whether the property has been resolved.
+     * @return True if the property can be read, false if the class does not have such a property.
+     */
+    boolean isResolved()
+    {
+        return failure == null;
+    }
+
+    /**
+     * Reads the property of an instance.
+     * @param instance Object instance.
+     * @return Property value.
+     * @throws StringExpanderException Thrown to indicate the property cannot be read.
+     */
+    Object get(final @NonNull Object instance) throws StringExpanderException
+    {
+        if (failure != null)
+        {
+            throw new StringExpanderException(failure);
+        }
+
+        try
+        {
+            return (Object) handle.invokeExact(instance);
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable e)
+        {
+            throw new StringExpanderException(String.format("Cannot read property: '%s' of class: '%s'", name, instance.getClass().getName()), e instanceof Exception ? (Exception) e : new Exception(e));
+        }
+    }
+
+    /**
+     * Resolves the accessor of a property.
+     * @param type Class.
+     * @param name Property name.
+     * @return Property accessor.
+     */
+    private static PropertyAccessor resolve(final Class<?> type, final String name)
+    {
+        try
+        {
+            Method getter = findGetter(type, name);
+            if (getter != null)
+            {
+                Method accessible = findPublicDeclaration(type, getter);
+                if (accessible == null)
+                {
+                    getter.setAccessible(true);
+                    accessible = getter;
+                }
+                return new PropertyAccessor(name, MethodHandles.lookup().unreflect(accessible).asType(ACCESSOR_TYPE), null);
+            }
+
+            Field field = ReflectionHelper.findFieldInClassHierarchy(type, name);
+            if (!Modifier.isPublic(field.getModifiers()) || !isPublic(field.getDeclaringClass()))
+            {
+                field.setAccessible(true);
+            }
+            return new PropertyAccessor(name, MethodHandles.lookup().unreflectGetter(field).asType(ACCESSOR_TYPE), null);
+        }
+        catch (NoSuchFieldException | IllegalAccessException | RuntimeException e)
+        {
+            return new PropertyAccessor(name, null, e);
+        }
+    }
+
+    /**
+     * Finds the declaration of a public getter by a public class or interface of the class hierarchy, so the
+     * getter can be invoked without suppressing the access checks (which is not permitted for the classes of
+     * the modules that are not open, such as the non-public implementation classes of the JDK).
+     * @param type Class.
+     * @param getter Public getter.
+     * @return Getter declared by a public class or interface, or {@code null} if no public type declares it.
+     */
+    private static Method findPublicDeclaration(final Class<?> type, final Method getter)
+    {
+        if (isPublic(getter.getDeclaringClass()))
+        {
+            return getter;
+        }
+
+        Deque<Class<?>> candidates = new ArrayDeque<>();
+        candidates.add(type);
+        while (!candidates.isEmpty())
+        {
+            Class<?> candidate = candidates.poll();
+            if (isPublic(candidate))
+            {
+                try
+                {
+                    Method method = candidate.getDeclaredMethod(getter.getName());
+                    if (Modifier.isPublic(method.getModifiers()))
+                    {
+                        return method;
+                    }
+                }
+                catch (NoSuchMethodException e)
+                {
+                    // Try the super types.
+                }
+            }
+
+            if (candidate.getSuperclass() != null)
+            {
+                candidates.add(candidate.getSuperclass());
+            }
+            Collections.addAll(candidates, candidate.getInterfaces());
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks if a class is accessible from any module: a public class of an exported package.
+     * @param type Class.
+     * @return True if the class is accessible, false otherwise.
+     */
+    private static boolean isPublic(final Class<?> type)
+    {
+        return Modifier.isPublic(type.getModifiers()) && type.getModule().isExported(type.getPackageName());
+    }
+
+    /**
+     * Finds the public getter of a property.
+     * @param type Class.
+     * @param name Property name.
+     * @return Getter, or {@code null} if the class does not have a public getter for the property.
+     */
+    private static Method findGetter(final Class<?> type, final String name)
+    {
+        if (name.isEmpty())
+        {
+            return null;
+        }
+
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String prefix : new String[] { "get", "is" })
+        {
+            try
+            {
+                Method method = type.getMethod(prefix + suffix);
+                if (method.getReturnType() != void.class && !Modifier.isStatic(method.getModifiers()))
+                {
+                    return method;
+                }
+            }
+            catch (NoSuchMethodException e)
+            {
+                // Try the next prefix.
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,390 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.template;
+
+import lombok.NonNull;
+import org.ressec.avocado.core.exception.checked.StringExpanderException;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A property path compiled once from its textual form, such as {@code order.customer.name} or
+ * {@code order.lines[0].product}.
+ * <br><br>
+ * A path is a sequence of property names separated by dots, each one optionally followed by indexes between
+ * brackets: an index reads an element of a list or an array, or the value of a key of a map. The path
+ * {@code this} designates the instance itself.
+ * <br><br>
+ * Each property step keeps the accessor of the last class it has read, so reading a path whose values keep the
+ * same classes costs a class comparison and a method handle invocation per step. A {@code null} value in the
+ * middle of the path reads as {@code null}.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class PropertyPath
+{
+    /**
+     * Name of the path designating the instance itself.
+     */
+    private static final String THIS = "this";
+
+    /**
+     * Value read by a path that cannot be resolved against an instance, when reading it is not strict.
+     */
+    private static final Object UNRESOLVED = new Object();
+
+    /**
+     * Textual form of the path.
+     */
+    private final String text;
+
+    /**
+     * Steps of the path.
+     */
+    private final Step[] steps;
+
+    /**
+     * Message of the error raised while parsing the path ({@code null} if the path is valid).
+     */
+    private final String failure;
+
+    /**
+     * Creates a new property path.
+     * @param text Textual form of the path.
+     * @param steps Steps of the path.
+     * @param failure Message of the error raised while parsing the path.
+     */
+    private PropertyPath(final @NonNull String text, final Step[] steps, final String failure)
+    {
+        this.text = text;
+        this.steps = steps;
+        this.failure = failure;
+    }
+
+    /**
+     * Compiles a property path.
+     * @param text Textual form of the path.
+     * @return Property path (reading the path fails if it is not valid).
+     */
+    static PropertyPath compile(final @NonNull String text)
+    {
+        try
+        {
+            return new PropertyPath(text, parse(text), null);
+        }
+        catch (StringExpanderException e)
+        {
+            // The message is kept, so each reading of the path throws its own exception.
+            return new PropertyPath(text, null, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the value designated by the path.
+     * @param root Instance the path is read from.
+     * @return Value, possibly {@code null}.
+     * @throws StringExpanderException Thrown to indicate the path cannot be read.
+     */
+    Object get(final @NonNull Object root) throws StringExpanderException
+    {
+        return read(root, true);
+    }
+
+    /**
+     * Reads the value designated by the path, if the path can be resolved against the instance.
+     * @param root Instance the path is read from.
+     * @return Value, {@link VariableResolver#NULL_VALUE} if the value is {@code null}, or {@code null} if the
+     *     path is not valid or designates a property that does not exist.
+     * @throws StringExpanderException Thrown to indicate an existing property or element cannot be read.
+     */
+    Object find(final @NonNull Object root) throws StringExpanderException
+    {
+        Object value = read(root, false);
+        if (value == UNRESOLVED)
+        {
+            return null;
+        }
+
+        return value != null ? value : VariableResolver.NULL_VALUE;
+    }
+
+    /**
+     * Reads the value designated by the path.
+     * @param root Instance the path is read from.
+     * @param strict Whether an invalid path or a property that does not exist is an error.
+     * @return Value, possibly {@code null}, or {@link #UNRESOLVED} if not strict and the path cannot be resolved.
+     * @throws StringExpanderException Thrown to indicate the path cannot be read.
+     */
+    private Object read(final Object root, final boolean strict) throws StringExpanderException
+    {
+        if (failure != null)
+        {
+            if (strict)
+            {
+                throw new StringExpanderException(failure);
+            }
+            return UNRESOLVED;
+        }
+
+        Object value = root;
+        for (int i = 0; i < steps.length && value != null && value != UNRESOLVED; i++)
+        {
+            value = steps[i].get(value, strict);
+        }
+
+        return value;
+    }
+
+    @Override
+    public String toString()
+    {
+        return text;
+    }
+
+    /**
+     * Parses the steps of a path.
+     * @param text Textual form of the path.
+     * @return Steps.
+     * @throws StringExpanderException Thrown to indicate the path is not valid.
+     */
+    private static Step[] parse(final String text) throws StringExpanderException
+    {
+        List<Step> steps = new ArrayList<>();
+        int index = 0;
+        boolean first = true;
+        while (index < text.length() || first)
+        {
+            if (!first)
+            {
+                if (text.charAt(index) != '.')
+                {
+                    throw invalid(text);
+                }
+                index++;
+            }
+
+            int end = index;
+            while (end < text.length() && text.charAt(end) != '.' && text.charAt(end) != '[')
+            {
+                end++;
+            }
+
+            String name = text.substring(index, end).trim();
+            if (name.isEmpty())
+            {
+                throw invalid(text);
+            }
+            if (!(first && name.equals(THIS)))
+            {
+                steps.add(new PropertyStep(name));
+            }
+            first = false;
+
+            index = end;
+            while (index < text.length() && text.charAt(index) == '[')
+            {
+                int close = text.indexOf(']', index);
+                if (close < 0)
+                {
+                    throw invalid(text);
+                }
+                steps.add(new IndexStep(text.substring(index + 1, close).trim()));
+                index = close + 1;
+            }
+        }
+
+        return steps.toArray(new Step[0]);
+    }
+
+    /**
+     * Creates the exception thrown for an invalid path.
+     * @param text Textual form of the path.
+     * @return Exception.
+     */
+    private static StringExpanderException invalid(final String text)
+    {
+        return new StringExpanderException(String.format("Invalid property path: '%s'", text));
+    }
+
+    /**
+     * A step of a path, reading a value from the value of the previous step.
+     */
+    private interface Step
+    {
+        /**
+         * Reads the value of the step.
+         * @param value Value of the previous step (never {@code null}).
+         * @param strict Whether a property that does not exist is an error ({@link PropertyPath#UNRESOLVED} is returned
+         *     otherwise).
+         * @return Value, possibly {@code null}.
+         * @throws StringExpanderException Thrown to indicate the value cannot be read.
+         */
+        Object get(Object value, boolean strict) throws StringExpanderException;
+    }
+
+    /**
+     * A step reading a property.
+     */
+    private static final class PropertyStep implements Step
+    {
+        /**
+         * Property name.
+         */
+        private final String name;
+
+        /**
+         * Accessor of the last class read by the step.
+         */
+        private CachedAccessor cached = new CachedAccessor(null, null);
+
+        /**
+         * Creates a new property step.
+         * @param name Property name.
+         */
+        private PropertyStep(final String name)
+        {
+            this.name = name;
+        }
+
+        @Override
+        public Object get(final Object value, final boolean strict) throws StringExpanderException
+        {
+            // The cached pair is immutable, so it can be shared between threads without synchronization.
+            CachedAccessor current = cached;
+            if (current.type != value.getClass())
+            {
+                current = new CachedAccessor(value.getClass(), PropertyAccessor.of(value.getClass(), name));
+                cached = current;
+            }
+
+            return strict || current.accessor.isResolved() ? current.accessor.get(value) : UNRESOLVED;
+        }
+    }
+
+    /**
+     * An accessor and the class it reads.
+     */
+    private static final class CachedAccessor
+    {
+        /**
+         * Class read by the accessor.
+         */
+        private final Class<?> type;
+
+        /**
+         * Accessor.
+         */
+        private final PropertyAccessor accessor;
+
+        /**
+         * Creates a new cached accessor.
+         * @param type Class read by the accessor.
+         * @param accessor Accessor.
+         */
+        private CachedAccessor(final Class<?> type, final PropertyAccessor accessor)
+        {
+            this.type = type;
+            this.accessor = accessor;
+        }
+    }
+
+    /**
+     * A step reading an element of a list or an array, or the value of a key of a map.
+     */
+    private static final class IndexStep implements Step
+    {
+        /**
+         * Index, as a key of a map.
+         */
+        private final String key;
+
+        /**
+         * Index, as a position in a list or an array (-1 if the index is not a position).
+         */
+        private final int position;
+
+        /**
+         * Creates a new index step.
+         * @param key Index.
+         */
+        private IndexStep(final String key)
+        {
+            this.key = key;
+            this.position = parsePosition(key);
+        }
+
+        @Override
+        public Object get(final Object value, final boolean strict) throws StringExpanderException
+        {
+            if (value instanceof Map)
+            {
+                Map<?, ?> map = (Map<?, ?>) value;
+                Object element = map.get(key);
+                return element != null || position < 0 ? element : map.get(position);
+            }
+
+            if (position < 0)
+            {
+                throw new StringExpanderException(String.format("Index: '%s' is not a position in: '%s'", key, value.getClass().getName()));
+            }
+
+            if (value instanceof List)
+            {
+                List<?> list = (List<?>) value;
+                checkPosition(list.size());
+                return list.get(position);
+            }
+
+            if (value.getClass().isArray())
+            {
+                checkPosition(Array.getLength(value));
+                return Array.get(value, position);
+            }
+
+            throw new StringExpanderException(String.format("Cannot index: '%s' with: '%s'", value.getClass().getName(), key));
+        }
+
+        /**
+         * Checks the position is in the bounds of a list or an array.
+         * @param size Size of the list or array.
+         * @throws StringExpanderException Thrown to indicate the position is out of bounds.
+         */
+        private void checkPosition(final int size) throws StringExpanderException
+        {
+            if (position >= size)
+            {
+                throw new StringExpanderException(String.format("Index: '%d' out of bounds for size: '%d'", position, size));
+            }
+        }
+
+        /**
+         * Parses an index as a position.
+         * @param key Index.
+         * @return Position, or -1 if the index is not a position.
+         */
+        private static int parsePosition(final String key)
+        {
+            try
+            {
+                int position = Integer.parseInt(key);
+                return position >= 0 ? position : -1;
+            }
+            catch (NumberFormatException e)
+            {
+                return -1;
+            }
+        }
+    }
+}
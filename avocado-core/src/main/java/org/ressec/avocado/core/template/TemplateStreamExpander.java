@@ -0,0 +1,334 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.template;
+
+import lombok.NonNull;
+import org.ressec.avocado.core.exception.checked.StringExpanderException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An expander streaming a templated text from a reader to a writer, expanding its variables (same format as a
+ * {@link CompiledTemplate}) on the fly, with the values of an object instance or of a {@link VariableResolver}.
+ * <br><br>
+ * The text is read through a fixed size buffer and never loaded as a whole, so arbitrarily large texts are
+ * expanded with bounded memory. A variable straddling two buffers is accumulated until its closing
+ * <code>}</code>, up to {@link #MAX_VARIABLE_LENGTH} characters: a longer or unterminated variable is kept as
+ * literal text. The variables are compiled once per expansion.
+ * <pre>   {@code
+ *   try (Reader reader = Files.newBufferedReader(source); Writer writer = Files.newBufferedWriter(target))
+ *   {
+ *       TemplateStreamExpander.expand(configuration, reader, writer);
+ *   }
+ * }</pre>
+ * The reader and the writer are not closed, the writer is flushed once the text is expanded.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class TemplateStreamExpander
+{
+    /**
+     * Default size of the read buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /**
+     * Maximum length of a variable (between <code>${</code> and <code>}</code>).
+     */
+    public static final int MAX_VARIABLE_LENGTH = 1024;
+
+    /**
+     * Maximum number of distinct variables compiled once per expansion.
+     */
+    private static final int MAX_CACHED_VARIABLES = 1024;
+
+    /**
+     * Character starting a variable.
+     */
+    private static final char VARIABLE_MARKER = '$';
+
+    /**
+     * Character opening a variable after its marker.
+     */
+    private static final char VARIABLE_OPEN = '{';
+
+    /**
+     * Character ending a variable.
+     */
+    private static final char VARIABLE_END = '}';
+
+    /**
+     * State reading literal text.
+     */
+    private static final int LITERAL = 0;
+
+    /**
+     * State having read a variable marker.
+     */
+    private static final int MARKER = 1;
+
+    /**
+     * State reading a variable.
+     */
+    private static final int VARIABLE = 2;
+
+    /**
+     * Object instance containing the variable values ({@code null} if a resolver is given).
+     */
+    private final Object instance;
+
+    /**
+     * Variable resolver ({@code null} if an instance is given).
+     */
+    private final VariableResolver resolver;
+
+    /**
+     * Writer the expanded text is written to.
+     */
+    private final Writer writer;
+
+    /**
+     * Variables compiled during the expansion, indexed by expression.
+     */
+    private final Map<String, TemplateVariable> variables = new HashMap<>();
+
+    /**
+     * Expression of the variable being read.
+     */
+    private final StringBuilder expression = new StringBuilder();
+
+    /**
+     * Expansion state.
+     */
+    private int state = LITERAL;
+
+    /**
+     * Creates a new template stream expander.
+     * @param instance Object instance containing the variable values ({@code null} if a resolver is given).
+     * @param resolver Variable resolver ({@code null} if an instance is given).
+     * @param writer Writer the expanded text is written to.
+     */
+    private TemplateStreamExpander(final Object instance, final VariableResolver resolver, final Writer writer)
+    {
+        this.instance = instance;
+        this.resolver = resolver;
+        this.writer = writer;
+    }
+
+    /**
+     * Expands a templated text read from a reader to a writer.
+     * @param instance Object instance containing the variable values.
+     * @param reader Reader of the templated text.
+     * @param writer Writer the expanded text is written to.
+     * @throws StringExpanderException Thrown to indicate an error occurred while trying to expand a variable.
+     * @throws IOException Thrown in case an error occurred while reading or writing the text.
+     */
+    public static void expand(final @NonNull Object instance, final @NonNull Reader reader, final @NonNull Writer writer) throws StringExpanderException, IOException
+    {
+        expand(instance, reader, writer, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Expands a templated text read from a reader to a writer.
+     * @param instance Object instance containing the variable values.
+     * @param reader Reader of the templated text.
+     * @param writer Writer the expanded text is written to.
+     * @param bufferSize Size of the read buffer.
+     * @throws StringExpanderException Thrown to indicate an error occurred while trying to expand a variable.
+     * @throws IOException Thrown in case an error occurred while reading or writing the text.
+     */
+    public static void expand(final @NonNull Object instance, final @NonNull Reader reader, final @NonNull Writer writer, final int bufferSize) throws StringExpanderException, IOException
+    {
+        new TemplateStreamExpander(instance, null, writer).expand(reader, bufferSize);
+    }
+
+    /**
+     * Expands a templated text read from a reader to a writer, with the values provided by a variable resolver.
+     * @param resolver Variable resolver.
+     * @param reader Reader of the templated text.
+     * @param writer Writer the expanded text is written to.
+     * @throws StringExpanderException Thrown to indicate a variable cannot be resolved or formatted.
+     * @throws IOException Thrown in case an error occurred while reading or writing the text.
+     */
+    public static void expand(final @NonNull VariableResolver resolver, final @NonNull Reader reader, final @NonNull Writer writer) throws StringExpanderException, IOException
+    {
+        new TemplateStreamExpander(null, resolver, writer).expand(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Expands a templated text read from a channel to another channel.
+     * @param instance Object instance containing the variable values.
+     * @param in Channel of the templated text.
+     * @param out Channel the expanded text is written to.
+     * @param charset Charset of the texts.
+     * @throws StringExpanderException Thrown to indicate an error occurred while trying to expand a variable.
+     * @throws IOException Thrown in case an error occurred while reading or writing the text.
+     */
+    public static void expand(final @NonNull Object instance, final @NonNull ReadableByteChannel in, final @NonNull WritableByteChannel out, final @NonNull Charset charset) throws StringExpanderException, IOException
+    {
+        // The reader and the writer are not closed as it would close the channels.
+        expand(instance, Channels.newReader(in, charset.newDecoder(), -1), Channels.newWriter(out, charset.newEncoder(), -1));
+    }
+
+    /**
+     * Expands the text of a reader.
+     * @param reader Reader of the templated text.
+     * @param bufferSize Size of the read buffer.
+     * @throws StringExpanderException Thrown to indicate an error occurred while trying to expand a variable.
+     * @throws IOException Thrown in case an error occurred while reading or writing the text.
+     */
+    private void expand(final Reader reader, final int bufferSize) throws StringExpanderException, IOException
+    {
+        if (bufferSize <= 0)
+        {
+            throw new IllegalArgumentException(String.format("Invalid buffer size: '%d'", bufferSize));
+        }
+
+        var buffer = new char[bufferSize];
+        int length;
+        while ((length = reader.read(buffer)) >= 0)
+        {
+            process(buffer, length);
+        }
+        finish();
+        writer.flush();
+    }
+
+    /**
+     * Expands the characters read in the buffer.
+     * @param buffer Buffer.
+     * @param length Number of characters read.
+     * @throws StringExpanderException Thrown to indicate an error occurred while trying to expand a variable.
+     * @throws IOException Thrown in case an error occurred while writing the text.
+     */
+    private void process(final char[] buffer, final int length) throws StringExpanderException, IOException
+    {
+        int literalStart = 0;
+        int index = 0;
+        while (index < length)
+        {
+            char c = buffer[index];
+            switch (state)
+            {
+                case LITERAL:
+                    if (c == VARIABLE_MARKER)
+                    {
+                        writer.write(buffer, literalStart, index - literalStart);
+                        state = MARKER;
+                    }
+                    index++;
+                    break;
+
+                case MARKER:
+                    if (c == VARIABLE_OPEN)
+                    {
+                        expression.setLength(0);
+                        state = VARIABLE;
+                        index++;
+                    }
+                    else
+                    {
+                        // The marker is literal text, the character is processed again as literal text.
+                        writer.write(VARIABLE_MARKER);
+                        literalStart = index;
+                        state = LITERAL;
+                    }
+                    break;
+
+                default:
+                    if (c == VARIABLE_END)
+                    {
+                        TemplateVariable variable = compile(expression.toString());
+                        writer.write(resolver != null ? variable.render(resolver) : variable.render(instance));
+                        literalStart = index + 1;
+                        state = LITERAL;
+                    }
+                    else if (expression.length() == MAX_VARIABLE_LENGTH)
+                    {
+                        // The variable is too long to be buffered, it is kept as literal text.
+                        writeUnterminated();
+                        literalStart = index;
+                        state = LITERAL;
+                        break;
+                    }
+                    else
+                    {
+                        expression.append(c);
+                    }
+                    index++;
+                    break;
+            }
+        }
+
+        if (state == LITERAL)
+        {
+            writer.write(buffer, literalStart, length - literalStart);
+        }
+    }
+
+    /**
+     * Writes the pending marker or variable once the text has been read.
+     * @throws IOException Thrown in case an error occurred while writing the text.
+     */
+    private void finish() throws IOException
+    {
+        if (state == MARKER)
+        {
+            writer.write(VARIABLE_MARKER);
+        }
+        else if (state == VARIABLE)
+        {
+            // An unterminated variable is kept as literal text.
+            writeUnterminated();
+        }
+        state = LITERAL;
+    }
+
+    /**
+     * Writes the variable being read as literal text.
+     * @throws IOException Thrown in case an error occurred while writing the text.
+     */
+    private void writeUnterminated() throws IOException
+    {
+        writer.write(VARIABLE_MARKER);
+        writer.write(VARIABLE_OPEN);
+        writer.append(expression);
+    }
+
+    /**
+     * Returns the compiled variable of an expression, compiling it if it is not cached.
+     * @param variable Variable expression.
+     * @return Compiled variable.
+     */
+    private TemplateVariable compile(final String variable)
+    {
+        TemplateVariable compiled = variables.get(variable);
+        if (compiled == null)
+        {
+            compiled = new TemplateVariable(variable);
+            if (variables.size() < MAX_CACHED_VARIABLES)
+            {
+                variables.put(variable, compiled);
+            }
+        }
+
+        return compiled;
+    }
+}
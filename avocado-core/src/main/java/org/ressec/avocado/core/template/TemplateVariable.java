@@ -0,0 +1,97 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.template;
+
+import lombok.NonNull;
+import org.ressec.avocado.core.exception.checked.StringExpanderException;
+
+/**
+ * A template variable compiled once from its expression: a property path, optionally followed by a format after
+ * a colon (see {@link PropertyPath} and {@link ValueFormatter}).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class TemplateVariable
+{
+    /**
+     * Separator between the property path and the format of a variable.
+     */
+    private static final char FORMAT_SEPARATOR = ':';
+
+    /**
+     * Variable expression, as written in the template.
+     */
+    private final String expression;
+
+    /**
+     * Variable name: the expression without its format.
+     */
+    private final String name;
+
+    /**
+     * Property path of the variable.
+     */
+    private final PropertyPath path;
+
+    /**
+     * Formatter of the variable.
+     */
+    private final ValueFormatter formatter;
+
+    /**
+     * Compiles a variable.
+     * @param expression Variable expression, as written in the template.
+     */
+    TemplateVariable(final @NonNull String expression)
+    {
+        int separator = expression.indexOf(FORMAT_SEPARATOR);
+
+        this.expression = expression;
+        this.name = separator < 0 ? expression : expression.substring(0, separator);
+        this.path = PropertyPath.compile(name);
+        this.formatter = separator < 0 || separator == expression.length() - 1 ? ValueFormatter.DEFAULT : ValueFormatter.of(expression.substring(separator + 1));
+    }
+
+    /**
+     * Renders the variable with the values of an object instance.
+     * @param instance Object instance containing the variable value.
+     * @return Formatted value.
+     * @throws StringExpanderException Thrown to indicate the variable cannot be expanded.
+     */
+    String render(final @NonNull Object instance) throws StringExpanderException
+    {
+        return formatter.format(path.get(instance));
+    }
+
+    /**
+     * Renders the variable with the value provided by a resolver.
+     * @param resolver Variable resolver.
+     * @return Formatted value.
+     * @throws StringExpanderException Thrown to indicate the variable cannot be resolved or formatted.
+     */
+    String render(final @NonNull VariableResolver resolver) throws StringExpanderException
+    {
+        Object value = resolver.resolve(name);
+        if (value == null)
+        {
+            throw new StringExpanderException(String.format("Cannot resolve variable: '%s'", name));
+        }
+
+        return formatter.format(value == VariableResolver.NULL_VALUE ? null : value);
+    }
+
+    @Override
+    public String toString()
+    {
+        return expression;
+    }
+}
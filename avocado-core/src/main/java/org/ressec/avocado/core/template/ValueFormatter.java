@@ -0,0 +1,172 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.template;
+
+import lombok.NonNull;
+import org.ressec.avocado.core.exception.checked.StringExpanderException;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * A formatter converting the values of the template variables to text, according to an optional format
+ * compiled once per variable.
+ * <br><br>
+ * Without a format, a string is kept as is, an enumerated value is converted to its name and any other value is
+ * converted with {@link String#valueOf(Object)}. The format of a variable follows its path after a colon
+ * (<code>${amount:#,##0.00}</code>) and is interpreted according to the type of the value:
+ * <ul>
+ *     <li>a format starting with {@code %} is a {@link java.util.Formatter} format applying to any value,</li>
+ *     <li>a number is formatted with a {@link DecimalFormat} pattern,</li>
+ *     <li>a date or time ({@link TemporalAccessor} or {@link Date}) is formatted with a {@link DateTimeFormatter}
+ *     pattern, instants being formatted in UTC.</li>
+ * </ul>
+ * The formats are locale independent ({@link Locale#ROOT}).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class ValueFormatter
+{
+    /**
+     * Formatter of the variables without a format.
+     */
+    static final ValueFormatter DEFAULT = new ValueFormatter(null);
+
+    /**
+     * Text of the value of a {@code null} variable.
+     */
+    private static final String NULL = "null";
+
+    /**
+     * Prefix of the {@link java.util.Formatter} formats.
+     */
+    private static final char FORMATTER_PREFIX = '%';
+
+    /**
+     * Format ({@code null} if the values are not formatted).
+     */
+    private final String format;
+
+    /**
+     * Number format of the thread, created on first use as a decimal format is not thread-safe.
+     */
+    private final ThreadLocal<DecimalFormat> numberFormat;
+
+    /**
+     * Date and time formatter, created on first use ({@code null} until then).
+     */
+    private volatile DateTimeFormatter temporalFormat;
+
+    /**
+     * Creates a new value formatter.
+     * @param format Format ({@code null} if the values are not formatted).
+     */
+    private ValueFormatter(final String format)
+    {
+        this.format = format;
+        this.numberFormat = format == null ? null : ThreadLocal.withInitial(() -> new DecimalFormat(format, DecimalFormatSymbols.getInstance(Locale.ROOT)));
+    }
+
+    /**
+     * Returns the formatter of a format.
+     * @param format Format ({@code null} if the values are not formatted).
+     * @return Value formatter.
+     */
+    static ValueFormatter of(final String format)
+    {
+        return format == null ? DEFAULT : new ValueFormatter(format);
+    }
+
+    /**
+     * Formats a value.
+     * @param value Value, possibly {@code null}.
+     * @return Formatted value.
+     * @throws StringExpanderException Thrown to indicate the value cannot be formatted.
+     */
+    String format(final Object value) throws StringExpanderException
+    {
+        if (value instanceof String && format == null)
+        {
+            return (String) value;
+        }
+
+        if (value == null)
+        {
+            return NULL;
+        }
+
+        if (format == null)
+        {
+            return value instanceof Enum ? ((Enum<?>) value).name() : String.valueOf(value);
+        }
+
+        try
+        {
+            if (format.charAt(0) == FORMATTER_PREFIX)
+            {
+                return String.format(Locale.ROOT, format, value);
+            }
+
+            if (value instanceof Number)
+            {
+                return numberFormat.get().format(value);
+            }
+
+            if (value instanceof TemporalAccessor)
+            {
+                return formatTemporal((TemporalAccessor) value);
+            }
+
+            if (value instanceof Date)
+            {
+                return formatTemporal(((Date) value).toInstant());
+            }
+        }
+        catch (IllegalArgumentException | DateTimeException e)
+        {
+            throw new StringExpanderException(String.format("Cannot format value: '%s' with format: '%s'", value, format), e);
+        }
+
+        throw new StringExpanderException(String.format("Cannot format value of class: '%s' with format: '%s'", value.getClass().getName(), format));
+    }
+
+    /**
+     * Formats a date or time.
+     * @param value Date or time.
+     * @return Formatted value.
+     */
+    private String formatTemporal(final @NonNull TemporalAccessor value)
+    {
+        DateTimeFormatter formatter = temporalFormat;
+        if (formatter == null)
+        {
+            formatter = DateTimeFormatter.ofPattern(format, Locale.ROOT);
+            temporalFormat = formatter;
+        }
+
+        // An instant does not carry a time zone to resolve the fields of the pattern.
+        return value instanceof Instant ? formatter.withZone(ZoneOffset.UTC).format(value) : formatter.format(value);
+    }
+
+    @Override
+    public String toString()
+    {
+        return format == null ? "" : format;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.template;
+
+import lombok.NonNull;
+import org.ressec.avocado.core.exception.checked.StringExpanderException;
+
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A resolver providing the values of template variables by name.
+ * <br><br>
+ * The name of a variable is its expression without its format: for <code>${db.port:%05d}</code>, the resolver is
+ * asked for {@code db.port} and the format is applied to the resolved value. Resolvers are layered with
+ * {@link #chain(VariableResolver...)}, the first resolver resolving a variable providing its value:
+ * <pre>   {@code
+ *   VariableResolver resolver = VariableResolver.chain(
+ *           VariableResolver.ofMap(overrides),
+ *           VariableResolver.ofProperties(properties),
+ *           VariableResolver.environment(),
+ *           VariableResolver.systemProperties(),
+ *           VariableResolver.ofInstance(configuration));
+ *
+ *   String url = CompiledTemplate.of("jdbc:postgresql://${db.host}:${db.port}/${db.name}").render(resolver);
+ * }</pre>
+ * A resolver distinguishes a variable it does not resolve ({@code null}, the next resolver of a chain is asked)
+ * from a variable it resolves to a {@code null} value ({@link #NULL_VALUE}, the chain stops). A variable resolved
+ * to {@code null} is rendered as <code>null</code>, as when the template is rendered with an object instance,
+ * while a variable resolved by none of the resolvers is an error.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface VariableResolver
+{
+    /**
+     * Value returned by a resolver for a variable it resolves to {@code null}.
+     */
+    Object NULL_VALUE = new Object();
+
+    /**
+     * Resolves the value of a variable.
+     * @param name Variable name.
+     * @return Variable value, {@link #NULL_VALUE} if the variable is resolved to {@code null}, or {@code null}
+     *     if the resolver does not resolve the variable.
+     * @throws StringExpanderException Thrown to indicate an error occurred while trying to resolve the variable.
+     */
+    Object resolve(final @NonNull String name) throws StringExpanderException;
+
+    /**
+     * Returns a resolver caching the resolutions (resolved or not) of this resolver, so each variable is only
+     * resolved once by this resolver.
+     * <br><br>
+     * The cache is not bounded and is never invalidated: a memoized resolver is meant for sources that do not
+     * change while they are used.
+     * @return Memoized resolver.
+     */
+    default VariableResolver memoized()
+    {
+        return this instanceof MemoizedResolver ? this : new MemoizedResolver(this);
+    }
+
+    /**
+     * Returns a resolver chaining some resolvers in order, the first resolver resolving a variable providing its
+     * value.
+     * <br><br>
+     * The chain itself does not cache anything, so the layers reading live sources (such as maps) stay live:
+     * the lookups are cached by the layers reading sources that do not change (properties, environment, system
+     * properties), which only resolve each variable once. A chain whose sources never change can be memoized
+     * as a whole with {@link #memoized()}.
+     * @param resolvers Resolvers, by order of precedence.
+     * @return Chained resolver.
+     */
+    static VariableResolver chain(final @NonNull VariableResolver... resolvers)
+    {
+        return new ChainedResolver(resolvers);
+    }
+
+    /**
+     * Returns a resolver reading the variables from a map.
+     * <br><br>
+     * The map is read on each resolution, so the resolver reflects the changes of the map, including inside a
+     * chain. Memoizing the resolver saves nothing for a map lookup and would hide the changes of the map. A key
+     * mapped to {@code null} resolves its variable to {@code null}.
+     * @param values Variable values indexed by name.
+     * @return Map resolver.
+     */
+    static VariableResolver ofMap(final @NonNull Map<String, ?> values)
+    {
+        return name -> {
+            Object value = values.get(name);
+            return value != null || !values.containsKey(name) ? value : NULL_VALUE;
+        };
+    }
+
+    /**
+     * Returns a resolver reading the variables from properties, including their default properties.
+     * <br><br>
+     * The resolver is memoized, as reading a property walks the chain of default properties.
+     * @param properties Properties.
+     * @return Properties resolver.
+     */
+    static VariableResolver ofProperties(final @NonNull Properties properties)
+    {
+        VariableResolver resolver = properties::getProperty;
+        return resolver.memoized();
+    }
+
+    /**
+     * Returns a resolver reading the variables from the environment of the process.
+     * <br><br>
+     * The resolver is memoized.
+     * @return Environment resolver.
+     */
+    static VariableResolver environment()
+    {
+        VariableResolver resolver = System::getenv;
+        return resolver.memoized();
+    }
+
+    /**
+     * Returns a resolver reading the variables from the system properties.
+     * <br><br>
+     * The resolver is memoized, so the system properties changed after the resolution of a variable are not
+     * seen by the resolver.
+     * @return System properties resolver.
+     */
+    static VariableResolver systemProperties()
+    {
+        VariableResolver resolver = System::getProperty;
+        return resolver.memoized();
+    }
+
+    /**
+     * Returns a resolver reading the variables from the properties of an object instance, a variable name being
+     * a property path (see {@link CompiledTemplate}).
+     * <br><br>
+     * The property paths are compiled once per variable name, the values are read on each resolution. A name
+     * which is not a property path of the instance leaves the variable unresolved, while a {@code null} property
+     * value (or a {@code null} property along the path) resolves it to {@code null}.
+     * @param instance Object instance.
+     * @return Instance resolver.
+     */
+    static VariableResolver ofInstance(final @NonNull Object instance)
+    {
+        return new InstanceResolver(instance);
+    }
+}
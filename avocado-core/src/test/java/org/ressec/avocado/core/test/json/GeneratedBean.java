@@ -0,0 +1,164 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.test.json;
+
+import com.google.gson.annotations.SerializedName;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import org.ressec.avocado.core.annotation.GenerateTypeAdapter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A org.ressec.avocado.core.test bean object having a compile-time generated type adapter.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Getter
+@Setter
+@GenerateTypeAdapter
+public class GeneratedBean
+{
+    /**
+     * Name.
+     */
+    @SerializedName(value = "label", alternate = "title")
+    private String name;
+
+    /**
+     * Numeric value.
+     */
+    private int numeric;
+
+    /**
+     * Key value.
+     */
+    private long key;
+
+    /**
+     * Ratio.
+     */
+    private double ratio;
+
+    /**
+     * Weight.
+     */
+    private float weight;
+
+    /**
+     * Active flag.
+     */
+    private boolean active;
+
+    /**
+     * Grade.
+     */
+    private char grade;
+
+    /**
+     * Time stamp.
+     */
+    private Instant timestamp;
+
+    /**
+     * Tags.
+     */
+    private List<String> tags;
+
+    /**
+     * Location.
+     */
+    private Point location;
+
+    /**
+     * Owner, declared with a type-use annotation.
+     */
+    @NonNull
+    private String owner = "";
+
+    /**
+     * Aliases, declared with an annotated type argument.
+     */
+    private List<@NonNull String> aliases;
+
+    /**
+     * Shape, declared with its base type.
+     */
+    private Shape shape;
+
+    /**
+     * Cached value, not serialized.
+     */
+    private transient String cache;
+
+    /**
+     * Counter directly accessed by the generated adapter.
+     */
+    short counter;
+
+    /**
+     * A shape, serialized with its runtime type.
+     */
+    @Getter
+    @Setter
+    public static class Shape
+    {
+        /**
+         * Color.
+         */
+        private String color;
+    }
+
+    /**
+     * A circle.
+     */
+    @Getter
+    @Setter
+    public static final class Circle extends Shape
+    {
+        /**
+         * Radius.
+         */
+        private double radius;
+    }
+
+    /**
+     * An immutable point instantiated through its constructor.
+     */
+    @Getter
+    @GenerateTypeAdapter
+    public static final class Point
+    {
+        /**
+         * Abscissa.
+         */
+        private final int x;
+
+        /**
+         * Ordinate.
+         */
+        private final int y;
+
+        /**
+         * Creates a new point.
+         * @param x Abscissa.
+         * @param y Ordinate.
+         */
+        public Point(final int x, final int y)
+        {
+            this.x = x;
+            this.y = y;
+        }
+    }
+}
@@ -11,17 +11,42 @@
  */
 package org.ressec.avocado.core.test.json;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import lombok.extern.log4j.Log4j2;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.ressec.avocado.core.annotation.JsonSubtype;
 import org.ressec.avocado.core.helper.JsonHelper;
+import org.ressec.avocado.core.json.BinaryJsonReader;
+import org.ressec.avocado.core.json.BinaryJsonWriter;
+import org.ressec.avocado.core.json.GsonRegistry;
+import org.ressec.avocado.core.json.JsonAsyncExecutor;
+import org.ressec.avocado.core.json.JsonLinesSpliterator;
+import org.ressec.avocado.core.json.JsonProjection;
+import org.ressec.avocado.core.json.JsonWriteOptions;
+import org.ressec.avocado.core.json.ParallelGzipOutputStream;
 import org.ressec.avocado.core.junit.AbstractBaseUnitTest;
+import org.ressec.avocado.core.runtime.JsonMigration;
+import org.ressec.avocado.core.runtime.RuntimeTypeAdapterFactory;
+import org.ressec.avocado.core.runtime.SubtypeIndex;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
 import java.lang.reflect.Type;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
 
 /**
  * A org.ressec.avocado.core.test class for unit testing the {@link JsonHelper} entity.
@@ -236,4 +261,780 @@ class TestJsonHelper extends AbstractBaseUnitTest
 
         Assertions.assertNotNull(target);
     }
+
+    /**
+     * Test the {@link GsonRegistry} profiles are shared and can be warmed up.
+     */
+    @Test
+    void testJsonHelperGsonRegistry() throws IOException
+    {
+        Type type = new TypeToken<ArrayList<SimpleBean>>(){}.getType();
+        GsonRegistry.warmUp(SimpleBean.class, type);
+
+        Assertions.assertSame(GsonRegistry.getPretty(), GsonRegistry.get(GsonRegistry.PROFILE_PRETTY));
+        Assertions.assertSame(GsonRegistry.getCompact(), GsonRegistry.get(GsonRegistry.PROFILE_COMPACT));
+
+        Gson gson = GsonRegistry.register("test", GsonRegistry.newBuilder().serializeNulls());
+        Assertions.assertSame(gson, GsonRegistry.get("test"));
+
+        File file = getFile();
+        SimpleBean origin = generateBean();
+        JsonHelper.serialize(gson, file.getPath(), origin);
+        SimpleBean target = JsonHelper.deserialize(gson, file, SimpleBean.class);
+
+        Assertions.assertEquals(origin.getName(), target.getName());
+        Assertions.assertEquals(origin.getKey(), target.getKey());
+
+        GsonRegistry.unregister("test");
+        Assertions.assertFalse(GsonRegistry.contains("test"));
+    }
+
+    /**
+     * Test the streaming serialization of a stream of simple beans in a {@code json} file.
+     */
+    @Test
+    void testJsonHelperSerializeStream() throws IOException
+    {
+        File file = getFile();
+
+        int count = 1 + getRandomNumber(99);
+        JsonHelper.serializeStream(file, Stream.generate(this::generateBean).limit(count), SimpleBean.class);
+
+        Type type = new TypeToken<ArrayList<SimpleBean>>(){}.getType();
+        List<SimpleBean> target = JsonHelper.deserialize(file, type);
+
+        Assertions.assertEquals(count, target.size());
+    }
+
+    /**
+     * Test the lazy de-serialization of a {@code json} array referenced by a json pointer.
+     */
+    @Test
+    void testJsonHelperDeserializeStream() throws IOException
+    {
+        File file = getFile();
+
+        Map<String, List<SimpleBean>> origin = new HashMap<>();
+        origin.put("other", Collections.singletonList(generateBean()));
+        origin.put("items", Stream.generate(this::generateBean).limit(10).collect(Collectors.toList()));
+
+        Type type = new TypeToken<HashMap<String, List<SimpleBean>>>(){}.getType();
+        JsonHelper.serialize(file, origin, type);
+
+        try (Stream<SimpleBean> stream = JsonHelper.deserializeStream(GsonRegistry.getCompact(), file, SimpleBean.class, "/items"))
+        {
+            Assertions.assertEquals(origin.get("items").get(3).getKey(), stream.skip(3).findFirst().orElseThrow().getKey());
+        }
+
+        JsonHelper.serializeStream(file, origin.get("items").iterator(), SimpleBean.class);
+        try (Stream<SimpleBean> stream = JsonHelper.deserializeStream(file, SimpleBean.class))
+        {
+            Assertions.assertEquals(10, stream.count());
+        }
+    }
+
+    /**
+     * Test the serialization, append and de-serialization of simple beans in a {@code json lines} file.
+     */
+    @Test
+    void testJsonHelperSerializeLines() throws IOException
+    {
+        File file = getFile();
+
+        JsonHelper.serializeLines(GsonRegistry.getPretty(), file, Stream.generate(this::generateBean).limit(10), SimpleBean.class);
+        JsonHelper.appendLines(file, Stream.generate(this::generateBean).limit(5).iterator(), SimpleBean.class);
+        JsonHelper.appendLine(file, generateBean(), SimpleBean.class);
+
+        try (Stream<SimpleBean> stream = JsonHelper.deserializeLines(file, SimpleBean.class))
+        {
+            Assertions.assertEquals(16, stream.count());
+        }
+    }
+
+    /**
+     * Test the parallel de-serialization of a {@code json lines} file.
+     */
+    @Test
+    void testJsonHelperDeserializeLinesParallel() throws IOException
+    {
+        File file = getFile();
+
+        List<SimpleBean> origin = Stream.generate(this::generateBean).limit(2000).collect(Collectors.toList());
+        JsonHelper.serializeLines(file, origin.iterator(), SimpleBean.class);
+
+        // Small chunks to force the file to be split.
+        try (Stream<SimpleBean> stream = JsonLinesSpliterator.stream(GsonRegistry.getCompact(), file.toPath(), SimpleBean.class, true, 1024))
+        {
+            List<Long> keys = stream.map(SimpleBean::getKey).collect(Collectors.toList());
+            Assertions.assertEquals(origin.stream().map(SimpleBean::getKey).collect(Collectors.toList()), keys);
+        }
+
+        try (Stream<SimpleBean> stream = JsonHelper.deserializeLinesParallel(file, SimpleBean.class, false))
+        {
+            Assertions.assertEquals(origin.size(), stream.count());
+        }
+    }
+
+    /**
+     * Test the atomic and durable serialization of an object skipping unchanged contents.
+     */
+    @Test
+    void testJsonHelperSerializeAtomic() throws IOException
+    {
+        File file = getFile();
+        SimpleBean object = generateBean();
+
+        JsonWriteOptions options = JsonWriteOptions.builder()
+                .atomic(true)
+                .durable(true)
+                .skipUnchanged(true)
+                .build();
+
+        Assertions.assertTrue(JsonHelper.serialize(file, object, options));
+        Assertions.assertFalse(JsonHelper.serialize(file, object, options));
+        Assertions.assertTrue(JsonHelper.serialize(file, generateBean(), options));
+
+        File[] siblings = file.getParentFile().listFiles((dir, name) -> name.startsWith("." + file.getName()));
+        Assertions.assertEquals(0, Objects.requireNonNull(siblings).length);
+        Assertions.assertNotNull(JsonHelper.deserialize(file, SimpleBean.class));
+    }
+
+    /**
+     * Test the serialization and de-serialization of compressed {@code json} files.
+     */
+    @Test
+    void testJsonHelperSerializeCompressed() throws IOException
+    {
+        List<SimpleBean> origin = Stream.generate(this::generateBean).limit(1000).collect(Collectors.toList());
+        Type type = new TypeToken<ArrayList<SimpleBean>>(){}.getType();
+
+        File gzip = new File(getFile().getPath() + ".gz");
+        JsonWriteOptions options = JsonWriteOptions.builder()
+                .compressionLevel(Deflater.BEST_SPEED)
+                .parallelCompression(true)
+                .build();
+        JsonHelper.serialize(GsonRegistry.getCompact(), gzip, origin, type, options);
+        List<SimpleBean> target = JsonHelper.deserialize(gzip, type);
+        Assertions.assertEquals(origin.size(), target.size());
+
+        // Gzip content is detected by its magic bytes whatever the extension.
+        File renamed = getFile();
+        Assertions.assertTrue(gzip.renameTo(renamed));
+        target = JsonHelper.deserialize(renamed, type);
+        Assertions.assertEquals(origin.size(), target.size());
+
+        File deflate = new File(getFile().getPath() + ".deflate");
+        JsonHelper.serialize(GsonRegistry.getCompact(), deflate, origin, type, JsonWriteOptions.DEFAULT);
+        target = JsonHelper.deserialize(deflate, type);
+        Assertions.assertEquals(origin.size(), target.size());
+
+        File lines = new File(getFile().getPath() + ".gz");
+        JsonHelper.serializeLines(lines, origin.iterator(), SimpleBean.class);
+        JsonHelper.appendLine(lines, generateBean(), SimpleBean.class);
+        try (Stream<SimpleBean> stream = JsonHelper.deserializeLinesParallel(lines, SimpleBean.class, true))
+        {
+            Assertions.assertEquals(origin.size() + 1, stream.count());
+        }
+
+        // A gzip json lines file without extension is not split.
+        File renamedLines = getFile();
+        Assertions.assertTrue(lines.renameTo(renamedLines));
+        try (Stream<SimpleBean> stream = JsonHelper.deserializeLinesParallel(renamedLines, SimpleBean.class, true))
+        {
+            Assertions.assertEquals(origin.size() + 1, stream.count());
+        }
+    }
+
+    /**
+     * Test the parallel gzip compression spanning several blocks.
+     */
+    @Test
+    void testParallelGzipOutputStream() throws IOException
+    {
+        byte[] content = new byte[100_000];
+        random.nextBytes(content);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream output = new ParallelGzipOutputStream(compressed, Deflater.DEFAULT_COMPRESSION, 4096, ForkJoinPool.commonPool(), 4))
+        {
+            output.write(content, 0, 10);
+            output.write(content[10]);
+            output.write(content, 11, content.length - 11);
+        }
+
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray())))
+        {
+            Assertions.assertArrayEquals(content, input.readAllBytes());
+        }
+    }
+
+    /**
+     * Test the asynchronous serialization and de-serialization of {@code json} files on a bounded executor.
+     */
+    @Test
+    void testJsonHelperAsync() throws InterruptedException, ExecutionException
+    {
+        List<File> files = new ArrayList<>();
+        List<CompletableFuture<Boolean>> writes = new ArrayList<>();
+
+        try (JsonAsyncExecutor executor = new JsonAsyncExecutor(2, 2))
+        {
+            for (int i = 0; i < 20; i++)
+            {
+                File file = getFile();
+                files.add(file);
+                writes.add(executor.serialize(GsonRegistry.getCompact(), file, generateBean(), SimpleBean.class, JsonWriteOptions.DEFAULT));
+                Assertions.assertTrue(executor.getQueueDepth() <= 4);
+            }
+
+            CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).join();
+        }
+
+        for (File file : files)
+        {
+            SimpleBean bean = JsonHelper.<SimpleBean>deserializeAsync(file, SimpleBean.class).get();
+            Assertions.assertNotNull(bean);
+        }
+    }
+
+    /**
+     * Test the compile-time generated type adapters produce the same json as the reflective binding.
+     */
+    @Test
+    void testJsonHelperGeneratedTypeAdapter()
+    {
+        GeneratedBean bean = new GeneratedBean();
+        bean.setName("generated");
+        bean.setNumeric(42);
+        bean.setKey(Long.MAX_VALUE);
+        bean.setRatio(0.25);
+        bean.setWeight(1.1F);
+        bean.setActive(true);
+        bean.setGrade('A');
+        bean.setTimestamp(Instant.now());
+        bean.setTags(Arrays.asList("a", "b"));
+        bean.setLocation(new GeneratedBean.Point(3, -4));
+        bean.setCache("ignored");
+        bean.setOwner("owner");
+        bean.setAliases(Arrays.asList("x", "y"));
+        GeneratedBean.Circle circle = new GeneratedBean.Circle();
+        circle.setColor("red");
+        circle.setRadius(2.5);
+        bean.setShape(circle);
+        bean.counter = 7;
+
+        Gson gson = GsonRegistry.getCompact();
+        Assertions.assertTrue(gson.getAdapter(GeneratedBean.class).getClass().getSimpleName().endsWith("_GsonTypeAdapter"));
+        Assertions.assertTrue(gson.getAdapter(GeneratedBean.Point.class).getClass().getSimpleName().endsWith("_GsonTypeAdapter"));
+
+        String json = gson.toJson(bean);
+        Assertions.assertEquals(new Gson().toJson(bean), json);
+        Assertions.assertTrue(json.contains("\"radius\":2.5"));
+
+        // As with Gson, a field is read with its declared type.
+        GeneratedBean copy = gson.fromJson(json, GeneratedBean.class);
+        Assertions.assertEquals(new Gson().toJson(new Gson().fromJson(json, GeneratedBean.class)), gson.toJson(copy));
+        Assertions.assertNull(copy.getCache());
+        Assertions.assertEquals(-4, copy.getLocation().getY());
+        Assertions.assertEquals("owner", copy.getOwner());
+        Assertions.assertEquals(Arrays.asList("x", "y"), copy.getAliases());
+        Assertions.assertEquals("red", copy.getShape().getColor());
+
+        copy = gson.fromJson("{\"title\":\"alternate\",\"numeric\":null,\"unknown\":[1,2]}", GeneratedBean.class);
+        Assertions.assertEquals("alternate", copy.getName());
+        Assertions.assertEquals(0, copy.getNumeric());
+    }
+
+    /**
+     * Test the extraction of selected values from a {@code json} file without binding the whole document.
+     */
+    @Test
+    void testJsonHelperProjection() throws IOException
+    {
+        File file = getFile();
+        try (Writer writer = new FileWriter(file))
+        {
+            writer.write("{\"id\":42,\"payload\":{\"data\":[1,2,3,{\"deep\":true}]},"
+                    + "\"meta\":{\"timestamp\":\"2021-05-01T10:00:00Z\",\"tags\":[\"a\",\"b\"]},"
+                    + "\"items\":[{\"name\":\"first\"},{\"name\":\"second\"}],\"trailer\":\"unread\"}");
+        }
+
+        JsonProjection projection = JsonProjection.of("/id", "/meta/timestamp", "/items/1/name", "/missing");
+        Map<String, JsonElement> values = JsonHelper.extract(file, projection);
+        Assertions.assertEquals(3, values.size());
+        Assertions.assertEquals(42, values.get("/id").getAsInt());
+        Assertions.assertEquals("second", values.get("/items/1/name").getAsString());
+
+        // Reading stops once all the values have been found.
+        JsonReader reader = new JsonReader(new StringReader("{\"id\":1,\"rest\":[1,2]}"));
+        Assertions.assertEquals(1, JsonProjection.of("/id").extract(reader).size());
+        Assertions.assertEquals("rest", reader.nextName());
+
+        Summary summary = JsonHelper.project(file, projection, Summary.class);
+        Assertions.assertEquals(42, summary.id);
+        Assertions.assertEquals("2021-05-01T10:00:00Z", summary.timestamp);
+        Assertions.assertEquals("second", summary.name);
+    }
+
+    /**
+     * Test the in place append of elements at the end of the array of a {@code json} file.
+     */
+    @Test
+    void testJsonHelperAppendArrayElements() throws Exception
+    {
+        Type type = new TypeToken<List<SimpleBean>>() {}.getType();
+
+        // The array is created when the file does not exist.
+        File file = getFile();
+        JsonHelper.appendArrayElement(file, generateBean(), SimpleBean.class);
+        JsonHelper.appendArrayElements(file, Collections.emptyIterator(), SimpleBean.class);
+        Assertions.assertEquals(1, JsonHelper.<List<SimpleBean>>deserialize(file, type).size());
+
+        // Empty and pretty printed arrays followed by whitespaces.
+        try (Writer writer = new FileWriter(file))
+        {
+            writer.write("[ \n ]\n\n");
+        }
+        JsonHelper.appendArrayElement(file, generateBean(), SimpleBean.class);
+        Assertions.assertEquals(1, JsonHelper.<List<SimpleBean>>deserialize(file, type).size());
+
+        List<SimpleBean> beans = Stream.generate(this::generateBean).limit(3).collect(Collectors.toList());
+        JsonHelper.serialize(file, beans, type);
+        JsonHelper.appendArrayElements(file, Stream.generate(this::generateBean).limit(2).iterator(), SimpleBean.class);
+        List<SimpleBean> result = JsonHelper.deserialize(file, type);
+        Assertions.assertEquals(5, result.size());
+        Assertions.assertEquals(beans.get(2).getName(), result.get(2).getName());
+
+        // Concurrent appenders never corrupt the file.
+        List<CompletableFuture<Void>> appends = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+        {
+            appends.add(CompletableFuture.runAsync(() ->
+            {
+                for (int j = 0; j < 25; j++)
+                {
+                    try
+                    {
+                        JsonHelper.appendArrayElement(file, generateBean(), SimpleBean.class);
+                    }
+                    catch (IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }));
+        }
+        CompletableFuture.allOf(appends.toArray(new CompletableFuture[0])).get();
+        Assertions.assertEquals(205, JsonHelper.<List<SimpleBean>>deserialize(file, type).size());
+
+        try (Writer writer = new FileWriter(file))
+        {
+            writer.write("{\"name\":\"object\"}");
+        }
+        Assertions.assertThrows(IOException.class, () -> JsonHelper.appendArrayElement(file, generateBean(), SimpleBean.class));
+        Assertions.assertThrows(IOException.class, () -> JsonHelper.appendArrayElement(new File(file.getPath() + ".gz"), generateBean(), SimpleBean.class));
+
+        // Gzip content is detected by its magic bytes whatever the extension, and left untouched.
+        File gzip = new File(getFile().getPath() + ".gz");
+        JsonHelper.serialize(GsonRegistry.getCompact(), gzip, Collections.singletonList(generateBean()), type, JsonWriteOptions.DEFAULT);
+        File renamed = getFile();
+        Assertions.assertTrue(gzip.renameTo(renamed));
+        long length = renamed.length();
+        IOException error = Assertions.assertThrows(IOException.class, () -> JsonHelper.appendArrayElement(renamed, generateBean(), SimpleBean.class));
+        Assertions.assertTrue(error.getMessage().contains("compressed"));
+        Assertions.assertEquals(length, renamed.length());
+        Assertions.assertEquals(1, JsonHelper.<List<SimpleBean>>deserialize(renamed, type).size());
+    }
+
+    /**
+     * Test the serialization and de-serialization of objects in the compact binary json encoding.
+     */
+    @Test
+    void testJsonHelperBinary() throws IOException
+    {
+        Gson gson = GsonRegistry.getCompact();
+        Type type = new TypeToken<List<SimpleBean>>() {}.getType();
+        List<SimpleBean> beans = Stream.generate(this::generateBean).limit(100).collect(Collectors.toList());
+
+        File file = new File(sharedTempDirectory + UUID.randomUUID().toString() + ".bin");
+        JsonHelper.serializeBinary(file, beans, type);
+        Assertions.assertEquals(gson.toJson(beans, type), gson.toJson(JsonHelper.deserializeBinary(file, type), type));
+        Assertions.assertTrue(file.length() < gson.toJson(beans, type).length());
+
+        // Maps are read through the promotion of their names to values.
+        Map<Integer, List<Double>> map = new LinkedHashMap<>();
+        map.put(-1, Arrays.asList(0.5, -1.0E300));
+        map.put(Integer.MAX_VALUE, Collections.emptyList());
+        Type mapType = new TypeToken<Map<Integer, List<Double>>>() {}.getType();
+        JsonHelper.serializeBinary(gson, file, map, mapType, JsonWriteOptions.builder().atomic(true).build());
+        Assertions.assertEquals(map, JsonHelper.deserializeBinary(file, mapType));
+
+        GeneratedBean bean = new GeneratedBean();
+        bean.setName("binary \u00e9\u20ac");
+        bean.setKey(Long.MIN_VALUE);
+        bean.setWeight(1.1F);
+        bean.setGrade('Z');
+        bean.setTags(Arrays.asList("a", null));
+        File compressed = new File(file.getPath() + ".gz");
+        JsonHelper.serializeBinary(gson, compressed, bean, GeneratedBean.class, JsonWriteOptions.DEFAULT);
+        Assertions.assertEquals(gson.toJson(bean), gson.toJson(JsonHelper.<GeneratedBean>deserializeBinary(compressed, GeneratedBean.class)));
+
+        // Arbitrary json trees, as read and written by the runtime type adapters.
+        JsonElement tree = gson.fromJson("{\"big\":123456789012345678901234567890,\"decimal\":0.1000000000000000000001,"
+                + "\"nested\":[[{}],[],{\"skipped\":true}],\"text\":\"" + "x".repeat(10000) + "\"}", JsonElement.class);
+        JsonHelper.serializeBinary(file, tree, JsonElement.class);
+        Assertions.assertEquals(tree, JsonHelper.deserializeBinary(file, JsonElement.class));
+
+        try (BinaryJsonReader reader = new BinaryJsonReader(new FileInputStream(file)))
+        {
+            reader.beginObject();
+            Assertions.assertEquals("big", reader.nextName());
+            Assertions.assertThrows(NumberFormatException.class, reader::nextLong);
+            Assertions.assertEquals("decimal", reader.nextName());
+            Assertions.assertEquals("$.decimal", reader.getPath());
+            reader.skipValue();
+            Assertions.assertEquals("nested", reader.nextName());
+            reader.skipValue();
+            Assertions.assertEquals(JsonToken.NAME, reader.peek());
+        }
+    }
+
+    /**
+     * Test the de-serialization of polymorphic objects by the runtime type adapter factory, streamed when the
+     * type field comes first and buffered otherwise.
+     */
+    @Test
+    void testRuntimeTypeAdapterFactoryRead() throws IOException
+    {
+        Gson gson = GsonRegistry.newBuilder()
+                .registerTypeAdapterFactory(RuntimeTypeAdapterFactory.of(Animal.class, "kind")
+                        .registerSubtype(Dog.class)
+                        .registerSubtype(Cat.class))
+                .create();
+        Type type = new TypeToken<List<Animal>>() {}.getType();
+
+        List<Animal> animals = gson.fromJson("[{\"kind\":\"Dog\",\"name\":\"rex\",\"tricks\":{\"sit\":1,\"roll\":2},"
+                + "\"friend\":{\"kind\":\"Cat\",\"name\":\"tom\",\"lives\":9}},"
+                + "{\"name\":\"felix\",\"lives\":7,\"kind\":\"Cat\"}]", type);
+        Dog dog = (Dog) animals.get(0);
+        Assertions.assertEquals("rex", dog.name);
+        Assertions.assertEquals(2, dog.tricks.get("roll"));
+        Assertions.assertEquals(9, ((Cat) dog.friend).lives);
+        Assertions.assertEquals(7, ((Cat) animals.get(1)).lives);
+
+        // Written objects start with their type field and are read back through the streaming path.
+        Assertions.assertEquals(gson.toJson(animals, type), gson.toJson(gson.fromJson(gson.toJson(animals, type), type), type));
+
+        File file = new File(sharedTempDirectory + UUID.randomUUID().toString() + ".bin");
+        JsonHelper.serializeBinary(gson, file, animals, type, JsonWriteOptions.DEFAULT);
+        Assertions.assertEquals(gson.toJson(animals, type), gson.toJson(JsonHelper.deserializeBinary(gson, file, type), type));
+
+        Gson maintained = GsonRegistry.newBuilder()
+                .registerTypeAdapterFactory(RuntimeTypeAdapterFactory.of(Animal.class, "kind", true)
+                        .registerSubtype(Dog.class)
+                        .registerSubtype(Cat.class))
+                .create();
+        Assertions.assertEquals(3, ((Cat) maintained.fromJson("{\"kind\":\"Cat\",\"lives\":3}", Animal.class)).lives);
+        Assertions.assertEquals(3, ((Cat) maintained.fromJson("{\"lives\":3,\"kind\":\"Cat\"}", Animal.class)).lives);
+
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("{}", Animal.class));
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("{\"kind\":\"Bird\"}", Animal.class));
+    }
+
+    /**
+     * Test the serialization of polymorphic objects by the runtime type adapter factory.
+     */
+    @Test
+    void testRuntimeTypeAdapterFactoryWrite()
+    {
+        Cat cat = new Cat();
+        cat.name = "tom";
+        cat.lives = 9;
+        Dog dog = new Dog();
+        dog.name = "rex";
+        dog.tricks = Collections.singletonMap("sit", 1);
+        dog.friend = cat;
+
+        Gson gson = GsonRegistry.newBuilder()
+                .registerTypeAdapterFactory(RuntimeTypeAdapterFactory.of(Animal.class, "kind")
+                        .registerSubtype(Dog.class)
+                        .registerSubtype(Cat.class))
+                .create();
+        Assertions.assertEquals("[{\"kind\":\"Dog\",\"tricks\":{\"sit\":1},\"friend\":{\"kind\":\"Cat\",\"lives\":9,\"name\":\"tom\"},"
+                + "\"name\":\"rex\"},null]", gson.toJson(Arrays.asList(dog, null), new TypeToken<List<Animal>>() {}.getType()));
+
+        // A subtype field having the name of the type field is only rejected when it is written.
+        Gson conflicting = GsonRegistry.newBuilder()
+                .registerTypeAdapterFactory(RuntimeTypeAdapterFactory.of(Animal.class, "name")
+                        .registerSubtype(Cat.class))
+                .create();
+        Assertions.assertThrows(JsonParseException.class, () -> conflicting.toJson(cat, Animal.class));
+        cat.name = null;
+        Assertions.assertEquals("{\"name\":\"Cat\",\"lives\":9}", conflicting.toJson(cat, Animal.class));
+    }
+
+    /**
+     * Test the polymorphic serialization of objects identified by compact type ids.
+     * @throws IOException Thrown in case an error occurred while reading or writing binary json.
+     */
+    @Test
+    void testRuntimeTypeAdapterFactoryTypeIds() throws IOException
+    {
+        Cat cat = new Cat();
+        cat.name = "tom";
+        cat.lives = 9;
+        Dog dog = new Dog();
+        dog.name = "rex";
+        dog.friend = cat;
+
+        Gson gson = GsonRegistry.newBuilder()
+                .registerTypeAdapterFactory(RuntimeTypeAdapterFactory.of(Animal.class, "kind")
+                        .registerSubtype(Dog.class, 0)
+                        .registerSubtype(Cat.class, "feline", 7))
+                .create();
+        String json = gson.toJson(dog, Animal.class);
+        Assertions.assertEquals("{\"kind\":0,\"friend\":{\"kind\":7,\"lives\":9,\"name\":\"tom\"},\"name\":\"rex\"}", json);
+        Assertions.assertEquals(9, ((Cat) ((Dog) gson.fromJson(json, Animal.class)).friend).lives);
+
+        // Labels are still accepted, the type field being first or not.
+        Assertions.assertEquals(8, ((Cat) gson.fromJson("{\"kind\":\"feline\",\"lives\":8}", Animal.class)).lives);
+        Assertions.assertEquals(6, ((Cat) gson.fromJson("{\"lives\":6,\"kind\":7}", Animal.class)).lives);
+
+        var buffer = new ByteArrayOutputStream();
+        try (var writer = new BinaryJsonWriter(buffer))
+        {
+            gson.toJson(dog, Animal.class, writer);
+        }
+        Dog binary = (Dog) gson.fromJson(new BinaryJsonReader(new ByteArrayInputStream(buffer.toByteArray())), Animal.class);
+        Assertions.assertEquals("tom", binary.friend.name);
+
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("{\"kind\":3,\"lives\":6}", Animal.class));
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("{\"kind\":1.5,\"lives\":6}", Animal.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RuntimeTypeAdapterFactory.of(Animal.class)
+                .registerSubtype(Dog.class, 1)
+                .registerSubtype(Cat.class, 1));
+    }
+
+    /**
+     * Test the polymorphic serialization of objects whose class is not registered but extends a registered subtype.
+     */
+    @Test
+    void testRuntimeTypeAdapterFactoryNearestSubtype()
+    {
+        Gson gson = GsonRegistry.newBuilder()
+                .registerTypeAdapterFactory(RuntimeTypeAdapterFactory.of(Animal.class, "kind")
+                        .registerSubtype(Cat.class))
+                .create();
+
+        Cat kitten = new Cat()
+        {
+            // Anonymous subclass, as generated by proxies.
+        };
+        kitten.lives = 3;
+        Assertions.assertEquals("{\"kind\":\"Cat\",\"lives\":3}", gson.toJson(kitten, Animal.class));
+        Assertions.assertEquals(3, ((Cat) gson.fromJson(gson.toJson(kitten, Animal.class), Animal.class)).lives);
+        Assertions.assertThrows(JsonParseException.class, () -> gson.toJson(new Dog(), Animal.class));
+    }
+
+    /**
+     * Test the registration of subtypes after the creation of the {@code Gson} instance, from several threads.
+     */
+    @Test
+    void testRuntimeTypeAdapterFactoryLateRegistration()
+    {
+        RuntimeTypeAdapterFactory<Animal> factory = RuntimeTypeAdapterFactory.of(Animal.class, "kind")
+                .registerSubtype(Dog.class);
+        Gson gson = GsonRegistry.newBuilder()
+                .registerTypeAdapterFactory(factory)
+                .create();
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("{\"kind\":\"Cat\",\"lives\":2}", Animal.class));
+
+        // Only one of the concurrent registrations of a same subtype succeeds.
+        List<CompletableFuture<Boolean>> registrations = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+        {
+            String label = "Cat" + i;
+            registrations.add(CompletableFuture.supplyAsync(() ->
+            {
+                try
+                {
+                    factory.registerSubtype(Cat.class, label);
+                    return true;
+                }
+                catch (IllegalArgumentException e)
+                {
+                    return false;
+                }
+            }));
+        }
+        Assertions.assertEquals(1, registrations.stream().filter(CompletableFuture::join).count());
+
+        String label = gson.toJson(new Cat(), Animal.class).split("\"")[3];
+        Assertions.assertEquals(2, ((Cat) gson.fromJson("{\"kind\":\"" + label + "\",\"lives\":2}", Animal.class)).lives);
+        Assertions.assertEquals("rex", gson.fromJson("{\"kind\":\"Dog\",\"name\":\"rex\"}", Animal.class).name);
+    }
+
+    /**
+     * Test the migration of polymorphic objects of former versions.
+     * @throws IOException Thrown in case an error occurred while reading or writing binary json.
+     */
+    @Test
+    void testRuntimeTypeAdapterFactoryMigration() throws IOException
+    {
+        Gson gson = GsonRegistry.newBuilder()
+                .registerTypeAdapterFactory(RuntimeTypeAdapterFactory.of(Animal.class, "kind")
+                        .registerSubtype(Dog.class)
+                        .registerSubtype(Cat.class)
+                        .registerLabelAlias(Cat.class, "Kitty")
+                        .registerVersion("v", 2)
+                        .registerMigration(Cat.class, 0, JsonMigration.builder()
+                                .renameField("life", "lives")
+                                .removeField("legacy")
+                                .build())
+                        .registerMigration(Cat.class, 1, JsonMigration.builder()
+                                .renameField("nick", "name")
+                                .addField("lives", 9)
+                                .build())
+                        .registerMigration(Dog.class, 1, JsonMigration.builder()
+                                .transform(object -> object.addProperty("name", object.remove("title").getAsString().toUpperCase()))
+                                .build()))
+                .create();
+
+        Cat cat = new Cat();
+        cat.name = "tom";
+        cat.lives = 7;
+        Assertions.assertEquals("{\"kind\":\"Cat\",\"v\":2,\"lives\":7,\"name\":\"tom\"}", gson.toJson(cat, Animal.class));
+
+        // Streamed migrations, from the version 0 (no version field) and 1.
+        Cat migrated = (Cat) gson.fromJson("{\"kind\":\"Kitty\",\"life\":5,\"legacy\":true,\"nick\":\"tom\"}", Animal.class);
+        Assertions.assertEquals(5, migrated.lives);
+        Assertions.assertEquals("tom", migrated.name);
+        Assertions.assertEquals(9, ((Cat) gson.fromJson("{\"kind\":\"Cat\",\"nick\":\"tom\"}", Animal.class)).lives);
+        Assertions.assertEquals("tom", gson.fromJson("{\"kind\":\"Cat\",\"v\":1,\"lives\":4,\"nick\":\"tom\"}", Animal.class).name);
+        Assertions.assertEquals(4, ((Cat) gson.fromJson("{\"life\":4,\"kind\":\"Cat\"}", Animal.class)).lives);
+
+        // A version field which is not right after the type field, or written as a string, is read as well.
+        Cat current = (Cat) gson.fromJson("{\"kind\":\"Cat\",\"lives\":4,\"v\":2,\"nick\":\"jerry\",\"name\":\"tom\"}", Animal.class);
+        Assertions.assertEquals("tom", current.name);
+        Assertions.assertEquals(4, current.lives);
+        current = (Cat) gson.fromJson("{\"kind\":\"Cat\",\"v\":\"2\",\"nick\":\"jerry\",\"name\":\"tom\",\"lives\":4}", Animal.class);
+        Assertions.assertEquals("tom", current.name);
+        Assertions.assertEquals(4, current.lives);
+        current = (Cat) gson.fromJson("{\"kind\":\"Cat\",\"nick\":\"tom\",\"v\":1}", Animal.class);
+        Assertions.assertEquals("tom", current.name);
+        Assertions.assertEquals(9, current.lives);
+
+        // Migration transforming the object as a tree, the nested objects being migrated as well.
+        Dog dog = (Dog) gson.fromJson("{\"kind\":\"Dog\",\"v\":1,\"title\":\"rex\",\"friend\":{\"kind\":\"Cat\",\"life\":2}}", Animal.class);
+        Assertions.assertEquals("REX", dog.name);
+        Assertions.assertEquals(2, ((Cat) dog.friend).lives);
+
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("{\"kind\":\"Cat\",\"v\":3}", Animal.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RuntimeTypeAdapterFactory.of(Animal.class, "kind")
+                .registerSubtype(Cat.class)
+                .registerVersion("kind", 1));
+
+        // Map fields of a migrated object are streamed as is.
+        Gson renaming = GsonRegistry.newBuilder()
+                .registerTypeAdapterFactory(RuntimeTypeAdapterFactory.of(Animal.class, "kind")
+                        .registerSubtype(Dog.class)
+                        .registerVersion("v", 1)
+                        .registerMigration(Dog.class, 0, JsonMigration.builder()
+                                .renameField("skills", "tricks")
+                                .build()))
+                .create();
+        Dog trained = (Dog) renaming.fromJson("{\"kind\":\"Dog\",\"skills\":{\"sit\":1,\"down\":2},\"name\":\"rex\"}", Animal.class);
+        Assertions.assertEquals(2, trained.tricks.get("down"));
+        Assertions.assertEquals("rex", trained.name);
+
+        var buffer = new ByteArrayOutputStream();
+        try (var writer = new BinaryJsonWriter(buffer))
+        {
+            renaming.toJson(JsonParser.parseString("{\"kind\":\"Dog\",\"skills\":{\"sit\":1},\"name\":\"rex\"}"), writer);
+        }
+        trained = (Dog) renaming.fromJson(new BinaryJsonReader(new ByteArrayInputStream(buffer.toByteArray())), Animal.class);
+        Assertions.assertEquals(1, trained.tricks.get("sit"));
+    }
+
+    /**
+     * Test the registration of the subtypes annotated with {@code JsonSubtype}, from the compile-time index and
+     * by scanning the class path.
+     */
+    @Test
+    void testRuntimeTypeAdapterFactoryIndexedSubtypes()
+    {
+        Map<Class<?>, String> subtypes = SubtypeIndex.find(Animal.class);
+        Assertions.assertEquals("Dog", subtypes.get(Dog.class));
+        Assertions.assertEquals("feline", subtypes.get(Cat.class));
+        Assertions.assertEquals(subtypes, SubtypeIndex.scan(Animal.class));
+
+        Gson gson = GsonRegistry.newBuilder()
+                .registerTypeAdapterFactory(RuntimeTypeAdapterFactory.of(Animal.class, "kind")
+                        .registerSubtype(Dog.class, "canine")
+                        .registerIndexedSubtypes())
+                .create();
+        Assertions.assertEquals(7, ((Cat) gson.fromJson("{\"kind\":\"feline\",\"lives\":7}", Animal.class)).lives);
+        Assertions.assertTrue(gson.fromJson("{\"kind\":\"canine\"}", Animal.class) instanceof Dog);
+    }
+
+    /**
+     * Base type of the polymorphic beans used by the runtime type adapter factory tests.
+     */
+    private abstract static class Animal
+    {
+        /**
+         * Name.
+         */
+        protected String name;
+    }
+
+    /**
+     * A dog.
+     */
+    @JsonSubtype
+    private static final class Dog extends Animal
+    {
+        /**
+         * Tricks and their difficulty.
+         */
+        private Map<String, Integer> tricks;
+
+        /**
+         * Best friend.
+         */
+        private Animal friend;
+    }
+
+    /**
+     * A cat.
+     */
+    @JsonSubtype(label = "feline")
+    private static class Cat extends Animal
+    {
+        /**
+         * Remaining lives.
+         */
+        private int lives;
+    }
+
+    /**
+     * Projection of a document used by the projection tests.
+     */
+    private static final class Summary
+    {
+        /**
+         * Identifier.
+         */
+        private long id;
+
+        /**
+         * Time stamp.
+         */
+        private String timestamp;
+
+        /**
+         * Name.
+         */
+        private String name;
+    }
 }
@@ -0,0 +1,397 @@
+/*
+ * Copyright(c) 2021 by Resse Christophe.
+ * --------------------------------------------------------------------------------------
+ * This file is part of Resse Christophe public projects which is licensed
+ * under the Apache license version 2 and use is subject to license terms.
+ * You should have received a copy of the license with the project's artifact
+ * binaries and/or sources.
+ *
+ * License can be consulted at http://www.apache.org/licenses/LICENSE-2.0
+ * --------------------------------------------------------------------------------------
+ */
+package org.ressec.avocado.core.test.template;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.ressec.avocado.core.exception.checked.StringExpanderException;
+import org.ressec.avocado.core.helper.StringExpander;
+import org.ressec.avocado.core.junit.AbstractBaseUnitTest;
+import org.ressec.avocado.core.template.CompiledTemplate;
+import org.ressec.avocado.core.template.TemplateStreamExpander;
+import org.ressec.avocado.core.template.VariableResolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A class for unit testing the {@link CompiledTemplate} and {@link StringExpander} entities.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class TestCompiledTemplate extends AbstractBaseUnitTest
+{
+    /**
+     * Test the compilation of a template in literal and variable segments.
+     */
+    @Test
+    @Timeout(5)
+    void testCompiledTemplateParse()
+    {
+        CompiledTemplate template = CompiledTemplate.of("Hello ${name} from ${city}${name}!");
+        Assertions.assertEquals(Arrays.asList("name", "city", "name"), template.getVariables());
+        Assertions.assertSame(template, CompiledTemplate.of("Hello ${name} from ${city}${name}!"));
+
+        // An unterminated variable is kept as literal text.
+        Assertions.assertEquals(Collections.singletonList("name"), CompiledTemplate.of("${name} costs ${").getVariables());
+        Assertions.assertFalse(CompiledTemplate.of("Hello ${name").hasVariables());
+        Assertions.assertEquals(Collections.singletonList("name"), StringExpander.extractVariables("${name} costs ${"));
+    }
+
+    /**
+     * Test the rendering of a template with the values of an object instance.
+     * @throws StringExpanderException Thrown in case a variable cannot be expanded.
+     */
+    @Test
+    void testCompiledTemplateRender() throws StringExpanderException
+    {
+        Person person = new Person("Alice", "Paris", Role.ADMIN);
+        Assertions.assertEquals("Hello Alice from Paris (ADMIN), bye Alice!",
+                CompiledTemplate.of("Hello ${name} from ${city} (${role}), bye ${name}!").render(person));
+        Assertions.assertEquals("Hello Alice from Paris (ADMIN), bye Alice!",
+                StringExpander.expandVariables(person, "Hello ${name} from ${city} (${role}), bye ${name}!"));
+        Assertions.assertEquals("Role: ADMIN", StringExpander.expandVariables(Role.ADMIN, "Role: ${this}"));
+        Assertions.assertEquals("Unterminated ${name", StringExpander.expandVariables(person, "Unterminated ${name"));
+
+        StringBuilder builder = new StringBuilder("> ");
+        CompiledTemplate.of("${name}").render(person, builder);
+        Assertions.assertEquals("> Alice", builder.toString());
+
+        Assertions.assertThrows(StringExpanderException.class, () -> CompiledTemplate.of("${unknown}").render(person));
+    }
+
+    /**
+     * Test the rendering of variables read through getters and inherited fields.
+     * @throws StringExpanderException Thrown in case a variable cannot be expanded.
+     */
+    @Test
+    void testCompiledTemplateAccessors() throws StringExpanderException
+    {
+        Employee employee = new Employee("Bob", "Lyon", Role.ADMIN, "ACME");
+        CompiledTemplate template = CompiledTemplate.of("${name} (${initials}) works for ${company} in ${city}");
+        Assertions.assertEquals("Bob (B.) works for ACME in Lyon", template.render(employee));
+        Assertions.assertEquals("Bob (B.) works for ACME in Lyon", template.render(employee));
+        Assertions.assertThrows(StringExpanderException.class, () -> template.render(new Person("Alice", "Paris", Role.ADMIN)));
+
+        // A public getter of a non-public JDK class is invoked through the public interface declaring it.
+        Map<String, Integer> counts = new HashMap<>();
+        counts.put("orders", 3);
+        Map.Entry<String, Integer> entry = counts.entrySet().iterator().next();
+        Assertions.assertEquals("orders=3", CompiledTemplate.of("${key}=${value}").render(entry));
+    }
+
+    /**
+     * Test the rendering of nested and indexed property paths and of formatted values.
+     * @throws StringExpanderException Thrown in case a variable cannot be expanded.
+     */
+    @Test
+    void testCompiledTemplatePaths() throws StringExpanderException
+    {
+        Order order = new Order(42, new Person("Alice", "Paris", Role.ADMIN), Arrays.asList(new BigDecimal("1234.5"), BigDecimal.ONE),
+                new int[] { 3, 7 }, Collections.singletonMap("channel", "web"), LocalDate.of(2021, 3, 9), Instant.parse("2021-03-09T10:15:30Z"));
+
+        Assertions.assertEquals("Order 42 of Alice (Paris, ADMIN)",
+                CompiledTemplate.of("Order ${id} of ${customer.name} (${customer.city}, ${customer.role})").render(order));
+        Assertions.assertEquals("1234.5 / 1 / 7 / web / Alice",
+                CompiledTemplate.of("${amounts[0]} / ${amounts[1]} / ${quantities[1]} / ${attributes[channel]} / ${this.customer.name}").render(order));
+        Assertions.assertEquals("1,234.50 | 00042 | 09/03/2021 | 2021-03-09 10:15",
+                CompiledTemplate.of("${amounts[0]:#,##0.00} | ${id:%05d} | ${date:dd/MM/yyyy} | ${created:yyyy-MM-dd HH:mm}").render(order));
+        Assertions.assertEquals("2021-03-09 null", CompiledTemplate.of("${date} ${attributes[unknown]}").render(order));
+
+        // The same path is read from instances of different classes.
+        CompiledTemplate template = CompiledTemplate.of("${customer.name}");
+        Assertions.assertEquals("Alice", template.render(order));
+        Assertions.assertEquals("Bob", template.render(new Order(1, new Employee("Bob", "Lyon", Role.ADMIN, "ACME"), null, null, null, null, null)));
+        Assertions.assertEquals("null", template.render(new Order(1, null, null, null, null, null, null)));
+
+        Assertions.assertThrows(StringExpanderException.class, () -> CompiledTemplate.of("${amounts[2]}").render(order));
+        Assertions.assertThrows(StringExpanderException.class, () -> CompiledTemplate.of("${customer[0]}").render(order));
+        Assertions.assertThrows(StringExpanderException.class, () -> CompiledTemplate.of("${customer..name}").render(order));
+        Assertions.assertThrows(StringExpanderException.class, () -> CompiledTemplate.of("${customer.name:0.00}").render(order));
+    }
+
+    /**
+     * Test the streaming expansion of a text, whatever the buffer boundaries.
+     * @throws StringExpanderException Thrown in case a variable cannot be expanded.
+     * @throws IOException Thrown in case an error occurred while reading or writing the text.
+     */
+    @Test
+    void testTemplateStreamExpander() throws StringExpanderException, IOException
+    {
+        Person person = new Person("Alice", "Paris", Role.ADMIN);
+        String text = "$Hello ${name} from ${city}$${role}, costs $5 {not} ${name}${city}! ${unterminated";
+        String expected = "$Hello Alice from Paris$ADMIN, costs $5 {not} AliceParis! ${unterminated";
+        Assertions.assertEquals(expected, CompiledTemplate.of(text).render(person));
+
+        for (int bufferSize = 1; bufferSize <= text.length() + 1; bufferSize++)
+        {
+            StringWriter writer = new StringWriter();
+            TemplateStreamExpander.expand(person, new StringReader(text), writer, bufferSize);
+            Assertions.assertEquals(expected, writer.toString(), "Buffer size: " + bufferSize);
+        }
+
+        StringWriter writer = new StringWriter();
+        StringExpander.expandVariables(person, new StringReader("Ends with $"), writer);
+        Assertions.assertEquals("Ends with $", writer.toString());
+
+        // A variable longer than the maximum length is kept as literal text.
+        String tooLong = "${" + "x".repeat(TemplateStreamExpander.MAX_VARIABLE_LENGTH + 1) + "} ${name}";
+        writer = new StringWriter();
+        TemplateStreamExpander.expand(person, new StringReader(tooLong), writer, 7);
+        Assertions.assertEquals(tooLong.replace("${name}", "Alice"), writer.toString());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        TemplateStreamExpander.expand(person, Channels.newChannel(new ByteArrayInputStream("Citt\u00e0: ${city}".getBytes(StandardCharsets.UTF_8))),
+                Channels.newChannel(output), StandardCharsets.UTF_8);
+        Assertions.assertEquals("Citt\u00e0: Paris", output.toString(StandardCharsets.UTF_8));
+
+        Assertions.assertThrows(StringExpanderException.class, () -> TemplateStreamExpander.expand(person, new StringReader("${unknown}"), new StringWriter()));
+    }
+
+    /**
+     * Test the rendering of a template with layered and memoized variable resolvers.
+     * @throws StringExpanderException Thrown in case a variable cannot be expanded.
+     * @throws IOException Thrown in case an error occurred while reading or writing the text.
+     */
+    @Test
+    void testVariableResolvers() throws StringExpanderException, IOException
+    {
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put("db.port", 5433);
+        Properties defaults = new Properties();
+        defaults.setProperty("db.host", "localhost");
+        defaults.setProperty("db.port", "5432");
+        Properties properties = new Properties(defaults);
+        properties.setProperty("db.name", "orders");
+
+        AtomicInteger lookups = new AtomicInteger();
+        VariableResolver counting = name -> {
+            lookups.incrementAndGet();
+            return null;
+        };
+
+        VariableResolver resolver = VariableResolver.chain(VariableResolver.ofMap(overrides), VariableResolver.ofProperties(properties), counting.memoized(),
+                VariableResolver.environment(), VariableResolver.systemProperties(), VariableResolver.ofInstance(new Person("Alice", "Paris", Role.ADMIN)));
+
+        CompiledTemplate template = CompiledTemplate.of("jdbc://${db.host}:${db.port:%05d}/${db.name}?user=${name}&java=${java.version}");
+        String expected = "jdbc://localhost:05433/orders?user=Alice&java=" + System.getProperty("java.version");
+        Assertions.assertEquals(expected, template.render(resolver));
+        Assertions.assertEquals(2, lookups.get());
+
+        // The memoized layer only looks up each variable once.
+        Assertions.assertEquals(expected, template.render(resolver));
+        Assertions.assertEquals(expected, StringExpander.expandVariables(resolver, template.getText()));
+        Assertions.assertEquals(2, lookups.get());
+
+        StringWriter writer = new StringWriter();
+        TemplateStreamExpander.expand(resolver, new StringReader(template.getText()), writer);
+        Assertions.assertEquals(expected, writer.toString());
+
+        // The map layer is read live.
+        overrides.put("db.port", 6000);
+        Assertions.assertEquals(expected.replace("05433", "06000"), template.render(resolver));
+        Assertions.assertEquals(2, lookups.get());
+
+        // A memoized resolver caches the unresolved variables as well.
+        VariableResolver memoized = counting.memoized();
+        Assertions.assertNull(memoized.resolve("unknown"));
+        Assertions.assertNull(memoized.resolve("unknown"));
+        Assertions.assertSame(memoized, memoized.memoized());
+        Assertions.assertEquals(3, lookups.get());
+
+        Assertions.assertThrows(StringExpanderException.class, () -> CompiledTemplate.of("${unknown.variable}").render(VariableResolver.ofMap(overrides)));
+
+        // A variable which is not a property of the instance is resolved by the next layer.
+        VariableResolver instanceFirst = VariableResolver.chain(VariableResolver.ofInstance(new Person("Alice", "Paris", Role.ADMIN)),
+                VariableResolver.ofMap(Collections.singletonMap("port", "5432")));
+        Assertions.assertEquals("Alice:5432", CompiledTemplate.of("${name}:${port}").render(instanceFirst));
+        Assertions.assertThrows(StringExpanderException.class, () -> CompiledTemplate.of("${name:0.00}").render(instanceFirst));
+
+        // A variable resolved to null is rendered the same way with an instance or a resolver, and ends the chain.
+        Order anonymous = new Order(1, null, null, null, Collections.singletonMap("channel", "web"), null, null);
+        String text = "${customer} ${customer.name} ${attributes[unknown]}";
+        Assertions.assertEquals("null null null", StringExpander.expandVariables(anonymous, text));
+        Assertions.assertEquals("null null null", StringExpander.expandVariables(VariableResolver.ofInstance(anonymous), text));
+        Assertions.assertSame(VariableResolver.NULL_VALUE, VariableResolver.ofInstance(anonymous).resolve("customer"));
+        Assertions.assertEquals("null", CompiledTemplate.of("${customer}").render(VariableResolver.chain(VariableResolver.ofInstance(anonymous),
+                VariableResolver.ofMap(Collections.singletonMap("customer", "Bob")))));
+
+        overrides.put("db.user", null);
+        Assertions.assertEquals("null", CompiledTemplate.of("${db.user}").render(VariableResolver.ofMap(overrides)));
+        Assertions.assertEquals("null", CompiledTemplate.of("${db.user}").render(resolver));
+    }
+
+    /**
+     * A role.
+     */
+    private enum Role
+    {
+        /**
+         * Administrator.
+         */
+        ADMIN
+    }
+
+    /**
+     * A person providing the variable values.
+     */
+    private static class Person
+    {
+        /**
+         * Name.
+         */
+        private final String name;
+
+        /**
+         * City.
+         */
+        private final String city;
+
+        /**
+         * Role.
+         */
+        private final Role role;
+
+        /**
+         * Creates a new person.
+         * @param name Name.
+         * @param city City.
+         * @param role Role.
+         */
+        private Person(final String name, final String city, final Role role)
+        {
+            this.name = name;
+            this.city = city;
+            this.role = role;
+        }
+
+        /**
+         * Returns the name.
+         * @return Name.
+         */
+        public String getName()
+        {
+            return name;
+        }
+    }
+
+    /**
+     * An employee, exposing a computed property through a getter.
+     */
+    private static final class Employee extends Person
+    {
+        /**
+         * Company.
+         */
+        private final String company;
+
+        /**
+         * Creates a new employee.
+         * @param name Name.
+         * @param city City.
+         * @param role Role.
+         * @param company Company.
+         */
+        private Employee(final String name, final String city, final Role role, final String company)
+        {
+            super(name, city, role);
+            this.company = company;
+        }
+
+        /**
+         * Returns the initials of the employee.
+         * @return Initials.
+         */
+        public String getInitials()
+        {
+            return getName().charAt(0) + ".";
+        }
+    }
+
+    /**
+     * An order, providing nested, indexed and formatted variable values.
+     */
+    private static final class Order
+    {
+        /**
+         * Identifier.
+         */
+        private final long id;
+
+        /**
+         * Customer.
+         */
+        private final Person customer;
+
+        /**
+         * Amounts.
+         */
+        private final List<BigDecimal> amounts;
+
+        /**
+         * Quantities.
+         */
+        private final int[] quantities;
+
+        /**
+         * Attributes.
+         */
+        private final Map<String, String> attributes;
+
+        /**
+         * Date.
+         */
+        private final LocalDate date;
+
+        /**
+         * Creation instant.
+         */
+        private final Instant created;
+
+        /**
+         * Creates a new order.
+         * @param id Identifier.
+         * @param customer Customer.
+         * @param amounts Amounts.
+         * @param quantities Quantities.
+         * @param attributes Attributes.
+         * @param date Date.
+         * @param created Creation instant.
+         */
+        private Order(final long id, final Person customer, final List<BigDecimal> amounts, final int[] quantities, final Map<String, String> attributes, final LocalDate date, final Instant created)
+        {
+            this.id = id;
+            this.customer = customer;
+            this.amounts = amounts;
+            this.quantities = quantities;
+            this.attributes = attributes;
+            this.date = date;
+            this.created = created;
+        }
+    }
+}